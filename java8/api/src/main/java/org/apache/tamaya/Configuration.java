@@ -18,12 +18,18 @@
  */
 package org.apache.tamaya;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalDouble;
 import java.util.OptionalInt;
 import java.util.OptionalLong;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 
 /**
@@ -158,6 +164,97 @@ public interface Configuration {
     @SuppressWarnings("JavaDoc")
     Map<String, String> getProperties();
 
+    /**
+     * Access all properties whose keys start with the given prefix, e.g. all keys under {@code db.primary.}. The keys
+     * are not shortened. The default implementation scans {@link #getProperties()}, implementations may override it
+     * using an index over the key space.
+     *
+     * @param prefix the prefix, not {@code null}. An empty prefix selects all properties.
+     * @return an unmodifiable map sorted by key, never {@code null}.
+     */
+    default Map<String, String> getSection(String prefix) {
+        Objects.requireNonNull(prefix, "prefix must not be null");
+        Map<String, String> section = new TreeMap<>();
+        for (Map.Entry<String, String> en : getProperties().entrySet()) {
+            if (en.getKey().startsWith(prefix)) {
+                section.put(en.getKey(), en.getValue());
+            }
+        }
+        return Collections.unmodifiableMap(section);
+    }
+
+    /**
+     * Access the names of the direct children of the given prefix, that are the parts of the keys in
+     * {@link #getSection(String)} following the prefix up to the next {@code '.'}. E.g. for the keys
+     * {@code db.primary.url}, {@code db.primary.user} and {@code db.timeout} the children of {@code db.} are
+     * {@code primary} and {@code timeout}.
+     *
+     * @param prefix the prefix, not {@code null}, usually ending with {@code '.'}.
+     * @return the unmodifiable, sorted names of the children, never {@code null}.
+     */
+    default Set<String> getChildKeys(String prefix) {
+        Set<String> children = new TreeSet<>();
+        for (String key : getSection(prefix).keySet()) {
+            int separator = key.indexOf('.', prefix.length());
+            children.add(separator < 0 ? key.substring(prefix.length()) : key.substring(prefix.length(), separator));
+        }
+        return Collections.unmodifiableSet(children);
+    }
+
+    /**
+     * Access the values of multiple keys at once. The result is the same as calling {@link #get(String)} for each
+     * key, but implementations may evaluate the keys in a single pass over the PropertySources and filters. The
+     * default implementation calls {@link #get(String)} for each key.
+     *
+     * @param keys the keys, not {@code null}.
+     * @return an unmodifiable map of the keys with a value, iterated in the order of the keys, never {@code null}.
+     */
+    default Map<String, String> getAll(Collection<String> keys) {
+        Map<String, String> result = new LinkedHashMap<>();
+        for (String key : keys) {
+            String value = get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Access the values of multiple keys at once, converted to the given type.
+     *
+     * @param keys the keys, not {@code null}.
+     * @param type the target type, not {@code null}.
+     * @param <T>  the value type
+     * @return an unmodifiable map of the keys with a value, iterated in the order of the keys, never {@code null}.
+     * @throws ConfigException if a value could not be converted to the required target type.
+     * @see #getAll(Collection, TypeLiteral)
+     */
+    default <T> Map<String, T> getAll(Collection<String> keys, Class<T> type) {
+        return getAll(keys, TypeLiteral.of(type));
+    }
+
+    /**
+     * Access the values of multiple keys at once, converted to the given type. The result is the same as calling
+     * {@link #get(String, TypeLiteral)} for each key, which is what the default implementation does.
+     *
+     * @param keys the keys, not {@code null}.
+     * @param type the target type, not {@code null}.
+     * @param <T>  the value type
+     * @return an unmodifiable map of the keys with a value, iterated in the order of the keys, never {@code null}.
+     * @throws ConfigException if a value could not be converted to the required target type.
+     */
+    default <T> Map<String, T> getAll(Collection<String> keys, TypeLiteral<T> type) {
+        Map<String, T> result = new LinkedHashMap<>();
+        for (String key : keys) {
+            T value = get(key, type);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
     /**
      * Get the property keys as type {@code Class<T>}.
      * <p>
@@ -248,6 +345,74 @@ public interface Configuration {
         return OptionalDouble.empty();
     }
 
+    /**
+     * Get the property value as {@code boolean}. Implementations may override this method to avoid boxing.
+     *
+     * @param key the property's absolute, or relative path, e.g. {@code
+     *            a/b/c/d.myProperty}.
+     * @param defaultValue the value returned, if no such property is configured.
+     * @return the property's value, or {@code defaultValue}.
+     * @throws ConfigException if the configured value could not be converted to the target type.
+     */
+    default boolean getBoolean(String key, boolean defaultValue) {
+        Boolean val = getBoolean(key);
+        return val == null ? defaultValue : val;
+    }
+
+    /**
+     * Get the property value as {@code int}. Implementations may override this method to avoid boxing.
+     *
+     * @param key the property's absolute, or relative path, e.g. {@code
+     *            a/b/c/d.myProperty}.
+     * @param defaultValue the value returned, if no such property is configured.
+     * @return the property's value, or {@code defaultValue}.
+     * @throws ConfigException if the configured value could not be converted to the target type.
+     */
+    default int getInt(String key, int defaultValue) {
+        return getInteger(key).orElse(defaultValue);
+    }
+
+    /**
+     * Get the property value as {@code long}. Implementations may override this method to avoid boxing.
+     *
+     * @param key the property's absolute, or relative path, e.g. {@code
+     *            a/b/c/d.myProperty}.
+     * @param defaultValue the value returned, if no such property is configured.
+     * @return the property's value, or {@code defaultValue}.
+     * @throws ConfigException if the configured value could not be converted to the target type.
+     */
+    default long getLong(String key, long defaultValue) {
+        return getLong(key).orElse(defaultValue);
+    }
+
+    /**
+     * Get the property value as {@code double}. Implementations may override this method to avoid boxing.
+     *
+     * @param key the property's absolute, or relative path, e.g. {@code
+     *            a/b/c/d.myProperty}.
+     * @param defaultValue the value returned, if no such property is configured.
+     * @return the property's value, or {@code defaultValue}.
+     * @throws ConfigException if the configured value could not be converted to the target type.
+     */
+    default double getDouble(String key, double defaultValue) {
+        return getDouble(key).orElse(defaultValue);
+    }
+
+    /**
+     * Access a consistent, immutable view of this configuration. All values read from the returned instance are
+     * evaluated from the same state, even if the underlying configuration changes concurrently. This is useful, when
+     * multiple related values must be read, e.g. during processing of a request.
+     * <p>
+     * Implementations that are immutable by themselves can simply return {@code this}, which is also the default.
+     * Implementations whose state may change must override this method.
+     * </p>
+     *
+     * @return a consistent view of this configuration, never {@code null}.
+     */
+    default Configuration snapshot() {
+        return this;
+    }
+
     /**
      * Extension point for adjusting configuration.
      *
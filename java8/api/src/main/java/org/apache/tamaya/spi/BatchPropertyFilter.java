@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.spi;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>{@link PropertyFilter} able to filter multiple properties at once, e.g. to decrypt all values with a single
+ * call to a remote service. When the configuration filters multiple properties, such as for
+ * {@link org.apache.tamaya.Configuration#getProperties()}, it calls {@link #filterProperties(Map)} once per filter
+ * cycle with all properties the filter applies to, see {@link #getScope()}. Single values are still filtered by
+ * {@link #filterProperty(String, String)}, so both methods must produce the same results.</p>
+ * <p>The default implementation delegates to {@link #filterProperty(String, String)} for each property.</p>
+ */
+public interface BatchPropertyFilter extends PropertyFilter {
+
+    /**
+     * <p>Filters the given properties.</p>
+     * <h3>Implementation specification</h3>
+     * Implementations of this class must be
+     * <ul>
+     * <li>reentrant</li>
+     * <li>thread-safe</li>
+     * </ul>
+     *
+     * @param properties the keys and values to be filtered, not null, unmodifiable. Values may be null, if a previous
+     *                   filter removed them.
+     * @return the filtered values, never null. Keys not contained are left unchanged, keys mapped to {@code null} are
+     * removed.
+     */
+    default Map<String, String> filterProperties(Map<String, String> properties) {
+        Map<String, String> result = new HashMap<>();
+        for (Map.Entry<String, String> en : properties.entrySet()) {
+            result.put(en.getKey(), filterProperty(en.getKey(), en.getValue()));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.spi;
+
+import org.apache.tamaya.TypeLiteral;
+
+/**
+ * Receives runtime metrics about configuration access, such as the keys accessed, the time spent evaluating
+ * PropertySources and PropertyFilters, and the time spent converting values. Implementations are called on the
+ * threads accessing the configuration, so they must be thread-safe and should not block.
+ * <p>
+ * Metrics are only collected, if enabled by the configuration implementation, otherwise no timing information is
+ * evaluated at all. All methods default to doing nothing, so implementations only implement the callbacks they
+ * are interested in.
+ * </p>
+ */
+public interface ConfigurationMetrics {
+
+    /**
+     * Called after the final value of a key has been evaluated.
+     *
+     * @param key   the key accessed, not null.
+     * @param nanos the time needed to evaluate the final value, including caches, PropertySources and filters.
+     * @param found true, if a value was found.
+     */
+    default void keyAccessed(String key, long nanos, boolean found) {
+    }
+
+    /**
+     * Called after a PropertySource has been asked for a single key.
+     *
+     * @param propertySource the PropertySource, not null.
+     * @param key            the key, not null.
+     * @param nanos          the time needed by the PropertySource.
+     */
+    default void propertySourceAccessed(PropertySource propertySource, String key, long nanos) {
+    }
+
+    /**
+     * Called after the {@link PropertyFilter}s have been applied to the value of a single key.
+     *
+     * @param key   the key, not null.
+     * @param nanos the time needed by all filter cycles.
+     */
+    default void filtersApplied(String key, long nanos) {
+    }
+
+    /**
+     * Called after a value has been converted by the registered {@link org.apache.tamaya.PropertyConverter}s.
+     *
+     * @param key     the key, not null.
+     * @param type    the target type, not null.
+     * @param nanos   the time needed for the conversion.
+     * @param success true, if one of the converters could convert the value.
+     */
+    default void valueConverted(String key, TypeLiteral<?> type, long nanos, boolean success) {
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.spi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Declares the keys and values a {@link PropertyFilter} applies to, see {@link PropertyFilter#getScope()}. A scope
+ * consists of key prefixes, key patterns and value conditions; a filter applies to a key, if any of them matches.
+ * The conditions on keys are evaluated once per key, whereas value conditions are evaluated with the current value
+ * each time the filter would be invoked.
+ * <p>
+ * Scopes are combined using {@link #or(FilterScope)}, e.g.
+ * {@code FilterScope.ofKeyPrefixes("secret.").or(FilterScope.ofValuesContaining("ENC("))}.
+ * </p>
+ * This class is immutable and thread-safe.
+ */
+public final class FilterScope {
+
+    /** The scope of filters applying to all keys and values. */
+    public static final FilterScope ALL = new FilterScope(true, Collections.emptyList(), Collections.emptyList(),
+            Collections.emptyList());
+
+    /** Flag, if this scope is not restricted. */
+    private final boolean unrestricted;
+    /** The key prefixes. */
+    private final List<String> keyPrefixes;
+    /** The key patterns, which must match the whole key. */
+    private final List<Pattern> keyPatterns;
+    /** The value conditions. */
+    private final List<Predicate<String>> valueConditions;
+
+    private FilterScope(boolean unrestricted, List<String> keyPrefixes, List<Pattern> keyPatterns,
+                        List<Predicate<String>> valueConditions) {
+        this.unrestricted = unrestricted;
+        this.keyPrefixes = keyPrefixes;
+        this.keyPatterns = keyPatterns;
+        this.valueConditions = valueConditions;
+    }
+
+    /**
+     * Creates a scope applying to all keys starting with one of the given prefixes.
+     *
+     * @param prefixes the prefixes, e.g. {@code "secret."}, not null.
+     * @return the new scope, never null.
+     */
+    public static FilterScope ofKeyPrefixes(String... prefixes) {
+        return new FilterScope(false, copy(prefixes), Collections.emptyList(), Collections.emptyList());
+    }
+
+    /**
+     * Creates a scope applying to all keys matching one of the given regular expressions completely.
+     *
+     * @param regexes the regular expressions, e.g. {@code ".*\\.password"}, not null.
+     * @return the new scope, never null.
+     */
+    public static FilterScope ofKeyPatterns(String... regexes) {
+        List<Pattern> patterns = new ArrayList<>();
+        for (String regex : regexes) {
+            patterns.add(Pattern.compile(regex));
+        }
+        return new FilterScope(false, Collections.emptyList(), Collections.unmodifiableList(patterns),
+                Collections.emptyList());
+    }
+
+    /**
+     * Creates a scope applying to all values containing one of the given markers.
+     *
+     * @param markers the markers, e.g. {@code "${"}, not null.
+     * @return the new scope, never null.
+     */
+    public static FilterScope ofValuesContaining(String... markers) {
+        List<String> copy = copy(markers);
+        return ofValues(value -> {
+            for (String marker : copy) {
+                if (value.contains(marker)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Creates a scope applying to all values accepted by the given condition.
+     *
+     * @param condition the condition, called with non null values only, must be thread-safe, not null.
+     * @return the new scope, never null.
+     */
+    public static FilterScope ofValues(Predicate<String> condition) {
+        return new FilterScope(false, Collections.emptyList(), Collections.emptyList(),
+                Collections.singletonList(Objects.requireNonNull(condition)));
+    }
+
+    private static List<String> copy(String... values) {
+        List<String> copy = new ArrayList<>(Arrays.asList(values));
+        for (String value : copy) {
+            Objects.requireNonNull(value);
+        }
+        return Collections.unmodifiableList(copy);
+    }
+
+    /**
+     * Creates a scope applying to all keys and values this or the given scope applies to.
+     *
+     * @param other the other scope, not null.
+     * @return the combined scope, never null.
+     */
+    public FilterScope or(FilterScope other) {
+        if (unrestricted || other.unrestricted) {
+            return ALL;
+        }
+        return new FilterScope(false, concat(keyPrefixes, other.keyPrefixes), concat(keyPatterns, other.keyPatterns),
+                concat(valueConditions, other.valueConditions));
+    }
+
+    private static <T> List<T> concat(List<T> first, List<T> second) {
+        List<T> result = new ArrayList<>(first);
+        result.addAll(second);
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Allows to check if this scope applies to all keys and values.
+     *
+     * @return true, for {@link #ALL}.
+     */
+    public boolean isUnrestricted() {
+        return unrestricted;
+    }
+
+    /**
+     * Checks if the key conditions of this scope match the given key, regardless of the value.
+     *
+     * @param key the key, not null.
+     * @return true, if the scope is unrestricted, or a key prefix or pattern matches.
+     */
+    public boolean appliesToKey(String key) {
+        if (unrestricted) {
+            return true;
+        }
+        for (String prefix : keyPrefixes) {
+            if (key.startsWith(prefix)) {
+                return true;
+            }
+        }
+        for (Pattern pattern : keyPatterns) {
+            if (pattern.matcher(key).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the value conditions of this scope match the given value.
+     *
+     * @param value the value, may be null.
+     * @return true, if the scope is unrestricted, or a value condition accepts the non null value.
+     */
+    public boolean appliesToValue(String value) {
+        if (unrestricted) {
+            return true;
+        }
+        if (value != null) {
+            for (Predicate<String> condition : valueConditions) {
+                if (condition.test(value)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Allows to check if this scope has any conditions on values.
+     *
+     * @return true, if {@link #appliesToValue(String)} must be evaluated for keys not matching the key conditions.
+     */
+    public boolean hasValueConditions() {
+        return !valueConditions.isEmpty();
+    }
+
+    /**
+     * Checks if this scope applies to the given key and value.
+     *
+     * @param key   the key, not null.
+     * @param value the value, may be null.
+     * @return true, if the filter should be invoked.
+     */
+    public boolean appliesTo(String key, String value) {
+        return appliesToKey(key) || appliesToValue(value);
+    }
+
+    @Override
+    public String toString() {
+        if (unrestricted) {
+            return "FilterScope{ALL}";
+        }
+        return "FilterScope{" +
+                "keyPrefixes=" + keyPrefixes +
+                ", keyPatterns=" + keyPatterns +
+                ", valueConditions=" + valueConditions.size() +
+                '}';
+    }
+}
@@ -46,4 +46,28 @@ public interface PropertyFilter {
      */
     String filterProperty(String key, String valueToBeFiltered);
 
+    /**
+     * <p>Declares the keys and values this filter applies to. Implementations declaring a restricted scope guarantee
+     * to return the value passed unchanged for all keys and values outside of it, so the configuration may skip
+     * invoking them. E.g. a filter decrypting values of the form {@code ENC(...)} can return
+     * {@code FilterScope.ofValuesContaining("ENC(")}.</p>
+     * <p>The scope is read once, when the filter is registered, it must not change afterwards.</p>
+     *
+     * @return the scope, by default {@link FilterScope#ALL}, so the filter is invoked for all keys.
+     */
+    default FilterScope getScope() {
+        return FilterScope.ALL;
+    }
+
+    /**
+     * <p>Declares this filter as deterministic: its result only depends on the key and value passed, not on time,
+     * other configuration values, the calling context or any other external state. If all filters registered are
+     * deterministic, the configuration may cache the filtered value per key and unfiltered value.</p>
+     *
+     * @return true, if this filter is deterministic. By default {@code false}, so filtered values are not cached.
+     */
+    default boolean isDeterministic() {
+        return false;
+    }
+
 }
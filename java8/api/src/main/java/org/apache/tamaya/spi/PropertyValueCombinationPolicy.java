@@ -34,10 +34,24 @@ public interface PropertyValueCombinationPolicy {
      * Default overriding collector, where each existing entry ({@code current} is overridden by a subsequent non-null
      * entry evaluated by {@code propertySource.get(key)}.
      */
-    public final PropertyValueCombinationPolicy DEFAULT_OVERRIDING_COLLECTOR =
-        (current, key, propertySource) -> Optional.ofNullable(propertySource.get(key))
-                                                  .filter(s -> !s.isEmpty())
-                                                  .orElse(current);
+    public final PropertyValueCombinationPolicy DEFAULT_OVERRIDING_COLLECTOR = new PropertyValueCombinationPolicy() {
+        @Override
+        public String collect(String currentValue, String key, PropertySource propertySource) {
+            return Optional.ofNullable(propertySource.get(key))
+                    .filter(s -> !s.isEmpty())
+                    .orElse(currentValue);
+        }
+
+        @Override
+        public boolean isOverriding() {
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return "DEFAULT_OVERRIDING_COLLECTOR";
+        }
+    };
 
     /**
      * Method that is called for each value evaluated by a PropertySource for the given key. This method is called
@@ -58,4 +72,17 @@ public interface PropertyValueCombinationPolicy {
      */
     String collect(String currentValue, String key, PropertySource propertySource);
 
+    /**
+     * Declares that this policy behaves exactly like {@link #DEFAULT_OVERRIDING_COLLECTOR}, i.e. that the first non
+     * empty value, when evaluating the PropertySources from the highest ordinal down, is the final value. This allows
+     * implementations to probe the PropertySources in descending order and to stop at the first value found, instead
+     * of calling {@link #collect(String, String, PropertySource)} for every PropertySource. Policies that must see
+     * the values of all PropertySources must return {@code false}, which is the default.
+     *
+     * @return true, if the first non empty value found, evaluating the PropertySources by descending ordinal, wins.
+     */
+    default boolean isOverriding() {
+        return false;
+    }
+
 }
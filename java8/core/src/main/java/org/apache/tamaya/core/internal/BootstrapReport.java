@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * The phases of a configuration bootstrap as recorded by a {@link BootstrapTracer}. Phases are ordered by the
+ * time they were started, nested phases follow the phase containing them. The report's {@link #toString()}
+ * renders a summary suitable for logging. This class is immutable.
+ */
+public final class BootstrapReport {
+    /** The name of the bootstrap. */
+    private final String name;
+    /** The total wall time in nanoseconds. */
+    private final long totalNanos;
+    /** The phases recorded. */
+    private final List<Phase> phases;
+
+    /**
+     * Creates a new report.
+     *
+     * @param name       the name of the bootstrap, not null.
+     * @param totalNanos the total wall time in nanoseconds.
+     * @param phases     the phases recorded, not null.
+     */
+    BootstrapReport(String name, long totalNanos, Collection<Phase> phases) {
+        this.name = Objects.requireNonNull(name);
+        this.totalNanos = totalNanos;
+        List<Phase> sorted = new ArrayList<>(phases);
+        sorted.sort(Comparator.comparingInt(Phase::getOrder));
+        this.phases = Collections.unmodifiableList(sorted);
+    }
+
+    /**
+     * Access the name of the bootstrap.
+     *
+     * @return the name, never null.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Access the total wall time of the bootstrap.
+     *
+     * @return the time in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Access all phases recorded.
+     *
+     * @return the phases in the order they were started, never null.
+     */
+    public List<Phase> getPhases() {
+        return phases;
+    }
+
+    /**
+     * Access the phases of a given category, e.g. {@code provider}.
+     *
+     * @param category the category, not null.
+     * @return the phases in the order they were started, never null.
+     */
+    public List<Phase> getPhases(String category) {
+        return phases.stream().filter(p -> p.getCategory().equals(category)).collect(Collectors.toList());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder b = new StringBuilder("Bootstrap of ").append(name).append(" took ")
+                .append(formatNanos(totalNanos)).append(':');
+        for (Phase phase : phases) {
+            b.append('\n');
+            for (int i = 0; i <= phase.getDepth(); i++) {
+                b.append("  ");
+            }
+            b.append(phase);
+        }
+        return b.toString();
+    }
+
+    private static String formatNanos(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos) / 1000.0 + "ms";
+    }
+
+    /**
+     * A single phase of the bootstrap. This class is immutable.
+     */
+    public static final class Phase {
+        private final int order;
+        private final int depth;
+        private final String category;
+        private final String name;
+        private final String thread;
+        private final long startNanos;
+        private final long durationNanos;
+        private final long allocatedBytes;
+
+        Phase(int order, int depth, String category, String name, String thread, long startNanos,
+              long durationNanos, long allocatedBytes) {
+            this.order = order;
+            this.depth = depth;
+            this.category = Objects.requireNonNull(category);
+            this.name = Objects.requireNonNull(name);
+            this.thread = thread;
+            this.startNanos = startNanos;
+            this.durationNanos = durationNanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        /**
+         * Access the position of this phase, when ordered by the time the phases were started.
+         *
+         * @return the position, starting with 0.
+         */
+        public int getOrder() {
+            return order;
+        }
+
+        /**
+         * Access the nesting level of this phase, 0 for top level phases.
+         *
+         * @return the nesting level.
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        /**
+         * Access the category, e.g. {@code service}, {@code provider} or {@code converters}.
+         *
+         * @return the category, never null.
+         */
+        public String getCategory() {
+            return category;
+        }
+
+        /**
+         * Access the name, e.g. the name of the service type or provider class.
+         *
+         * @return the name, never null.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Access the name of the thread having executed this phase.
+         *
+         * @return the thread name.
+         */
+        public String getThread() {
+            return thread;
+        }
+
+        /**
+         * Access the start of this phase, relative to the start of the bootstrap.
+         *
+         * @return the offset in nanoseconds.
+         */
+        public long getStartNanos() {
+            return startNanos;
+        }
+
+        /**
+         * Access the wall time of this phase, including its nested phases.
+         *
+         * @return the time in nanoseconds.
+         */
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        /**
+         * Access the number of bytes allocated by this phase, including its nested phases.
+         *
+         * @return the number of bytes, or -1, if allocations can not be measured on this JVM.
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        @Override
+        public String toString() {
+            return category + ' ' + name + ": " + formatNanos(durationNanos) +
+                    (allocatedBytes >= 0 ? ", " + allocatedBytes / 1024 + "KB" : "") + " [" + thread + ']';
+        }
+    }
+}
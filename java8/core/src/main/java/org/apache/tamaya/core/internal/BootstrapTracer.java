@@ -0,0 +1,304 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Records the wall time and the memory allocated by the phases of a configuration bootstrap, such as loading
+ * services, evaluating {@link org.apache.tamaya.spi.PropertySourceProvider}s or registering converters. Tracing is
+ * only active, if the system property {@value #TRACE_PROPERTY} is set to {@code true}, so instrumented code only
+ * pays for a thread local lookup otherwise.
+ * <p>
+ * A tracer is bound to the thread performing the bootstrap, instrumented code traces a phase using
+ * {@link #trace(String, String, Supplier)} or {@link #run(String, String, Runnable)}:
+ * </p>
+ * <pre>
+ * sources = BootstrapTracer.trace("provider", provider.getClass().getName(), provider::getPropertySources);
+ * </pre>
+ * Phases whose name is only known later open a {@link Span} using {@link #span(String, String)}, and close it when
+ * the phase is complete.
+ * Allocations are measured per thread, where supported by the JVM, otherwise they are reported as {@code -1}.
+ * This class is thread-safe.
+ */
+public final class BootstrapTracer {
+    /** The logger used. */
+    private static final Logger LOG = Logger.getLogger(BootstrapTracer.class.getName());
+    /** System property to enable tracing of the bootstrap of new {@link DefaultConfigurationContext} instances. */
+    public static final String TRACE_PROPERTY = "tamaya.core.bootstrap.trace";
+
+    /** The tracer bound to the current thread. */
+    private static final ThreadLocal<Binding> CURRENT = new ThreadLocal<>();
+    /** Span returned when no tracer is bound, closing it has no effect. */
+    private static final Span NOOP = new Span(null, null, null, 0);
+
+    /** The name of the traced bootstrap. */
+    private final String name;
+    /** The phases completed so far. */
+    private final List<BootstrapReport.Phase> phases = new ArrayList<>();
+    /** Counter to keep the phases in the order they were started. */
+    private final AtomicInteger sequence = new AtomicInteger();
+    /** The start of the bootstrap. */
+    private final long start = System.nanoTime();
+
+    /**
+     * Creates a new tracer.
+     *
+     * @param name the name of the traced bootstrap, not null.
+     */
+    private BootstrapTracer(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Starts tracing a bootstrap on the current thread, if enabled by {@value #TRACE_PROPERTY}.
+     *
+     * @param name the name of the bootstrap, not null.
+     * @return the tracer bound to the current thread, or null, if tracing is not enabled.
+     */
+    static BootstrapTracer start(String name) {
+        if (!Boolean.getBoolean(TRACE_PROPERTY)) {
+            return null;
+        }
+        BootstrapTracer tracer = new BootstrapTracer(name);
+        CURRENT.set(new Binding(tracer));
+        return tracer;
+    }
+
+    /**
+     * Access the tracer bound to the current thread.
+     *
+     * @return the tracer, or null.
+     */
+    static BootstrapTracer current() {
+        Binding binding = CURRENT.get();
+        return binding != null ? binding.tracer : null;
+    }
+
+    /**
+     * Opens a span for a phase using the tracer bound to the current thread.
+     *
+     * @param category the category of the phase, e.g. {@code provider}, not null.
+     * @param name     the name of the phase, e.g. the provider's class name, not null.
+     * @return the span to be closed when the phase is complete, never null.
+     */
+    static Span span(String category, String name) {
+        Binding binding = CURRENT.get();
+        if (binding == null) {
+            return NOOP;
+        }
+        return new Span(binding, category, name, binding.depth++);
+    }
+
+    /**
+     * Traces a phase using the tracer bound to the current thread.
+     *
+     * @param category the category of the phase, e.g. {@code provider}, not null.
+     * @param name     the name of the phase, e.g. the provider's class name, not null.
+     * @param phase    the phase, not null.
+     * @param <T>      the result type.
+     * @return the phase's result.
+     */
+    static <T> T trace(String category, String name, Supplier<T> phase) {
+        Span span = span(category, name);
+        try {
+            return phase.get();
+        } finally {
+            span.close();
+        }
+    }
+
+    /**
+     * Traces a phase without result using the tracer bound to the current thread.
+     *
+     * @param category the category of the phase, e.g. {@code phase}, not null.
+     * @param name     the name of the phase, not null.
+     * @param phase    the phase, not null.
+     */
+    static void run(String category, String name, Runnable phase) {
+        Span span = span(category, name);
+        try {
+            phase.run();
+        } finally {
+            span.close();
+        }
+    }
+
+    /**
+     * Runs a task on the current thread with the given tracer bound, e.g. for tasks executed by worker threads.
+     *
+     * @param tracer the tracer, may be null.
+     * @param task   the task, not null.
+     * @param <T>    the result type.
+     * @return the task's result.
+     * @throws Exception as thrown by the task.
+     */
+    static <T> T callWith(BootstrapTracer tracer, Callable<T> task) throws Exception {
+        Binding previous = CURRENT.get();
+        if (tracer != null) {
+            CURRENT.set(new Binding(tracer));
+        }
+        try {
+            return task.call();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * Completes the bootstrap, unbinds the tracer from the current thread and logs a summary.
+     *
+     * @return the report containing all completed phases, never null.
+     */
+    BootstrapReport finish() {
+        CURRENT.remove();
+        BootstrapReport report;
+        synchronized (phases) {
+            report = new BootstrapReport(name, System.nanoTime() - start, phases);
+        }
+        LOG.info(report::toString);
+        return report;
+    }
+
+    /**
+     * Adds a completed phase.
+     *
+     * @param phase the phase, not null.
+     */
+    private void record(BootstrapReport.Phase phase) {
+        synchronized (phases) {
+            phases.add(phase);
+        }
+    }
+
+    /**
+     * Evaluates the number of bytes allocated by the current thread so far.
+     *
+     * @return the number of bytes, or -1, if not supported.
+     */
+    private static long allocatedBytes() {
+        return AllocationCounter.INSTANCE != null ? AllocationCounter.INSTANCE.allocatedBytes() : -1L;
+    }
+
+    /**
+     * A phase started on a thread, recorded when closed.
+     */
+    public static final class Span implements AutoCloseable {
+        private final Binding binding;
+        private final String category;
+        private String name;
+        private final int depth;
+        private final int order;
+        private final long startNanos;
+        private final long startBytes;
+
+        private Span(Binding binding, String category, String name, int depth) {
+            this.binding = binding;
+            this.category = category;
+            this.name = name;
+            this.depth = depth;
+            if (binding != null) {
+                this.order = binding.tracer.sequence.getAndIncrement();
+                this.startBytes = allocatedBytes();
+                this.startNanos = System.nanoTime();
+            } else {
+                this.order = 0;
+                this.startBytes = 0L;
+                this.startNanos = 0L;
+            }
+        }
+
+        /**
+         * Changes the name of this phase, e.g. when the name is only known after the phase has started.
+         *
+         * @param name the new name, not null.
+         */
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void close() {
+            if (binding == null) {
+                return;
+            }
+            long nanos = System.nanoTime() - startNanos;
+            long bytes = startBytes < 0 ? -1L : allocatedBytes() - startBytes;
+            binding.depth = depth;
+            binding.tracer.record(new BootstrapReport.Phase(order, depth, category, name,
+                    Thread.currentThread().getName(), startNanos - binding.tracer.start, nanos, bytes));
+        }
+    }
+
+    /**
+     * The binding of a tracer to a thread, tracking the nesting of the spans opened on this thread.
+     */
+    private static final class Binding {
+        private final BootstrapTracer tracer;
+        private int depth;
+
+        private Binding(BootstrapTracer tracer) {
+            this.tracer = tracer;
+        }
+    }
+
+    /**
+     * Accesses the per thread allocation counter of HotSpot based JVMs, which is not available on all platforms.
+     */
+    private static final class AllocationCounter {
+        private static final AllocationCounter INSTANCE = create();
+        private final com.sun.management.ThreadMXBean threads;
+
+        private AllocationCounter(com.sun.management.ThreadMXBean threads) {
+            this.threads = threads;
+        }
+
+        private static AllocationCounter create() {
+            try {
+                ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+                if (threads instanceof com.sun.management.ThreadMXBean) {
+                    com.sun.management.ThreadMXBean hotspotThreads = (com.sun.management.ThreadMXBean) threads;
+                    if (hotspotThreads.isThreadAllocatedMemorySupported()
+                            && hotspotThreads.isThreadAllocatedMemoryEnabled()) {
+                        return new AllocationCounter(hotspotThreads);
+                    }
+                }
+            } catch (LinkageError | RuntimeException e) {
+                LOG.log(Level.FINE, "Allocations are not traced, thread allocation counters not available.", e);
+            }
+            return null;
+        }
+
+        private long allocatedBytes() {
+            return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+    }
+}
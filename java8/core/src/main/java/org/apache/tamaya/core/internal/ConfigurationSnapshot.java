@@ -0,0 +1,344 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.PropertyConverter;
+import org.apache.tamaya.TypeLiteral;
+import org.apache.tamaya.core.propertysource.ObservablePropertySource;
+import org.apache.tamaya.spi.ConfigurationContext;
+import org.apache.tamaya.spi.ConfigurationMetrics;
+import org.apache.tamaya.spi.PropertyFilter;
+import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spi.PropertyValueCombinationPolicy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable, versioned state of a {@link org.apache.tamaya.spi.ConfigurationContext}. A snapshot contains the
+ * {@link org.apache.tamaya.spi.PropertySource}s, {@link org.apache.tamaya.spi.PropertyFilter}s and the
+ * {@link org.apache.tamaya.spi.PropertyValueCombinationPolicy} valid for a given epoch. The
+ * {@link DefaultConfigurationContext} publishes its current snapshot through a single volatile reference and
+ * replaces it by a snapshot with a higher epoch on each change. Readers therefore can pin a consistent view
+ * without any locking.
+ * <p>
+ * A snapshot is a read-only {@link org.apache.tamaya.spi.ConfigurationContext}: calling
+ * {@link #addPropertySources(org.apache.tamaya.spi.PropertySource...)} or
+ * {@link #addPropertyConverter(org.apache.tamaya.TypeLiteral, org.apache.tamaya.PropertyConverter)} throws an
+ * {@link UnsupportedOperationException}. Property converters are not part of the snapshot, they are
+ * looked up from the originating context.
+ * </p>
+ * This class is thread-safe.
+ */
+public final class ConfigurationSnapshot implements ConfigurationContext {
+
+    /** The epoch of this snapshot. */
+    private final long epoch;
+    /** The PropertySources, ordered ascending by ordinal. */
+    private final List<PropertySource> propertySources;
+    /** The PropertySources only detecting changes on read access, which must be polled before using cached state. */
+    private final List<ObservablePropertySource> polledPropertySources;
+    /** The PropertyFilters. */
+    private final List<PropertyFilter> propertyFilters;
+    /** The combination policy. */
+    private final PropertyValueCombinationPolicy propertyValueCombinationPolicy;
+    /** The context used for accessing property converters. */
+    private final ConfigurationContext converterContext;
+    /** The value cache of the originating context, or null. */
+    private final ValueCache valueCache;
+    /** Flag, if an {@link EffectiveIndex} should be used. */
+    private final boolean effectiveIndexEnabled;
+    /** The index, lazily created. */
+    private volatile EffectiveIndex effectiveIndex;
+    /** The routing of keys to filters, lazily created unless shared with the predecessor. */
+    private volatile FilterRouting filterRouting;
+    /** The configuration bound to this snapshot, lazily created. */
+    private volatile Configuration configuration;
+
+    /**
+     * Creates a new snapshot.
+     *
+     * @param epoch                          the epoch.
+     * @param propertySources                the unmodifiable PropertySources, not null.
+     * @param propertyFilters                the unmodifiable PropertyFilters, not null.
+     * @param propertyValueCombinationPolicy the combination policy, not null.
+     * @param converterContext               the context for accessing property converters, not null.
+     * @param valueCache                     the value cache, or null.
+     * @param effectiveIndexEnabled          flag, if an {@link EffectiveIndex} should be used.
+     */
+    ConfigurationSnapshot(long epoch, List<PropertySource> propertySources, List<PropertyFilter> propertyFilters,
+                          PropertyValueCombinationPolicy propertyValueCombinationPolicy,
+                          ConfigurationContext converterContext, ValueCache valueCache,
+                          boolean effectiveIndexEnabled) {
+        this(epoch, propertySources, propertyFilters, propertyValueCombinationPolicy, converterContext, valueCache,
+                effectiveIndexEnabled, null);
+    }
+
+    /**
+     * Creates a new snapshot, sharing the routing of keys to filters.
+     *
+     * @param epoch                          the epoch.
+     * @param propertySources                the unmodifiable PropertySources, not null.
+     * @param propertyFilters                the unmodifiable PropertyFilters, not null.
+     * @param propertyValueCombinationPolicy the combination policy, not null.
+     * @param converterContext               the context for accessing property converters, not null.
+     * @param valueCache                     the value cache, or null.
+     * @param effectiveIndexEnabled          flag, if an {@link EffectiveIndex} should be used.
+     * @param filterRouting                  the routing of the same filters, or null.
+     */
+    private ConfigurationSnapshot(long epoch, List<PropertySource> propertySources,
+                                  List<PropertyFilter> propertyFilters,
+                                  PropertyValueCombinationPolicy propertyValueCombinationPolicy,
+                                  ConfigurationContext converterContext, ValueCache valueCache,
+                                  boolean effectiveIndexEnabled, FilterRouting filterRouting) {
+        this.epoch = epoch;
+        this.filterRouting = filterRouting;
+        this.propertySources = Objects.requireNonNull(propertySources);
+        this.propertyFilters = Objects.requireNonNull(propertyFilters);
+        this.propertyValueCombinationPolicy = Objects.requireNonNull(propertyValueCombinationPolicy);
+        this.converterContext = Objects.requireNonNull(converterContext);
+        this.valueCache = valueCache;
+        this.effectiveIndexEnabled = effectiveIndexEnabled;
+        List<ObservablePropertySource> polled = new ArrayList<>();
+        for (PropertySource propertySource : propertySources) {
+            if (propertySource instanceof ObservablePropertySource &&
+                    ((ObservablePropertySource) propertySource).isDetectingChangesOnRead()) {
+                polled.add((ObservablePropertySource) propertySource);
+            }
+        }
+        this.polledPropertySources = polled.isEmpty() ? Collections.emptyList() : polled;
+    }
+
+    /**
+     * Creates a transient snapshot of an arbitrary {@link org.apache.tamaya.spi.ConfigurationContext}. Such snapshots
+     * have an epoch of {@code -1} and use neither a value cache, nor an index.
+     *
+     * @param context the context, not null.
+     * @return a new snapshot, never null.
+     */
+    static ConfigurationSnapshot of(ConfigurationContext context) {
+        return new ConfigurationSnapshot(-1L, context.getPropertySources(), context.getPropertyFilters(),
+                context.getPropertyValueCombinationPolicy(), context, null, false);
+    }
+
+    /**
+     * Creates a successor of this snapshot with the given PropertySources. As the filters are unchanged, the successor
+     * shares the {@link FilterRouting} and thus the {@link FilterCache} of this snapshot.
+     *
+     * @param propertySources the new unmodifiable PropertySources, not null.
+     * @return the new snapshot, with an increased epoch.
+     */
+    ConfigurationSnapshot withPropertySources(List<PropertySource> propertySources) {
+        return new ConfigurationSnapshot(epoch + 1, propertySources, propertyFilters, propertyValueCombinationPolicy,
+                converterContext, valueCache, effectiveIndexEnabled, getFilterRouting());
+    }
+
+    /**
+     * Creates a successor of this snapshot, with the index enabled or disabled.
+     *
+     * @param effectiveIndexEnabled flag, if an {@link EffectiveIndex} should be used.
+     * @return the new snapshot, with an increased epoch.
+     */
+    ConfigurationSnapshot withEffectiveIndexEnabled(boolean effectiveIndexEnabled) {
+        return new ConfigurationSnapshot(epoch + 1, propertySources, propertyFilters, propertyValueCombinationPolicy,
+                converterContext, valueCache, effectiveIndexEnabled, getFilterRouting());
+    }
+
+    /**
+     * Creates a successor of this snapshot with identical contents. This is used to signal, that the contents
+     * of a PropertySource have changed, so any state derived must be evaluated again.
+     *
+     * @return the new snapshot, with an increased epoch.
+     */
+    ConfigurationSnapshot renew() {
+        return withPropertySources(propertySources);
+    }
+
+    /**
+     * Get the epoch of this snapshot. Epochs of a context are monotonically increasing.
+     *
+     * @return the epoch, or {@code -1} for transient snapshots.
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Access a {@link org.apache.tamaya.Configuration} that evaluates all values from this snapshot.
+     *
+     * @return the configuration, never null.
+     */
+    public Configuration getConfiguration() {
+        Configuration config = this.configuration;
+        if (config == null) {
+            config = new DefaultConfiguration(this);
+            this.configuration = config;
+        }
+        return config;
+    }
+
+    /**
+     * Access the value cache of the originating context.
+     *
+     * @return the value cache, or null.
+     */
+    ValueCache getValueCache() {
+        return valueCache;
+    }
+
+    /**
+     * Access the conversion cache of the context providing the PropertyConverters.
+     *
+     * @return the conversion cache, or null, if the converters are not provided by a
+     * {@link DefaultConfigurationContext}.
+     */
+    ConversionCache getConversionCache() {
+        if (converterContext instanceof DefaultConfigurationContext) {
+            return ((DefaultConfigurationContext) converterContext).getConversionCache();
+        }
+        return null;
+    }
+
+    /**
+     * Access the metrics of the {@link DefaultConfigurationContext} this snapshot was created from.
+     *
+     * @return the metrics, or null, if no metrics are collected or another context implementation is used.
+     */
+    ConfigurationMetrics getMetrics() {
+        if (converterContext instanceof DefaultConfigurationContext) {
+            return ((DefaultConfigurationContext) converterContext).getMetrics();
+        }
+        return null;
+    }
+
+    /**
+     * Access the index over the PropertySources of this snapshot. The index is built lazily on first access.
+     *
+     * @return the index, or null, if the index is disabled or not supported by the combination policy.
+     */
+    EffectiveIndex getEffectiveIndex() {
+        if (!effectiveIndexEnabled) {
+            return null;
+        }
+        EffectiveIndex index = this.effectiveIndex;
+        if (index == null && EffectiveIndex.isSupported(propertyValueCombinationPolicy)) {
+            synchronized (this) {
+                index = this.effectiveIndex;
+                if (index == null) {
+                    index = new EffectiveIndex(propertySources);
+                    this.effectiveIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Access the routing table selecting the filters of this snapshot applicable to a key. The table is created on
+     * first access and shared with all successors of this snapshot, which use the same filters.
+     *
+     * @return the routing, never null.
+     */
+    FilterRouting getFilterRouting() {
+        FilterRouting routing = this.filterRouting;
+        if (routing == null) {
+            routing = new FilterRouting(propertyFilters);
+            this.filterRouting = routing;
+        }
+        return routing;
+    }
+
+    /**
+     * Allows to check if any PropertySource of this snapshot only detects changes on read access.
+     *
+     * @return true, if {@link #checkForChanges()} must be called before using state cached for this snapshot.
+     * @see ObservablePropertySource#isDetectingChangesOnRead()
+     */
+    boolean hasPolledPropertySources() {
+        return !polledPropertySources.isEmpty();
+    }
+
+    /**
+     * Asks the PropertySources only detecting changes on read access to check for changes. Sources detecting a
+     * change notify their listeners, so the originating context publishes a successor of this snapshot.
+     */
+    void checkForChanges() {
+        for (ObservablePropertySource propertySource : polledPropertySources) {
+            propertySource.checkForChanges();
+        }
+    }
+
+    /**
+     * Allows to check if this snapshot uses an {@link EffectiveIndex}.
+     *
+     * @return true, if the index is enabled.
+     */
+    boolean isEffectiveIndexEnabled() {
+        return effectiveIndexEnabled;
+    }
+
+    @Override
+    public void addPropertySources(PropertySource... propertySourcesToAdd) {
+        throw new UnsupportedOperationException("ConfigurationSnapshot is immutable.");
+    }
+
+    @Override
+    public List<PropertySource> getPropertySources() {
+        return propertySources;
+    }
+
+    @Override
+    public <T> void addPropertyConverter(TypeLiteral<T> typeToConvert, PropertyConverter<T> propertyConverter) {
+        throw new UnsupportedOperationException("ConfigurationSnapshot is immutable.");
+    }
+
+    @Override
+    public Map<TypeLiteral<?>, List<PropertyConverter<?>>> getPropertyConverters() {
+        return converterContext.getPropertyConverters();
+    }
+
+    @Override
+    public <T> List<PropertyConverter<T>> getPropertyConverters(TypeLiteral<T> type) {
+        return converterContext.getPropertyConverters(type);
+    }
+
+    @Override
+    public List<PropertyFilter> getPropertyFilters() {
+        return propertyFilters;
+    }
+
+    @Override
+    public PropertyValueCombinationPolicy getPropertyValueCombinationPolicy() {
+        return propertyValueCombinationPolicy;
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigurationSnapshot{" +
+                "epoch=" + epoch +
+                ", propertySources=" + propertySources.size() +
+                ", propertyFilters=" + propertyFilters.size() +
+                ", effectiveIndexEnabled=" + effectiveIndexEnabled +
+                '}';
+    }
+}
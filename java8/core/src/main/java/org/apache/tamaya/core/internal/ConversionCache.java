@@ -0,0 +1,263 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.TypeLiteral;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Bounded cache of converted configuration values, as evaluated by
+ * {@link DefaultConfiguration#get(String, TypeLiteral)}. Entries are keyed by the property key and the target type
+ * and store the raw value they were converted from. A cached value is only returned, if the raw value looked up is
+ * still the same, so changes of the underlying configuration invalidate the affected entries implicitly. The cache
+ * is owned by a {@link DefaultConfigurationContext}, which invalidates it whenever a
+ * {@link org.apache.tamaya.PropertyConverter} is added.
+ * <p>
+ * Entries are tagged with the generation of the converters they were created with. Values converted before an
+ * invalidation are neither stored nor returned, even if stored concurrently to the invalidation, so results of
+ * replaced converters never survive an invalidation. As converted values
+ * are shared, the cache should only be enabled, if the converted types are immutable.
+ * </p>
+ * This class is thread-safe.
+ */
+public final class ConversionCache {
+    /** The logger used. */
+    private static final Logger LOG = Logger.getLogger(ConversionCache.class.getName());
+    /** System property to enable the cache for new {@link DefaultConfigurationContext} instances. */
+    public static final String ENABLED_PROPERTY = "tamaya.core.conversionCache.enabled";
+    /** System property to define the maximal number of entries cached. */
+    public static final String MAX_SIZE_PROPERTY = "tamaya.core.conversionCache.maxSize";
+    /** The default maximal number of entries cached. */
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    /** The cached values, grouped by target type. */
+    private final Map<TypeLiteral<?>, Map<String, Entry>> values = new ConcurrentHashMap<>();
+    /** The number of entries cached. */
+    private final AtomicInteger size = new AtomicInteger();
+    /** The current generation, updated on each invalidation. */
+    private final AtomicLong generation = new AtomicLong();
+    /** The number of cache hits. */
+    private final LongAdder hits = new LongAdder();
+    /** The number of cache misses. */
+    private final LongAdder misses = new LongAdder();
+    /** The maximal number of entries. */
+    private final int maxSize;
+    /** Flag, if the cache is currently active. */
+    private volatile boolean enabled;
+
+    /**
+     * Creates a new cache, configured by the system properties {@link #ENABLED_PROPERTY} and
+     * {@link #MAX_SIZE_PROPERTY}.
+     */
+    ConversionCache() {
+        this(Boolean.getBoolean(ENABLED_PROPERTY), Integer.getInteger(MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE));
+    }
+
+    /**
+     * Creates a new cache.
+     *
+     * @param enabled flag, if the cache is active.
+     * @param maxSize the maximal number of entries, &gt; 0.
+     */
+    public ConversionCache(boolean enabled, int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be > 0: " + maxSize);
+        }
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Access the current generation, which must be passed to {@link #put(String, TypeLiteral, String, Object, long)}
+     * for values converted afterwards.
+     *
+     * @return the current generation.
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Access the cached value for the given key and type.
+     *
+     * @param key      the key, not null.
+     * @param type     the target type, not null.
+     * @param rawValue the current raw value of the key, not null.
+     * @param <T>      the target type.
+     * @return the cached value, or {@code null}, if no value converted from the given raw value is cached.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, TypeLiteral<T> type, String rawValue) {
+        Map<String, Entry> typeValues = values.get(type);
+        Entry entry = typeValues == null ? null : typeValues.get(key);
+        if (entry == null || entry.generation != generation.get() || !entry.rawValue.equals(rawValue)) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return (T) entry.value;
+    }
+
+    /**
+     * Caches a converted value. The value is ignored, if the cache has been invalidated since the given generation
+     * was read. If the cache is invalidated while the value is stored, the entry is kept, but never returned by
+     * {@link #get(String, TypeLiteral, String)}. If the cache is full, a single entry is evicted.
+     *
+     * @param key        the key, not null.
+     * @param type       the target type, not null.
+     * @param rawValue   the raw value converted, not null.
+     * @param value      the converted value, not null.
+     * @param generation the generation read before the value was converted.
+     * @param <T>        the target type.
+     */
+    public <T> void put(String key, TypeLiteral<T> type, String rawValue, T value, long generation) {
+        if (this.generation.get() != generation) {
+            return;
+        }
+        Map<String, Entry> typeValues = values.computeIfAbsent(type, t -> new ConcurrentHashMap<>());
+        if (size.get() >= maxSize && !typeValues.containsKey(key)) {
+            evictOne();
+        }
+        Entry previous = typeValues.put(key, new Entry(rawValue, value, generation));
+        if (previous == null) {
+            size.incrementAndGet();
+        }
+    }
+
+    /**
+     * Evicts an arbitrary entry, so a full cache keeps serving the remaining entries.
+     */
+    private void evictOne() {
+        for (Map<String, Entry> typeValues : values.values()) {
+            Iterator<String> keys = typeValues.keySet().iterator();
+            if (keys.hasNext()) {
+                String evicted = keys.next();
+                if (typeValues.remove(evicted) != null) {
+                    size.decrementAndGet();
+                    LOG.finest(() -> "Conversion cache full, evicted: " + evicted);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes all cached entries and ignores values converted before this call from now on.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        clear();
+    }
+
+    /**
+     * Removes all cached entries.
+     */
+    public void clear() {
+        values.clear();
+        size.set(0);
+    }
+
+    /**
+     * Allows to check if the cache is active.
+     *
+     * @return true, if values are cached.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Activates or deactivates the cache. The cache is cleared in both cases.
+     *
+     * @param enabled the new state.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        clear();
+    }
+
+    /**
+     * Get the number of lookups served from the cache.
+     *
+     * @return the hit count.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of lookups not served from the cache.
+     *
+     * @return the miss count.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the number of entries currently cached. The number is approximate while entries are added concurrently.
+     *
+     * @return the current size.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Get the maximal number of entries cached.
+     *
+     * @return the maximal size.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public String toString() {
+        return "ConversionCache{" +
+                "enabled=" + enabled +
+                ", size=" + size.get() +
+                ", maxSize=" + maxSize +
+                ", hits=" + hits.sum() +
+                ", misses=" + misses.sum() +
+                '}';
+    }
+
+    /**
+     * A converted value, together with the raw value it was converted from and the generation of the converters.
+     */
+    private static final class Entry {
+        final String rawValue;
+        final Object value;
+        final long generation;
+
+        Entry(String rawValue, Object value, long generation) {
+            this.rawValue = rawValue;
+            this.value = value;
+            this.generation = generation;
+        }
+    }
+}
@@ -21,23 +21,34 @@ package org.apache.tamaya.core.internal;
 import org.apache.tamaya.ConfigException;
 import org.apache.tamaya.Configuration;
 import org.apache.tamaya.TypeLiteral;
+import org.apache.tamaya.core.internal.converters.BooleanConverter;
+import org.apache.tamaya.core.internal.converters.DoubleConverter;
+import org.apache.tamaya.core.internal.converters.IntegerConverter;
+import org.apache.tamaya.core.internal.converters.LongConverter;
+import org.apache.tamaya.spi.BatchPropertyFilter;
 import org.apache.tamaya.spi.ConfigurationContext;
+import org.apache.tamaya.spi.ConfigurationMetrics;
 import org.apache.tamaya.PropertyConverter;
 import org.apache.tamaya.spi.PropertyFilter;
 import org.apache.tamaya.spi.PropertySource;
 import org.apache.tamaya.spi.PropertyValueCombinationPolicy;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.NavigableMap;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Implementation of the Configuration API. This class uses the current {@link ConfigurationContext} to evaluate the
@@ -53,18 +64,102 @@ public class DefaultConfiguration implements Configuration {
      * The maximal number of filter cycles performed before aborting.
      */
     private static final int MAX_FILTER_LOOPS = 10;
+    /**
+     * The minimal number of keys of a filter pass over a full map, for the pass being processed in parallel.
+     */
+    private static final int PARALLEL_FILTER_THRESHOLD = 10_000;
+    /** The type used for looking up the converters for {@code boolean} values. */
+    private static final TypeLiteral<Boolean> BOOLEAN_TYPE = TypeLiteral.of(Boolean.class);
+    /** The type used for looking up the converters for {@code int} values. */
+    private static final TypeLiteral<Integer> INTEGER_TYPE = TypeLiteral.of(Integer.class);
+    /** The type used for looking up the converters for {@code long} values. */
+    private static final TypeLiteral<Long> LONG_TYPE = TypeLiteral.of(Long.class);
+    /** The type used for looking up the converters for {@code double} values. */
+    private static final TypeLiteral<Double> DOUBLE_TYPE = TypeLiteral.of(Double.class);
 
     /**
      * The current {@link org.apache.tamaya.spi.ConfigurationContext} of the current instance.
      */
     private final ConfigurationContext configurationContext;
 
+    /**
+     * The context as {@link DefaultConfigurationContext}, or null, if another implementation is used.
+     */
+    private final DefaultConfigurationContext defaultConfigurationContext;
+
+    /**
+     * The snapshot this configuration is bound to, or null, if it evaluates the current state of its context.
+     */
+    private final ConfigurationSnapshot pinnedSnapshot;
+
+    /**
+     * The filter routing reused for transient snapshots, as long as the context returns the same filters.
+     */
+    private volatile FilterRouting transientFilterRouting;
+
     /**
      * Constructor.
      * @param configurationContext The configuration Context to be used.
      */
     public DefaultConfiguration(ConfigurationContext configurationContext){
         this.configurationContext = Objects.requireNonNull(configurationContext);
+        if (configurationContext instanceof DefaultConfigurationContext) {
+            this.defaultConfigurationContext = (DefaultConfigurationContext) configurationContext;
+        } else {
+            this.defaultConfigurationContext = null;
+        }
+        if (configurationContext instanceof ConfigurationSnapshot) {
+            this.pinnedSnapshot = (ConfigurationSnapshot) configurationContext;
+        } else {
+            this.pinnedSnapshot = null;
+        }
+    }
+
+    /**
+     * Access the snapshot to be used for evaluating a value. For a {@link DefaultConfigurationContext} this is a
+     * single volatile read, for other contexts a transient snapshot is created.
+     *
+     * @return the snapshot to be used, never null.
+     */
+    private ConfigurationSnapshot currentSnapshot() {
+        if (defaultConfigurationContext != null) {
+            return defaultConfigurationContext.getSnapshot();
+        }
+        if (pinnedSnapshot != null) {
+            return pinnedSnapshot;
+        }
+        return ConfigurationSnapshot.of(configurationContext);
+    }
+
+    /**
+     * Access the routing of the filters of the given snapshot. Transient snapshots of other context implementations
+     * share a routing, as long as their filters do not change.
+     *
+     * @param snapshot the snapshot, not null.
+     * @return the routing, never null.
+     */
+    private FilterRouting getFilterRouting(ConfigurationSnapshot snapshot) {
+        if (snapshot.getEpoch() >= 0) {
+            return snapshot.getFilterRouting();
+        }
+        FilterRouting routing = this.transientFilterRouting;
+        if (routing == null || !routing.isRouting(snapshot.getPropertyFilters())) {
+            routing = new FilterRouting(snapshot.getPropertyFilters());
+            this.transientFilterRouting = routing;
+        }
+        return routing;
+    }
+
+    /**
+     * Returns a configuration bound to the current {@link ConfigurationSnapshot} of the context. All values read
+     * from the returned instance are evaluated from the same PropertySources and PropertyFilters, regardless of
+     * concurrent changes of the context.
+     *
+     * @return a configuration bound to the current snapshot, never null.
+     */
+    @Override
+    public Configuration snapshot() {
+        return currentSnapshot().getConfiguration();
     }
 
     /**
@@ -72,51 +167,341 @@ public class DefaultConfiguration implements Configuration {
      * provided by the current {@link org.apache.tamaya.spi.ConfigurationContext}. The first non-null-value returned
      * is taken as an intermediate value. Finally the value is filtered through the
      * {@link org.apache.tamaya.spi.PropertyFilter} instances installed, before it is returned as the final result of
-     * this method.
+     * this method. If the {@link ValueCache} of the context is enabled, the final value is cached.
      *
      * @param key the property's key, not null.
      * @return the optional configuration value, never null.
      */
     @Override
     public String get(String key) {
-        List<PropertySource> propertySources = configurationContext.getPropertySources();
+        return get(currentSnapshot(), key);
+    }
+
+    /**
+     * Evaluates the final value for the given key from the given snapshot, recording the access, if metrics are
+     * collected.
+     *
+     * @param snapshot the snapshot, not null.
+     * @param key      the property's key, not null.
+     * @return the final value, or null.
+     */
+    private String get(ConfigurationSnapshot snapshot, String key) {
+        ConfigurationMetrics metrics = snapshot.getMetrics();
+        if (metrics == null) {
+            return lookupValue(snapshot, key, null);
+        }
+        long start = System.nanoTime();
+        String value = lookupValue(snapshot, key, metrics);
+        metrics.keyAccessed(key, System.nanoTime() - start, value != null);
+        return value;
+    }
+
+    /**
+     * Evaluates the final value for the given key from the given snapshot, using the value cache if enabled.
+     *
+     * @param snapshot the snapshot, not null.
+     * @param key      the property's key, not null.
+     * @param metrics  the metrics to be collected, or null.
+     * @return the final value, or null.
+     */
+    private String lookupValue(ConfigurationSnapshot snapshot, String key, ConfigurationMetrics metrics) {
+        ValueCache valueCache = snapshot.getValueCache();
+        if (valueCache == null || !valueCache.isEnabled()) {
+            return evaluateValue(snapshot, key, metrics);
+        }
+        Optional<String> cached = valueCache.get(key, snapshot.getEpoch());
+        if (cached != null) {
+            return cached.orElse(null);
+        }
+        String value = evaluateValue(snapshot, key, metrics);
+        valueCache.put(key, value, snapshot.getEpoch());
+        return value;
+    }
+
+    /**
+     * Evaluates the final value for the given key by combining the values of all PropertySources and applying the
+     * registered filters. If all filters are deterministic, the filtered value is cached per unfiltered value.
+     *
+     * @param snapshot the snapshot, not null.
+     * @param key      the property's key, not null.
+     * @param metrics  the metrics to be collected, or null.
+     * @return the final value, or null.
+     */
+    private String evaluateValue(ConfigurationSnapshot snapshot, String key, ConfigurationMetrics metrics) {
         String unfilteredValue = null;
-        PropertyValueCombinationPolicy combinationPolicy = this.configurationContext
-                .getPropertyValueCombinationPolicy();
-        for (PropertySource propertySource : propertySources) {
-                unfilteredValue = combinationPolicy.collect(unfilteredValue, key, propertySource);
+        PropertyValueCombinationPolicy combinationPolicy = snapshot.getPropertyValueCombinationPolicy();
+        EffectiveIndex index = snapshot.getEffectiveIndex();
+        if (index != null) {
+            unfilteredValue = index.get(key);
+        } else if (combinationPolicy.isOverriding()) {
+            unfilteredValue = findOverridingValue(snapshot.getPropertySources(), key, metrics);
+        } else {
+            List<PropertySource> propertySources = snapshot.getPropertySources();
+            for (PropertySource propertySource : propertySources) {
+                if (metrics == null) {
+                    unfilteredValue = combinationPolicy.collect(unfilteredValue, key, propertySource);
+                } else {
+                    long start = System.nanoTime();
+                    unfilteredValue = combinationPolicy.collect(unfilteredValue, key, propertySource);
+                    metrics.propertySourceAccessed(propertySource, key, System.nanoTime() - start);
+                }
+            }
+        }
+        FilterRouting routing = getFilterRouting(snapshot);
+        List<PropertyFilter> filters = routing.getFilters(key);
+        if (filters.isEmpty()) {
+            return unfilteredValue;
+        }
+        FilterCache filterCache = routing.getFilterCache();
+        if (filterCache != null) {
+            Optional<String> cached = filterCache.get(key, unfilteredValue);
+            if (cached != null) {
+                return cached.orElse(null);
+            }
+        }
+        String value;
+        if (metrics == null) {
+            value = applyFilter(filters, key, unfilteredValue);
+        } else {
+            long start = System.nanoTime();
+            value = applyFilter(filters, key, unfilteredValue);
+            metrics.filtersApplied(key, System.nanoTime() - start);
+        }
+        if (filterCache != null) {
+            filterCache.put(key, unfilteredValue, value);
+        }
+        return value;
+    }
+
+    /**
+     * Evaluates the value for an overriding {@link org.apache.tamaya.spi.PropertyValueCombinationPolicy} by probing
+     * the PropertySources from the highest ordinal down, stopping at the first non empty value.
+     *
+     * @param propertySources the PropertySources, ordered ascending by ordinal.
+     * @param key             the property's key, not null.
+     * @param metrics         the metrics to be collected, or null.
+     * @return the first non empty value found, or null.
+     * @see org.apache.tamaya.spi.PropertyValueCombinationPolicy#isOverriding()
+     */
+    private static String findOverridingValue(List<PropertySource> propertySources, String key,
+                                              ConfigurationMetrics metrics) {
+        for (int i = propertySources.size() - 1; i >= 0; i--) {
+            PropertySource propertySource = propertySources.get(i);
+            String value;
+            if (metrics == null) {
+                value = propertySource.get(key);
+            } else {
+                long start = System.nanoTime();
+                value = propertySource.get(key);
+                metrics.propertySourceAccessed(propertySource, key, System.nanoTime() - start);
+            }
+            if (value != null && !value.isEmpty()) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Evaluates the values of multiple keys in a single pass. Values cached by the {@link ValueCache} are reused, the
+     * remaining keys are looked up in the {@link EffectiveIndex}, or else in each PropertySource once, and are then
+     * filtered together, so each {@link BatchPropertyFilter} is called once for all keys. The result equals calling
+     * {@link #get(String)} for each key on the same snapshot.
+     *
+     * @param keys the keys, not null.
+     * @return an unmodifiable map of the keys with a value, iterated in the order of the keys, never null.
+     */
+    @Override
+    public Map<String, String> getAll(Collection<String> keys) {
+        return Collections.unmodifiableMap(getAll(currentSnapshot(), keys));
+    }
+
+    /**
+     * Evaluates the final values of multiple keys from the given snapshot, recording an access per key, if metrics
+     * are collected. The time of the whole batch is distributed evenly over its keys.
+     *
+     * @param snapshot the snapshot, not null.
+     * @param keys     the keys, not null.
+     * @return the keys with a value, in the order of the keys, never null.
+     */
+    private Map<String, String> getAll(ConfigurationSnapshot snapshot, Collection<String> keys) {
+        String[] keyArray = keys.toArray(new String[keys.size()]);
+        for (String key : keyArray) {
+            Objects.requireNonNull(key, "keys must not contain null");
+        }
+        ConfigurationMetrics metrics = snapshot.getMetrics();
+        long start = metrics == null ? 0L : System.nanoTime();
+        String[] values;
+        ValueCache valueCache = snapshot.getValueCache();
+        if (valueCache == null || !valueCache.isEnabled()) {
+            values = evaluateValues(snapshot, keyArray, metrics);
+        } else {
+            values = new String[keyArray.length];
+            int[] pending = new int[keyArray.length];
+            int pendingCount = 0;
+            for (int k = 0; k < keyArray.length; k++) {
+                Optional<String> cached = valueCache.get(keyArray[k], snapshot.getEpoch());
+                if (cached != null) {
+                    values[k] = cached.orElse(null);
+                } else {
+                    pending[pendingCount++] = k;
+                }
+            }
+            if (pendingCount > 0) {
+                String[] pendingKeys = new String[pendingCount];
+                for (int p = 0; p < pendingCount; p++) {
+                    pendingKeys[p] = keyArray[pending[p]];
+                }
+                String[] evaluated = evaluateValues(snapshot, pendingKeys, metrics);
+                for (int p = 0; p < pendingCount; p++) {
+                    values[pending[p]] = evaluated[p];
+                    valueCache.put(pendingKeys[p], evaluated[p], snapshot.getEpoch());
+                }
+            }
+        }
+        if (metrics != null && keyArray.length > 0) {
+            long nanos = (System.nanoTime() - start) / keyArray.length;
+            for (int k = 0; k < keyArray.length; k++) {
+                metrics.keyAccessed(keyArray[k], nanos, values[k] != null);
+            }
+        }
+        Map<String, String> result = new LinkedHashMap<>(keyArray.length * 4 / 3 + 1);
+        for (int k = 0; k < keyArray.length; k++) {
+            if (values[k] != null) {
+                result.put(keyArray[k], values[k]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates the final values of multiple keys, like {@link #evaluateValue(ConfigurationSnapshot, String,
+     * ConfigurationMetrics)} does for a single key. Each PropertySource is asked at most once per key. The values
+     * not found in the {@link FilterCache} are filtered together by {@link #applyFilters(FilterRouting, Map)}.
+     *
+     * @param snapshot the snapshot, not null.
+     * @param keys     the keys, not null.
+     * @param metrics  the metrics to be collected, or null.
+     * @return the final values, by the index of their key, null for keys without a value.
+     */
+    private String[] evaluateValues(ConfigurationSnapshot snapshot, String[] keys, ConfigurationMetrics metrics) {
+        String[] values = new String[keys.length];
+        PropertyValueCombinationPolicy combinationPolicy = snapshot.getPropertyValueCombinationPolicy();
+        EffectiveIndex index = snapshot.getEffectiveIndex();
+        if (index != null) {
+            for (int k = 0; k < keys.length; k++) {
+                values[k] = index.get(keys[k]);
+            }
+        } else if (combinationPolicy.isOverriding()) {
+            findOverridingValues(snapshot.getPropertySources(), keys, values, metrics);
+        } else {
+            for (PropertySource propertySource : snapshot.getPropertySources()) {
+                for (int k = 0; k < keys.length; k++) {
+                    if (metrics == null) {
+                        values[k] = combinationPolicy.collect(values[k], keys[k], propertySource);
+                    } else {
+                        long start = System.nanoTime();
+                        values[k] = combinationPolicy.collect(values[k], keys[k], propertySource);
+                        metrics.propertySourceAccessed(propertySource, keys[k], System.nanoTime() - start);
+                    }
+                }
+            }
+        }
+        FilterRouting routing = getFilterRouting(snapshot);
+        if (routing.getAllFilters().isEmpty()) {
+            return values;
+        }
+        FilterCache filterCache = routing.getFilterCache();
+        Map<String, String> unfiltered = new HashMap<>();
+        int[] filtered = new int[keys.length];
+        int filteredCount = 0;
+        for (int k = 0; k < keys.length; k++) {
+            if (routing.getFilters(keys[k]).isEmpty()) {
+                continue;
+            }
+            Optional<String> cached = filterCache == null ? null : filterCache.get(keys[k], values[k]);
+            if (cached != null) {
+                values[k] = cached.orElse(null);
+            } else {
+                unfiltered.put(keys[k], values[k]);
+                filtered[filteredCount++] = k;
+            }
+        }
+        if (filteredCount == 0) {
+            return values;
+        }
+        long start = metrics == null ? 0L : System.nanoTime();
+        Map<String, String> filteredValues = applyFilters(routing, unfiltered);
+        if (metrics != null) {
+            long nanos = (System.nanoTime() - start) / filteredCount;
+            for (int f = 0; f < filteredCount; f++) {
+                metrics.filtersApplied(keys[filtered[f]], nanos);
+            }
+        }
+        for (int f = 0; f < filteredCount; f++) {
+            int k = filtered[f];
+            String value = filteredValues.get(keys[k]);
+            if (filterCache != null) {
+                filterCache.put(keys[k], values[k], value);
+            }
+            values[k] = value;
+        }
+        return values;
+    }
+
+    /**
+     * Evaluates the values of multiple keys for an overriding {@link PropertyValueCombinationPolicy}. The
+     * PropertySources are walked once from the highest ordinal down, each only being asked for the keys without a
+     * non empty value so far. The walk stops as soon as all keys have a value.
+     *
+     * @param propertySources the PropertySources, ordered ascending by ordinal.
+     * @param keys            the keys, not null.
+     * @param values          the array receiving the values found, by the index of their key.
+     * @param metrics         the metrics to be collected, or null.
+     * @see #findOverridingValue(List, String, ConfigurationMetrics)
+     */
+    private static void findOverridingValues(List<PropertySource> propertySources, String[] keys, String[] values,
+                                             ConfigurationMetrics metrics) {
+        int[] pending = new int[keys.length];
+        for (int k = 0; k < keys.length; k++) {
+            pending[k] = k;
+        }
+        int pendingCount = keys.length;
+        for (int i = propertySources.size() - 1; i >= 0 && pendingCount > 0; i--) {
+            PropertySource propertySource = propertySources.get(i);
+            int remaining = 0;
+            for (int p = 0; p < pendingCount; p++) {
+                String key = keys[pending[p]];
+                String value;
+                if (metrics == null) {
+                    value = propertySource.get(key);
+                } else {
+                    long start = System.nanoTime();
+                    value = propertySource.get(key);
+                    metrics.propertySourceAccessed(propertySource, key, System.nanoTime() - start);
+                }
+                if (value != null && !value.isEmpty()) {
+                    values[pending[p]] = value;
+                } else {
+                    pending[remaining++] = pending[p];
+                }
+            }
+            pendingCount = remaining;
         }
-        return applyFilter(key, unfilteredValue);
     }
 
     /**
      * Apply filters to a single property value.
      *
+     * @param filters         the filters to apply, not null.
      * @param key             the key, used for logging, not null.
      * @param unfilteredValue the unfiltered property value.
      * @return the filtered value, or null.
      */
-    private String applyFilter(String key, String unfilteredValue) {
-        // Apply filters to values, prevent values filtered to null!
+    private String applyFilter(List<PropertyFilter> filters, String key, String unfilteredValue) {
+        String[] value = {unfilteredValue};
         for (int i = 0; i < MAX_FILTER_LOOPS; i++) {
-            boolean changed = false;
-            // Apply filters to values, prevent values filtered to null!
-            for (PropertyFilter filter : configurationContext.getPropertyFilters()) {
-                String newValue = filter.filterProperty(key, unfilteredValue);
-                if (newValue != null && !newValue.equals(unfilteredValue)) {
-                    changed = true;
-                    if (LOG.isLoggable(Level.FINEST)) {
-                        LOG.finest("Filter - " + key + ": " + unfilteredValue + " -> " + newValue + " by " + filter);
-                    }
-                } else if (unfilteredValue != null && !unfilteredValue.equals(newValue)) {
-                    changed = true;
-                    if (LOG.isLoggable(Level.FINEST)) {
-                        LOG.finest("Filter - " + key + ": " + unfilteredValue + " -> " + newValue + " by " + filter);
-                    }
-                }
-                unfilteredValue = newValue;
-            }
-            if (!changed) {
+            if (!filterOnce(filters, key, value, 0)) {
                 LOG.finest(() -> "Finishing filter loop, no changes detected.");
                 break;
             } else {
@@ -129,21 +514,123 @@ public class DefaultConfiguration implements Configuration {
                 }
             }
         }
-        return unfilteredValue;
+        return value[0];
+    }
+
+    /**
+     * Runs the value of a single key once through the filter chain. This is the unit of work of all filter loops:
+     * as filters only depend on the key and value passed, a key whose value was not changed by any filter will not
+     * change in further passes either.
+     *
+     * @param filters the filters to apply, not null.
+     * @param key     the key, not null.
+     * @param values  the values, the value at {@code index} is replaced by the filtered value.
+     * @param index   the index of the value to be filtered.
+     * @return true, if any filter changed the value.
+     */
+    private static boolean filterOnce(List<PropertyFilter> filters, String key, String[] values, int index) {
+        return filterOnce(filters, 0, filters.size(), null, null, key, values, index);
+    }
+
+    /**
+     * Runs the value of a single key once through a range of the filter chain, skipping the filters not applicable
+     * to the key.
+     *
+     * @param filters  the filters, not null.
+     * @param from     the index of the first filter to apply.
+     * @param to       the index after the last filter to apply.
+     * @param routing  the routing of the filters, or null, if all filters apply.
+     * @param keyRoute the route of the key, see {@link FilterRouting#keyRoute(String)}.
+     * @param key      the key, not null.
+     * @param values   the values, the value at {@code index} is replaced by the filtered value.
+     * @param index    the index of the value to be filtered.
+     * @return true, if any filter changed the value.
+     */
+    private static boolean filterOnce(List<PropertyFilter> filters, int from, int to, FilterRouting routing,
+                                      byte[] keyRoute, String key, String[] values, int index) {
+        boolean changed = false;
+        String value = values[index];
+        // Apply filters to values, prevent values filtered to null!
+        for (int i = from; i < to; i++) {
+            if (routing != null && !routing.appliesTo(keyRoute, i, value)) {
+                continue;
+            }
+            PropertyFilter filter = filters.get(i);
+            String newValue = filter.filterProperty(key, value);
+            if (!Objects.equals(value, newValue)) {
+                changed = true;
+                if (LOG.isLoggable(Level.FINEST)) {
+                    LOG.finest("Filter - " + key + ": " + value + " -> " + newValue + " by " + filter);
+                }
+            }
+            value = newValue;
+        }
+        values[index] = value;
+        return changed;
+    }
+
+    /**
+     * Applies a {@link BatchPropertyFilter} once to all given keys it applies to, with a single call.
+     *
+     * @param filter   the filter, not null.
+     * @param index    the index of the filter.
+     * @param routing  the routing of the filters, not null.
+     * @param keys     the keys, not null.
+     * @param routes   the routes of the keys, see {@link FilterRouting#keyRoute(String)}.
+     * @param values   the current values of the keys, replaced by the filtered values.
+     * @param changed  the flags, if a key's value has been changed, set to true for each value changed.
+     */
+    private static void filterBatch(BatchPropertyFilter filter, int index, FilterRouting routing, String[] keys,
+                                    byte[][] routes, String[] values, boolean[] changed) {
+        Map<String, Integer> indexes = new HashMap<>();
+        Map<String, String> batch = new HashMap<>();
+        for (int k = 0; k < keys.length; k++) {
+            if (routing.appliesTo(routes[k], index, values[k])) {
+                indexes.put(keys[k], k);
+                batch.put(keys[k], values[k]);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<String, String> result = filter.filterProperties(Collections.unmodifiableMap(batch));
+        for (Map.Entry<String, String> en : result.entrySet()) {
+            Integer k = indexes.get(en.getKey());
+            if (k == null || Objects.equals(values[k], en.getValue())) {
+                continue;
+            }
+            if (LOG.isLoggable(Level.FINEST)) {
+                LOG.finest("Filter - " + en.getKey() + ": " + values[k] + " -> " + en.getValue() + " by " + filter);
+            }
+            values[k] = en.getValue();
+            changed[k] = true;
+        }
     }
 
     /**
      * Get the current properties, composed by the loaded {@link org.apache.tamaya.spi.PropertySource} and filtered
      * by registered {@link org.apache.tamaya.spi.PropertyFilter}.
      *
+     * If the context provides an {@link EffectiveIndex} the precomputed properties are used, so no copy is created
+     * as long as no filters are registered. Either way the PropertySources are merged in ascending ordinal order,
+     * so like for {@link #get(String)} the value of the PropertySource with the highest ordinal wins.
+     *
      * @return the final properties.
      */
     @Override
     public Map<String, String> getProperties() {
-        List<PropertySource> propertySources = new ArrayList<>(configurationContext.getPropertySources());
-        Collections.reverse(propertySources);
+        ConfigurationSnapshot snapshot = currentSnapshot();
+        List<PropertyFilter> filters = snapshot.getPropertyFilters();
+        EffectiveIndex index = snapshot.getEffectiveIndex();
+        if (index != null) {
+            Map<String, String> properties = index.getProperties();
+            if (filters.isEmpty()) {
+                return properties;
+            }
+            return applyFilters(getFilterRouting(snapshot), index.isPrecomputed() ? new HashMap<>(properties) : properties);
+        }
         Map<String, String> result = new HashMap<>();
-        for (PropertySource propertySource : propertySources) {
+        for (PropertySource propertySource : snapshot.getPropertySources()) {
             try {
                 int origSize = result.size();
                 Map<String, String> otherMap = propertySource.getProperties();
@@ -155,55 +642,155 @@ public class DefaultConfiguration implements Configuration {
                 LOG.log(Level.SEVERE, "Error adding properties from PropertySource: " + propertySource + ", ignoring PropertySource.", e);
             }
         }
-        return applyFilters(result);
+        return applyFilters(getFilterRouting(snapshot), result);
+    }
+
+    /**
+     * Access all properties whose keys start with the given prefix. If the context provides a precomputed
+     * {@link EffectiveIndex}, the section is read from its {@link PrefixIndex}. Without filters registered the result
+     * is a view of the index, otherwise only the values of the section are filtered. Without an index all properties
+     * are evaluated and scanned.
+     *
+     * @param prefix the prefix, not null.
+     * @return an unmodifiable map sorted by key, never null.
+     */
+    @Override
+    public Map<String, String> getSection(String prefix) {
+        Objects.requireNonNull(prefix, "prefix must not be null");
+        ConfigurationSnapshot snapshot = currentSnapshot();
+        PrefixIndex prefixIndex = getPrefixIndex(snapshot);
+        if (prefixIndex == null) {
+            return Configuration.super.getSection(prefix);
+        }
+        NavigableMap<String, String> section = prefixIndex.getSection(prefix);
+        if (snapshot.getPropertyFilters().isEmpty()) {
+            return section;
+        }
+        return Collections.unmodifiableMap(new TreeMap<>(applyFilters(getFilterRouting(snapshot),
+                new HashMap<>(section))));
+    }
+
+    /**
+     * Access the names of the direct children of the given prefix. If the context provides a precomputed
+     * {@link EffectiveIndex} and no filters are registered, the children are read from its {@link PrefixIndex}
+     * without visiting the keys below each child.
+     *
+     * @param prefix the prefix, not null.
+     * @return the unmodifiable, sorted names of the children, never null.
+     */
+    @Override
+    public Set<String> getChildKeys(String prefix) {
+        Objects.requireNonNull(prefix, "prefix must not be null");
+        ConfigurationSnapshot snapshot = currentSnapshot();
+        PrefixIndex prefixIndex = getPrefixIndex(snapshot);
+        if (prefixIndex != null && snapshot.getPropertyFilters().isEmpty()) {
+            return prefixIndex.getChildKeys(prefix);
+        }
+        return Configuration.super.getChildKeys(prefix);
+    }
+
+    /**
+     * Access the prefix index of the given snapshot.
+     *
+     * @param snapshot the snapshot, not null.
+     * @return the index, or null, if the snapshot has no precomputed {@link EffectiveIndex}.
+     */
+    private static PrefixIndex getPrefixIndex(ConfigurationSnapshot snapshot) {
+        EffectiveIndex index = snapshot.getEffectiveIndex();
+        return index == null ? null : index.getPrefixIndex();
     }
 
     /**
-     * Filter a full configuration property map.
+     * Filter a full configuration property map. The first pass runs all keys through the filter chain, each further
+     * pass only the keys changed by the previous pass, until no value changes or {@value #MAX_FILTER_LOOPS} passes
+     * are done. Since the keys unchanged by a pass are a fixed point of the filter chain, the result is the same as
+     * when repeating the passes over all keys. Each key is only passed to the filters routed to it, the key
+     * conditions are evaluated once per key.
+     * <p>
+     * Within a pass, each {@link BatchPropertyFilter} is called once with all keys it applies to. The filters between
+     * batch filters are applied per key; for at least {@link #PARALLEL_FILTER_THRESHOLD} keys in parallel, as
+     * PropertyFilters are required to be thread-safe.
+     * </p>
      *
+     * @param routing  the routing of the filters to apply, not null.
      * @param inputMap the unfiltered map
      * @return the filtered map.
      */
-    private Map<String, String> applyFilters(Map<String, String> inputMap) {
-        // Apply filters to values, prevent values filtered to null!
-        for (int i = 0; i < MAX_FILTER_LOOPS; i++) {
-            AtomicInteger changes = new AtomicInteger();
-            for (PropertyFilter filter : configurationContext.getPropertyFilters()) {
-                inputMap.replaceAll((k, v) -> {
-                    String newValue = filter.filterProperty(k, v);
-                    if (newValue != null && !newValue.equals(v)) {
-                        changes.incrementAndGet();
-                        LOG.finest(() -> "Filter - " + k + ": " + v + " -> " + newValue + " by " + filter);
-                    } else if (v != null && !v.equals(newValue)) {
-                        changes.incrementAndGet();
-                        LOG.finest(() -> "Filter - " + k + ": " + v + " -> " + newValue + " by " + filter);
+    private Map<String, String> applyFilters(FilterRouting routing, Map<String, String> inputMap) {
+        List<PropertyFilter> filters = routing.getAllFilters();
+        String[] keys = inputMap.keySet().toArray(new String[inputMap.size()]);
+        byte[][] routes = new byte[keys.length][];
+        if (!routing.isUnrestricted()) {
+            String[] allKeys = keys;
+            indexes(keys.length).forEach(k -> routes[k] = routing.keyRoute(allKeys[k]));
+        }
+        for (int i = 0; i < MAX_FILTER_LOOPS && keys.length > 0; i++) {
+            String[] dirtyKeys = keys;
+            String[] values = new String[dirtyKeys.length];
+            boolean[] changed = new boolean[dirtyKeys.length];
+            for (int k = 0; k < dirtyKeys.length; k++) {
+                values[k] = inputMap.get(dirtyKeys[k]);
+            }
+            int from = 0;
+            while (from < filters.size()) {
+                if (filters.get(from) instanceof BatchPropertyFilter) {
+                    filterBatch((BatchPropertyFilter) filters.get(from), from, routing, dirtyKeys, routes, values,
+                            changed);
+                    from++;
+                } else {
+                    int start = from;
+                    int end = from + 1;
+                    while (end < filters.size() && !(filters.get(end) instanceof BatchPropertyFilter)) {
+                        end++;
                     }
-                    return newValue;
-                });
+                    int stop = end;
+                    indexes(dirtyKeys.length).forEach(k -> changed[k] |= filterOnce(filters, start, stop, routing,
+                            routes[k], dirtyKeys[k], values, k));
+                    from = end;
+                }
             }
-            if (changes.get() == 0) {
+            int changes = 0;
+            for (int k = 0; k < dirtyKeys.length; k++) {
+                if (changed[k]) {
+                    inputMap.put(dirtyKeys[k], values[k]);
+                    routes[changes] = routes[k];
+                    dirtyKeys[changes++] = dirtyKeys[k];
+                }
+            }
+            keys = Arrays.copyOf(dirtyKeys, changes);
+            if (changes == 0) {
                 LOG.finest(() -> "Finishing filter loop, no changes detected.");
-                break;
-            } else {
-                if (i == (MAX_FILTER_LOOPS - 1)) {
-                    if (LOG.isLoggable(Level.WARNING)) {
-                        LOG.warning("Maximal filter loop count reached, aborting filter evaluation after cycles: " + i);
-                    }
-                } else {
-                    LOG.finest(() -> "Repeating filter loop, changes detected: " + changes.get());
+            } else if (i == (MAX_FILTER_LOOPS - 1)) {
+                if (LOG.isLoggable(Level.WARNING)) {
+                    LOG.warning("Maximal filter loop count reached, aborting filter evaluation after cycles: " + i);
                 }
-                changes.set(0);
+            } else {
+                int changedKeys = changes;
+                LOG.finest(() -> "Repeating filter loop for changed keys: " + changedKeys);
             }
         }
         // Remove null values
-        return inputMap.entrySet().parallelStream().filter((e) -> e.getValue() != null).collect(
-                Collectors.toMap((e) -> e.getKey(), (e) -> e.getValue()));
+        inputMap.values().removeIf(Objects::isNull);
+        return inputMap;
+    }
+
+    /**
+     * Creates a stream of the indexes of the given number of keys, which is parallel for at least
+     * {@link #PARALLEL_FILTER_THRESHOLD} keys.
+     *
+     * @param count the number of keys.
+     * @return the stream of indexes.
+     */
+    private static IntStream indexes(int count) {
+        IntStream indexes = IntStream.range(0, count);
+        return count >= PARALLEL_FILTER_THRESHOLD ? indexes.parallel() : indexes;
     }
 
     /**
      * Accesses the current String value for the given key (see {@link #getOptional(String)}) and tries to convert it
      * using the {@link org.apache.tamaya.PropertyConverter} instances provided by the current
-     * {@link org.apache.tamaya.spi.ConfigurationContext}.
+     * {@link org.apache.tamaya.spi.ConfigurationContext}. If the {@link ConversionCache} of the context is enabled,
+     * converted values are cached as long as the raw value does not change.
      *
      * @param key  the property's absolute, or relative path, e.g. @code
      *             a/b/c/d.myProperty}.
@@ -213,25 +800,231 @@ public class DefaultConfiguration implements Configuration {
      */
     @Override
     public <T> T get(String key, TypeLiteral<T> type) {
-        Optional<String> value = getOptional(key);
-        if (value.isPresent()) {
-            List<PropertyConverter<T>> converters = configurationContext.getPropertyConverters(type);
-            for (PropertyConverter<T> converter : converters) {
-                try {
-                    T t = converter.convert(value.get());
-                    if (t != null) {
-                        return t;
-                    }
-                } catch (Exception e) {
-                    LOG.log(Level.FINEST, e, () -> "PropertyConverter: " + converter +
-                            " failed to convert value: " + value.get());
+        ConfigurationSnapshot snapshot = currentSnapshot();
+        String value = get(snapshot, key);
+        if (value != null) {
+            return convertValue(snapshot, key, value, type);
+        }
+
+        return null;
+    }
+
+    /**
+     * Evaluates the values of multiple keys, converted to the given type. The raw values are evaluated with
+     * {@link #getAll(Collection)}, the conversions use the {@link ConversionCache} like
+     * {@link #get(String, TypeLiteral)}.
+     *
+     * @param keys the keys, not null.
+     * @param type the target type, not null.
+     * @param <T>  the value type
+     * @return an unmodifiable map of the keys with a value, iterated in the order of the keys, never null.
+     */
+    @Override
+    public <T> Map<String, T> getAll(Collection<String> keys, TypeLiteral<T> type) {
+        ConfigurationSnapshot snapshot = currentSnapshot();
+        Map<String, T> result = new LinkedHashMap<>();
+        for (Map.Entry<String, String> en : getAll(snapshot, keys).entrySet()) {
+            result.put(en.getKey(), convertValue(snapshot, en.getKey(), en.getValue(), type));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Converts the given value, using the {@link ConversionCache} of the snapshot if enabled.
+     *
+     * @param snapshot the snapshot, not null.
+     * @param key      the property's key, not null.
+     * @param value    the value to convert, not null.
+     * @param type     The target type required, not null.
+     * @param <T>      the value type
+     * @return the converted value, never null.
+     * @throws ConfigException if none of the converters could convert the value.
+     */
+    private <T> T convertValue(ConfigurationSnapshot snapshot, String key, String value, TypeLiteral<T> type) {
+        ConversionCache conversionCache = snapshot.getConversionCache();
+        if (conversionCache == null || !conversionCache.isEnabled()) {
+            return convert(snapshot, key, value, type);
+        }
+        T cached = conversionCache.get(key, type, value);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = conversionCache.getGeneration();
+        T converted = convert(snapshot, key, value, type);
+        conversionCache.put(key, type, value, converted, generation);
+        return converted;
+    }
+
+    /**
+     * Converts the given value using the {@link org.apache.tamaya.PropertyConverter} instances provided by the
+     * snapshot, recording the conversion, if metrics are collected.
+     *
+     * @param snapshot the snapshot, not null.
+     * @param key      the property's key, used for error reporting, not null.
+     * @param value    the value to convert, not null.
+     * @param type     The target type required, not null.
+     * @param <T>      the value type
+     * @return the converted value, never null.
+     * @throws ConfigException if none of the converters could convert the value.
+     */
+    private <T> T convert(ConfigurationSnapshot snapshot, String key, String value, TypeLiteral<T> type) {
+        ConfigurationMetrics metrics = snapshot.getMetrics();
+        if (metrics == null) {
+            return applyConverters(snapshot, key, value, type);
+        }
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T converted = applyConverters(snapshot, key, value, type);
+            success = true;
+            return converted;
+        } finally {
+            metrics.valueConverted(key, type, System.nanoTime() - start, success);
+        }
+    }
+
+    /**
+     * Applies the {@link org.apache.tamaya.PropertyConverter} instances provided by the snapshot until the first one
+     * converts the value.
+     *
+     * @param snapshot the snapshot, not null.
+     * @param key      the property's key, used for error reporting, not null.
+     * @param value    the value to convert, not null.
+     * @param type     The target type required, not null.
+     * @param <T>      the value type
+     * @return the converted value, never null.
+     * @throws ConfigException if none of the converters could convert the value.
+     */
+    private static <T> T applyConverters(ConfigurationSnapshot snapshot, String key, String value,
+                                         TypeLiteral<T> type) {
+        List<PropertyConverter<T>> converters = snapshot.getPropertyConverters(type);
+        for (PropertyConverter<T> converter : converters) {
+            try {
+                T t = converter.convert(value);
+                if (t != null) {
+                    return t;
                 }
+            } catch (Exception e) {
+                LOG.log(Level.FINEST, e, () -> "PropertyConverter: " + converter +
+                        " failed to convert value: " + value);
             }
+        }
 
-            throw new ConfigException("Unable to convert config value for key " +
-                                      key + " in type " + type.getType());
+        throw new ConfigException("Unable to convert config value for key " +
+                                  key + " in type " + type.getType());
+    }
+
+    /**
+     * Checks if the value for the given type can be parsed directly, which is the case as long as the built-in
+     * converter is the one with the highest priority.
+     *
+     * @param snapshot      the snapshot providing the converters, not null.
+     * @param type          the target type, not null.
+     * @param converterType the built-in converter's type, not null.
+     * @return true, if the built-in converter is the first one to be applied.
+     */
+    private static boolean isBuiltInConverterFirst(ConfigurationSnapshot snapshot, TypeLiteral<?> type,
+                                                   Class<?> converterType) {
+        List<? extends PropertyConverter<?>> converters = snapshot.getPropertyConverters(type);
+        return !converters.isEmpty() && converterType.isInstance(converters.get(0));
+    }
+
+    /**
+     * Evaluates the value as {@code boolean}. As long as no custom converter for {@link Boolean} takes precedence,
+     * the value is parsed directly, without looking up the value as {@link Optional} or boxing it.
+     *
+     * @param key          the property's key, not null.
+     * @param defaultValue the value returned, if no such property is configured.
+     * @return the property's value, or {@code defaultValue}.
+     */
+    @Override
+    public boolean getBoolean(String key, boolean defaultValue) {
+        ConfigurationSnapshot snapshot = currentSnapshot();
+        String value = get(snapshot, key);
+        if (value == null) {
+            return defaultValue;
         }
+        if (isBuiltInConverterFirst(snapshot, BOOLEAN_TYPE, BooleanConverter.class)) {
+            Boolean parsed = BooleanConverter.parseBoolean(value);
+            if (parsed != null) {
+                return parsed;
+            }
+        }
+        return convertValue(snapshot, key, value, BOOLEAN_TYPE);
+    }
 
-        return null;
+    /**
+     * Evaluates the value as {@code int}. As long as no custom converter for {@link Integer} takes precedence,
+     * the value is parsed directly, without looking up the value as {@link Optional} or boxing it.
+     *
+     * @param key          the property's key, not null.
+     * @param defaultValue the value returned, if no such property is configured.
+     * @return the property's value, or {@code defaultValue}.
+     */
+    @Override
+    public int getInt(String key, int defaultValue) {
+        ConfigurationSnapshot snapshot = currentSnapshot();
+        String value = get(snapshot, key);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (isBuiltInConverterFirst(snapshot, INTEGER_TYPE, IntegerConverter.class)) {
+            try {
+                return IntegerConverter.parseInt(value);
+            } catch (NumberFormatException e) {
+                LOG.log(Level.FINEST, e, () -> "Failed to parse int value: " + value);
+            }
+        }
+        return convertValue(snapshot, key, value, INTEGER_TYPE);
+    }
+
+    /**
+     * Evaluates the value as {@code long}. As long as no custom converter for {@link Long} takes precedence,
+     * the value is parsed directly, without looking up the value as {@link Optional} or boxing it.
+     *
+     * @param key          the property's key, not null.
+     * @param defaultValue the value returned, if no such property is configured.
+     * @return the property's value, or {@code defaultValue}.
+     */
+    @Override
+    public long getLong(String key, long defaultValue) {
+        ConfigurationSnapshot snapshot = currentSnapshot();
+        String value = get(snapshot, key);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (isBuiltInConverterFirst(snapshot, LONG_TYPE, LongConverter.class)) {
+            try {
+                return LongConverter.parseLong(value);
+            } catch (NumberFormatException e) {
+                LOG.log(Level.FINEST, e, () -> "Failed to parse long value: " + value);
+            }
+        }
+        return convertValue(snapshot, key, value, LONG_TYPE);
+    }
+
+    /**
+     * Evaluates the value as {@code double}. As long as no custom converter for {@link Double} takes precedence,
+     * the value is parsed directly, without looking up the value as {@link Optional} or boxing it.
+     *
+     * @param key          the property's key, not null.
+     * @param defaultValue the value returned, if no such property is configured.
+     * @return the property's value, or {@code defaultValue}.
+     */
+    @Override
+    public double getDouble(String key, double defaultValue) {
+        ConfigurationSnapshot snapshot = currentSnapshot();
+        String value = get(snapshot, key);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (isBuiltInConverterFirst(snapshot, DOUBLE_TYPE, DoubleConverter.class)) {
+            try {
+                return DoubleConverter.parseDouble(value);
+            } catch (NumberFormatException e) {
+                LOG.log(Level.FINEST, e, () -> "Failed to parse double value: " + value);
+            }
+        }
+        return convertValue(snapshot, key, value, DOUBLE_TYPE);
     }
 }
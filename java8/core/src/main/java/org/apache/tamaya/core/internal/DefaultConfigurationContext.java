@@ -21,6 +21,9 @@ package org.apache.tamaya.core.internal;
 import org.apache.tamaya.TypeLiteral;
 import org.apache.tamaya.spi.ConfigurationContext;
 import org.apache.tamaya.PropertyConverter;
+import org.apache.tamaya.core.metrics.DefaultConfigurationMetrics;
+import org.apache.tamaya.core.propertysource.ObservablePropertySource;
+import org.apache.tamaya.spi.ConfigurationMetrics;
 import org.apache.tamaya.spi.PropertyFilter;
 import org.apache.tamaya.spi.PropertySource;
 import org.apache.tamaya.spi.PropertySourceProvider;
@@ -35,8 +38,13 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.StringJoiner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.logging.Logger;
 
@@ -46,98 +54,315 @@ import java.util.logging.Logger;
 public class DefaultConfigurationContext implements ConfigurationContext {
     /** The logger used. */
     private final static Logger LOG = Logger.getLogger(DefaultConfigurationContext.class.getName());
+    /** System property to enable the {@link EffectiveIndex} for new instances. */
+    public static final String EFFECTIVE_INDEX_ENABLED_PROPERTY = "tamaya.core.effectiveIndex.enabled";
+    /** System property to enable collecting {@link ConfigurationMetrics} for new instances. */
+    public static final String METRICS_ENABLED_PROPERTY = "tamaya.core.metrics.enabled";
+    /** System property to evaluate the {@link PropertySourceProvider}s in parallel during bootstrap. */
+    public static final String PARALLEL_BOOTSTRAP_PROPERTY = "tamaya.core.bootstrap.parallel";
+    /** System property to define the maximal number of threads used for a parallel bootstrap. */
+    public static final String BOOTSTRAP_PARALLELISM_PROPERTY = "tamaya.core.bootstrap.parallelism";
     /**
      * Cubcomponent handling {@link org.apache.tamaya.PropertyConverter} instances.
      */
-    private PropertyConverterManager propertyConverterManager = new PropertyConverterManager();
+    private PropertyConverterManager propertyConverterManager;
 
     /**
-     * The current unmodifiable list of loaded {@link org.apache.tamaya.spi.PropertySource} instances.
+     * The report of the bootstrap of this instance, if traced.
      */
-    private List<PropertySource> immutablePropertySources;
+    private BootstrapReport bootstrapReport;
 
     /**
-     * The current unmodifiable list of loaded {@link org.apache.tamaya.spi.PropertyFilter} instances.
+     * The current snapshot, containing the unmodifiable lists of loaded {@link org.apache.tamaya.spi.PropertySource}
+     * and {@link org.apache.tamaya.spi.PropertyFilter} instances, as well as the overriding policy used when
+     * combining PropertySources registered to evalute the final configuration values. Readers only access this
+     * volatile reference, whereas writers replace it under the write lock.
      */
-    private List<PropertyFilter> immutablePropertyFilters;
+    private volatile ConfigurationSnapshot snapshot;
 
     /**
-     * The overriding policy used when combining PropertySources registered to evalute the final configuration
-     * values.
+     * Lock for internal synchronization of writers.
      */
-    private PropertyValueCombinationPolicy propertyValueCombinationPolicy;
+    private StampedLock propertySourceLock = new StampedLock();
 
     /**
-     * Lock for internal synchronization.
+     * The cache of final configuration values evaluated by {@link DefaultConfiguration}.
      */
-    private StampedLock propertySourceLock = new StampedLock();
+    private final ValueCache valueCache = new ValueCache();
+
+    /**
+     * The cache of converted configuration values evaluated by {@link DefaultConfiguration}.
+     */
+    private final ConversionCache conversionCache = new ConversionCache();
 
+    /**
+     * The metrics collected for configuration access, or null, if disabled.
+     */
+    private volatile ConfigurationMetrics metrics;
+
+    /**
+     * Listener registered on {@link org.apache.tamaya.core.propertysource.ObservablePropertySource}s to invalidate
+     * the current snapshot, when a source reports a change.
+     */
+    private final Consumer<PropertySource> propertySourceChangeListener = this::propertySourceChanged;
 
     /**
      * The first time the Configuration system gets invoked we do initialize
      * all our {@link org.apache.tamaya.spi.PropertySource}s and
-     * {@link org.apache.tamaya.spi.PropertyFilter}s which are known at startup.
+     * {@link org.apache.tamaya.spi.PropertyFilter}s which are known at startup. If enabled by
+     * {@value BootstrapTracer#TRACE_PROPERTY}, the phases of this bootstrap are traced and reported.
      */
     public DefaultConfigurationContext() {
-        List<PropertySource> propertySources = new ArrayList<>();
+        BootstrapTracer tracer = BootstrapTracer.start(toString());
+        try {
+            ServiceContext serviceContext = BootstrapTracer.trace("phase", "serviceContext",
+                    ServiceContext::getInstance);
+            propertyConverterManager = BootstrapTracer.trace("phase", "propertyConverters",
+                    PropertyConverterManager::new);
 
-        // first we load all PropertySources which got registered via java.util.ServiceLoader
-        propertySources.addAll(ServiceContext.getInstance().getServices(PropertySource.class));
+            List<PropertySource> propertySources = new ArrayList<>();
+            // first we load all PropertySources which got registered via java.util.ServiceLoader
+            BootstrapTracer.run("phase", "propertySources",
+                    () -> propertySources.addAll(serviceContext.getServices(PropertySource.class)));
+            // after that we add all PropertySources which get dynamically registered via their PropertySourceProviders
+            BootstrapTracer.run("phase", "propertySourceProviders",
+                    () -> propertySources.addAll(evaluatePropertySourcesFromProviders(serviceContext)));
 
-        // after that we add all PropertySources which get dynamically registered via their PropertySourceProviders
-        propertySources.addAll(evaluatePropertySourcesFromProviders());
+            // now sort them according to their ordinal values
+            BootstrapTracer.run("phase", "sortPropertySources",
+                    () -> Collections.sort(propertySources, this::comparePropertySources));
+            List<PropertySource> immutablePropertySources = Collections.unmodifiableList(propertySources);
+            LOG.info(() -> "Registered " + immutablePropertySources.size() + " property sources: " +
+                    createStringList(immutablePropertySources,ps -> ps.getName() + '[' + ps.getClass().getName()+']'));
 
-        // now sort them according to their ordinal values
-        Collections.sort(propertySources, this::comparePropertySources);
-        immutablePropertySources = Collections.unmodifiableList(propertySources);
-        LOG.info(() -> "Registered " + immutablePropertySources.size() + " property sources: " +
-                createStringList(immutablePropertySources,ps -> ps.getName() + '[' + ps.getClass().getName()+']'));
+            // as next step we pick up the PropertyFilters pretty much the same way
+            List<PropertyFilter> propertyFilters = new ArrayList<>();
+            BootstrapTracer.run("phase", "propertyFilters", () -> {
+                propertyFilters.addAll(serviceContext.getServices(PropertyFilter.class));
+                Collections.sort(propertyFilters, this::comparePropertyFilters);
+            });
+            List<PropertyFilter> immutablePropertyFilters = Collections.unmodifiableList(propertyFilters);
+            LOG.info(() -> "Registered " + immutablePropertyFilters.size() + " property filters: " +
+                    createStringList(immutablePropertyFilters,f -> f.getClass().getName()));
+            List<PropertyFilter> nonDeterministicFilters = FilterCache.getNonDeterministicFilters(immutablePropertyFilters);
+            if (!immutablePropertyFilters.isEmpty() && !nonDeterministicFilters.isEmpty()) {
+                LOG.info(() -> "Filtered values are not cached, because of non deterministic property filters: " +
+                        createStringList(nonDeterministicFilters, f -> f.getClass().getName()));
+            }
 
-        // as next step we pick up the PropertyFilters pretty much the same way
-        List<PropertyFilter> propertyFilters = new ArrayList<>();
-        propertyFilters.addAll(ServiceContext.getInstance().getServices(PropertyFilter.class));
-        Collections.sort(propertyFilters, this::comparePropertyFilters);
-        immutablePropertyFilters = Collections.unmodifiableList(propertyFilters);
-        LOG.info(() -> "Registered " + immutablePropertyFilters.size() + " property filters: " +
-                createStringList(immutablePropertyFilters,f -> f.getClass().getName()));
+            PropertyValueCombinationPolicy propertyValueCombinationPolicy = BootstrapTracer.trace("phase",
+                    "propertyValueCombinationPolicy",
+                    () -> serviceContext.getService(PropertyValueCombinationPolicy.class)
+                            .orElse(PropertyValueCombinationPolicy.DEFAULT_OVERRIDING_COLLECTOR));
+            LOG.info(() -> "Using PropertyValueCombinationPolicy: " + propertyValueCombinationPolicy);
 
-        propertyValueCombinationPolicy = ServiceContext.getInstance().getService(PropertyValueCombinationPolicy.class)
-                .orElse(PropertyValueCombinationPolicy.DEFAULT_OVERRIDING_COLLECTOR);
-        LOG.info(() -> "Using PropertyValueCombinationPolicy: " + propertyValueCombinationPolicy);
+            if (Boolean.getBoolean(METRICS_ENABLED_PROPERTY)) {
+                metrics = serviceContext.getService(ConfigurationMetrics.class).orElseGet(DefaultConfigurationMetrics::new);
+                LOG.info(() -> "Collecting configuration metrics using: " + metrics);
+            }
+
+            snapshot = new ConfigurationSnapshot(0L, immutablePropertySources, immutablePropertyFilters,
+                    propertyValueCombinationPolicy, this, valueCache, Boolean.getBoolean(EFFECTIVE_INDEX_ENABLED_PROPERTY));
+            registerChangeListener(immutablePropertySources);
+        } finally {
+            bootstrapReport = tracer != null ? tracer.finish() : null;
+        }
     }
 
     /**
      * Pick up all {@link org.apache.tamaya.spi.PropertySourceProvider}s and return all the
-     * {@link org.apache.tamaya.spi.PropertySource}s they like to register.
+     * {@link org.apache.tamaya.spi.PropertySource}s they like to register. If enabled by
+     * {@link #PARALLEL_BOOTSTRAP_PROPERTY}, the providers are evaluated concurrently on a {@link ForkJoinPool}. The
+     * sources are always returned in the order of their providers, so the final ordering does not depend on the
+     * order the providers complete.
      */
-    private Collection<? extends PropertySource> evaluatePropertySourcesFromProviders() {
+    private Collection<? extends PropertySource> evaluatePropertySourcesFromProviders(ServiceContext serviceContext) {
         List<PropertySource> propertySources = new ArrayList<>();
-        List<PropertySourceProvider> propertySourceProviders = ServiceContext.getInstance().getServices(PropertySourceProvider.class);
-        for (PropertySourceProvider propertySourceProvider : propertySourceProviders) {
-            Collection<PropertySource> sources = propertySourceProvider.getPropertySources();
-                LOG.finer(() -> "PropertySourceProvider " + propertySourceProvider.getClass().getName() +
-                        " provided the following property sources: " +
-                        createStringList(sources,ps -> ps.getName() + '[' + ps.getClass().getName()+']'));
-                propertySources.addAll(sources);
+        List<PropertySourceProvider> propertySourceProviders = serviceContext.getServices(PropertySourceProvider.class);
+        long start = System.nanoTime();
+        boolean parallel = Boolean.getBoolean(PARALLEL_BOOTSTRAP_PROPERTY) && propertySourceProviders.size() > 1;
+        if (parallel) {
+            ForkJoinPool pool = createBootstrapPool(propertySourceProviders.size());
+            BootstrapTracer tracer = BootstrapTracer.current();
+            try {
+                List<ForkJoinTask<Collection<PropertySource>>> tasks = new ArrayList<>();
+                for (PropertySourceProvider propertySourceProvider : propertySourceProviders) {
+                    tasks.add(pool.submit(() -> BootstrapTracer.callWith(tracer,
+                            () -> evaluatePropertySources(propertySourceProvider))));
+                }
+                for (ForkJoinTask<Collection<PropertySource>> task : tasks) {
+                    propertySources.addAll(task.join());
+                }
+            } finally {
+                pool.shutdown();
+            }
+        } else {
+            for (PropertySourceProvider propertySourceProvider : propertySourceProviders) {
+                propertySources.addAll(evaluatePropertySources(propertySourceProvider));
+            }
         }
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        LOG.info(() -> "Evaluated " + propertySourceProviders.size() + " property source providers" +
+                (parallel ? " in parallel" : "") + " in " + millis + "ms.");
         return propertySources;
     }
 
+    /**
+     * Evaluates the {@link org.apache.tamaya.spi.PropertySource}s of a single provider, logging the time needed.
+     *
+     * @param propertySourceProvider the provider, not null.
+     * @return the provider's property sources.
+     */
+    private Collection<PropertySource> evaluatePropertySources(PropertySourceProvider propertySourceProvider) {
+        long start = System.nanoTime();
+        Collection<PropertySource> sources = BootstrapTracer.trace("provider",
+                propertySourceProvider.getClass().getName(), propertySourceProvider::getPropertySources);
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        LOG.fine(() -> "PropertySourceProvider " + propertySourceProvider.getClass().getName() +
+                " provided " + sources.size() + " property sources in " + millis + "ms: " +
+                createStringList(sources,ps -> ps.getName() + '[' + ps.getClass().getName()+']'));
+        return sources;
+    }
+
+    /**
+     * Creates the pool used for a parallel bootstrap. Its threads use the context class loader of the current
+     * thread, so providers load the same resources as during a serial bootstrap.
+     *
+     * @param tasks the number of tasks to be executed.
+     * @return a new pool, to be shut down by the caller.
+     */
+    private static ForkJoinPool createBootstrapPool(int tasks) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        int parallelism = Math.min(tasks,
+                Integer.getInteger(BOOTSTRAP_PARALLELISM_PROPERTY, Runtime.getRuntime().availableProcessors()));
+        return new ForkJoinPool(Math.max(1, parallelism), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("tamaya-bootstrap-" + thread.getPoolIndex());
+            thread.setContextClassLoader(classLoader);
+            return thread;
+        }, null, false);
+    }
+
     @Override
     public void addPropertySources(PropertySource... propertySourcesToAdd) {
         Lock writeLock = propertySourceLock.asWriteLock();
         try {
             writeLock.lock();
-            List<PropertySource> newPropertySources = new ArrayList<>(this.immutablePropertySources);
+            List<PropertySource> newPropertySources = new ArrayList<>(this.snapshot.getPropertySources());
             newPropertySources.addAll(Arrays.asList(propertySourcesToAdd));
             Collections.sort(newPropertySources, this::comparePropertySources);
 
-            this.immutablePropertySources = Collections.unmodifiableList(newPropertySources);
+            registerChangeListener(Arrays.asList(propertySourcesToAdd));
+            publish(this.snapshot.withPropertySources(Collections.unmodifiableList(newPropertySources)));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Publishes a new snapshot and evicts all values cached for previous epochs. Must be called holding the write
+     * lock.
+     *
+     * @param newSnapshot the new snapshot, not null.
+     */
+    private void publish(ConfigurationSnapshot newSnapshot) {
+        this.snapshot = newSnapshot;
+        valueCache.invalidate(newSnapshot.getEpoch());
+        LOG.finest(() -> "Published " + newSnapshot);
+    }
+
+    /**
+     * Registers the change listener on all {@link org.apache.tamaya.core.propertysource.ObservablePropertySource}s
+     * given.
+     *
+     * @param propertySources the PropertySources, not null.
+     */
+    private void registerChangeListener(Collection<PropertySource> propertySources) {
+        for (PropertySource propertySource : propertySources) {
+            if (propertySource instanceof ObservablePropertySource) {
+                ((ObservablePropertySource) propertySource).addChangeListener(propertySourceChangeListener);
+            }
+        }
+    }
+
+    /**
+     * Called when one of the registered PropertySources reports a change of its contents. A new snapshot is
+     * published, so any state derived from the previous snapshot is evaluated again.
+     *
+     * @param propertySource the changed PropertySource.
+     */
+    private void propertySourceChanged(PropertySource propertySource) {
+        LOG.finest(() -> "PropertySource changed, renewing snapshot: " + propertySource.getName());
+        Lock writeLock = propertySourceLock.asWriteLock();
+        try {
+            writeLock.lock();
+            publish(this.snapshot.renew());
         } finally {
             writeLock.unlock();
         }
     }
 
+    /**
+     * Access the current snapshot of this context. Accessing the snapshot only requires a single volatile read,
+     * the returned snapshot is immutable and can be used to evaluate a consistent set of configuration values.
+     * If the value cache or the index is enabled, the PropertySources only detecting changes on read access are asked
+     * to check for changes before, since cached or indexed values would hide these changes.
+     *
+     * @return the current snapshot, never null.
+     * @see org.apache.tamaya.core.propertysource.ObservablePropertySource#isDetectingChangesOnRead()
+     */
+    public ConfigurationSnapshot getSnapshot() {
+        ConfigurationSnapshot current = this.snapshot;
+        if (current.hasPolledPropertySources() && (valueCache.isEnabled() || current.isEffectiveIndexEnabled())) {
+            current.checkForChanges();
+            current = this.snapshot;
+        }
+        return current;
+    }
+
+    /**
+     * Access the report of the bootstrap of this context, containing wall time and allocations of its phases,
+     * providers and sources. The bootstrap is only traced, if the system property
+     * {@value BootstrapTracer#TRACE_PROPERTY} is set to {@code true}.
+     *
+     * @return the report, or null, if the bootstrap was not traced.
+     */
+    public BootstrapReport getBootstrapReport() {
+        return bootstrapReport;
+    }
+
+    /**
+     * Allows to check if configuration values are evaluated using a precomputed index over the scannable
+     * PropertySources.
+     *
+     * @return true, if the index is active.
+     */
+    public boolean isEffectiveIndexEnabled() {
+        return snapshot.isEffectiveIndexEnabled();
+    }
+
+    /**
+     * Activates or deactivates the precomputed index over the scannable PropertySources. When active, the values of
+     * all scannable PropertySources are merged once and reused until the PropertySources change, whereas non
+     * scannable PropertySources are still evaluated on each access. Since the index is only rebuilt, when
+     * PropertySources are added or report a change, it should only be enabled, if the registered scannable
+     * PropertySources are either static or implement
+     * {@link org.apache.tamaya.core.propertysource.ObservablePropertySource}. By default the index is only active,
+     * if the system property {@value #EFFECTIVE_INDEX_ENABLED_PROPERTY} is set to {@code true}.
+     *
+     * @param enabled the new state.
+     */
+    public void setEffectiveIndexEnabled(boolean enabled) {
+        Lock writeLock = propertySourceLock.asWriteLock();
+        try {
+            writeLock.lock();
+            publish(this.snapshot.withEffectiveIndexEnabled(enabled));
+        } finally {
+            writeLock.unlock();
+        }
+        LOG.info(() -> "Effective index " + (enabled ? "enabled" : "disabled") + " for " + this);
+    }
+
     /**
      * Order property source reversely, the most important come first.
      *
@@ -179,12 +404,13 @@ public class DefaultConfigurationContext implements ConfigurationContext {
 
     @Override
     public List<PropertySource> getPropertySources() {
-        return immutablePropertySources;
+        return snapshot.getPropertySources();
     }
 
     @Override
     public <T> void addPropertyConverter(TypeLiteral<T> typeToConvert, PropertyConverter<T> propertyConverter) {
         propertyConverterManager.register(typeToConvert, propertyConverter);
+        conversionCache.invalidate();
         LOG.info(() -> "Added PropertyConverter: " + propertyConverter.getClass().getName());
     }
 
@@ -200,12 +426,93 @@ public class DefaultConfigurationContext implements ConfigurationContext {
 
     @Override
     public List<PropertyFilter> getPropertyFilters() {
-        return immutablePropertyFilters;
+        return snapshot.getPropertyFilters();
     }
 
     @Override
     public PropertyValueCombinationPolicy getPropertyValueCombinationPolicy(){
-        return propertyValueCombinationPolicy;
+        return snapshot.getPropertyValueCombinationPolicy();
+    }
+
+    /**
+     * Access the cache of final configuration values used by {@link DefaultConfiguration} for this context.
+     *
+     * @return the value cache, never null.
+     */
+    public ValueCache getValueCache() {
+        return valueCache;
+    }
+
+    /**
+     * Allows to check if final configuration values evaluated for this context are cached.
+     *
+     * @return true, if the value cache is active.
+     */
+    public boolean isValueCacheEnabled() {
+        return valueCache.isEnabled();
+    }
+
+    /**
+     * Activates or deactivates caching of final configuration values for this context. By default the cache is
+     * only active, if the system property {@value ValueCache#ENABLED_PROPERTY} is set to {@code true}.
+     *
+     * @param enabled the new state.
+     */
+    public void setValueCacheEnabled(boolean enabled) {
+        valueCache.setEnabled(enabled);
+        LOG.info(() -> "Value cache " + (enabled ? "enabled" : "disabled") + " for " + this);
+    }
+
+    /**
+     * Access the cache of converted configuration values used by {@link DefaultConfiguration} for this context.
+     *
+     * @return the conversion cache, never null.
+     */
+    public ConversionCache getConversionCache() {
+        return conversionCache;
+    }
+
+    /**
+     * Allows to check if converted configuration values evaluated for this context are cached.
+     *
+     * @return true, if the conversion cache is active.
+     */
+    public boolean isConversionCacheEnabled() {
+        return conversionCache.isEnabled();
+    }
+
+    /**
+     * Activates or deactivates caching of converted configuration values for this context. By default the cache is
+     * only active, if the system property {@value ConversionCache#ENABLED_PROPERTY} is set to {@code true}.
+     *
+     * @param enabled the new state.
+     */
+    public void setConversionCacheEnabled(boolean enabled) {
+        conversionCache.setEnabled(enabled);
+        LOG.info(() -> "Conversion cache " + (enabled ? "enabled" : "disabled") + " for " + this);
+    }
+
+    /**
+     * Access the metrics collected for the configuration access of this context.
+     *
+     * @return the metrics, or null, if no metrics are collected.
+     */
+    public ConfigurationMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets the metrics to be collected for the configuration access of this context. By default metrics are only
+     * collected, if the system property {@value #METRICS_ENABLED_PROPERTY} is set to {@code true}, using the
+     * {@link ConfigurationMetrics} service registered or {@link DefaultConfigurationMetrics}. When no metrics are
+     * collected, configuration access does not evaluate any timing information.
+     *
+     * @param metrics the metrics, or null to stop collecting metrics.
+     */
+    public void setMetrics(ConfigurationMetrics metrics) {
+        this.metrics = metrics;
+        LOG.info(() -> "Configuration metrics " + (metrics != null ? "collected using " + metrics : "disabled") +
+                " for " + this);
     }
 
     private <T> String createStringList(Collection<T> propertySources, Function<T,String> mapper){
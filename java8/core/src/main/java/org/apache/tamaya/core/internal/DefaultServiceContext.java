@@ -25,6 +25,7 @@ import javax.annotation.Priority;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -75,12 +76,11 @@ public final class DefaultServiceContext implements ServiceContext {
         if (found != null) {
             return found;
         }
-        List<T> services = new ArrayList<>();
+        List<T> loaded = new ArrayList<>();
+        List<T> services = loaded;
         try {
-            for (T t : ServiceLoader.load(serviceType)) {
-                services.add(t);
-            }
-            services = Collections.unmodifiableList(services);
+            BootstrapTracer.run("services", serviceType.getName(), () -> loadServices(serviceType, loaded));
+            services = Collections.unmodifiableList(loaded);
         } catch (Exception e) {
             Logger.getLogger(DefaultServiceContext.class.getName()).log(Level.WARNING,
                     "Error loading services current type " + serviceType, e);
@@ -89,6 +89,23 @@ public final class DefaultServiceContext implements ServiceContext {
         return previousServices != null ? previousServices : services;
     }
 
+    /**
+     * Loads the services of the given type using the {@link ServiceLoader}, tracing the creation of each instance.
+     *
+     * @param serviceType the service type, not null.
+     * @param services    the list the services are added to, not null.
+     * @param <T>         the concrete type.
+     */
+    private static <T> void loadServices(Class<T> serviceType, List<T> services) {
+        Iterator<T> iterator = ServiceLoader.load(serviceType).iterator();
+        while (iterator.hasNext()) {
+            try (BootstrapTracer.Span span = BootstrapTracer.span("service", serviceType.getName())) {
+                T t = iterator.next();
+                span.setName(t.getClass().getName());
+                services.add(t);
+            }
+        }
+    }
 
     /**
      * @param services to scan
@@ -0,0 +1,255 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spi.PropertyValueCombinationPolicy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Immutable, precomputed index of the combined (but unfiltered) values of a list of
+ * {@link org.apache.tamaya.spi.PropertySource}s. Each contiguous run of scannable PropertySources is merged once
+ * into an immutable map. Non scannable
+ * PropertySources are kept and queried live. Lookups therefore only require one hash lookup per merged run,
+ * which in the common case of only scannable PropertySources is a single lookup.
+ * <p>
+ * Merging runs of PropertySources is only equivalent to walking all PropertySources, if the combination policy
+ * replaces the current value with any non empty value read, as declared by
+ * {@link org.apache.tamaya.spi.PropertyValueCombinationPolicy#isOverriding()}. Use
+ * {@link #isSupported(org.apache.tamaya.spi.PropertyValueCombinationPolicy)} to check if an index can be built.
+ * Empty values are only skipped by single key lookups, {@link #getProperties()} contains them like the properties
+ * of the PropertySources.
+ * </p>
+ * This class is thread-safe.
+ */
+final class EffectiveIndex {
+    /** The logger used. */
+    private static final Logger LOG = Logger.getLogger(EffectiveIndex.class.getName());
+
+    /** The segments, in ascending ordinal order. */
+    private final List<Segment> segments;
+
+    /** The precomputed properties, if the index consists only of one merged segment, else null. */
+    private final Map<String, String> properties;
+
+    /** The index over the keys of the precomputed properties, lazily created. */
+    private volatile PrefixIndex prefixIndex;
+
+    /**
+     * Creates a new index.
+     *
+     * @param propertySources the PropertySources, ordered ascending by ordinal, not null.
+     */
+    EffectiveIndex(List<PropertySource> propertySources) {
+        List<Segment> segments = new ArrayList<>();
+        List<PropertySource> run = new ArrayList<>();
+        for (PropertySource propertySource : propertySources) {
+            if (propertySource.isScannable()) {
+                run.add(propertySource);
+            } else {
+                if (!run.isEmpty()) {
+                    segments.add(merge(run));
+                    run.clear();
+                }
+                segments.add(new Segment(null, null, propertySource));
+            }
+        }
+        if (!run.isEmpty()) {
+            segments.add(merge(run));
+        }
+        this.segments = Collections.unmodifiableList(segments);
+        if (segments.isEmpty()) {
+            this.properties = Collections.emptyMap();
+        } else if (segments.size() == 1 && segments.get(0).values != null) {
+            this.properties = segments.get(0).properties;
+        } else {
+            this.properties = null;
+        }
+    }
+
+    /**
+     * Checks if an index can be used for evaluating single values with the given policy.
+     *
+     * @param combinationPolicy the policy, not null.
+     * @return true, if the policy lets any non empty value override the current value.
+     * @see org.apache.tamaya.spi.PropertyValueCombinationPolicy#isOverriding()
+     */
+    static boolean isSupported(PropertyValueCombinationPolicy combinationPolicy) {
+        return combinationPolicy.isOverriding();
+    }
+
+    /**
+     * Merges a run of scannable PropertySources into a segment. For lookups each non empty value overrides the
+     * values of the PropertySources before, as defined by
+     * {@link org.apache.tamaya.spi.PropertyValueCombinationPolicy#DEFAULT_OVERRIDING_COLLECTOR}. The properties of
+     * the segment also contain the keys whose last value is empty. Only if there are such keys, a second map is
+     * created.
+     *
+     * @param propertySources the PropertySources, ordered ascending by ordinal.
+     * @return the merged segment.
+     */
+    private static Segment merge(List<PropertySource> propertySources) {
+        Map<String, String> merged = new HashMap<>();
+        Set<String> emptyKeys = new HashSet<>();
+        for (PropertySource propertySource : propertySources) {
+            try {
+                for (Map.Entry<String, String> en : propertySource.getProperties().entrySet()) {
+                    if (en.getValue() == null) {
+                        continue;
+                    }
+                    if (en.getValue().isEmpty()) {
+                        emptyKeys.add(en.getKey());
+                    } else {
+                        merged.put(en.getKey(), en.getValue());
+                        emptyKeys.remove(en.getKey());
+                    }
+                }
+            } catch (Exception e) {
+                LOG.log(Level.SEVERE, "Error indexing properties from PropertySource: " + propertySource +
+                        ", ignoring PropertySource.", e);
+            }
+        }
+        Map<String, String> values = Collections.unmodifiableMap(merged);
+        if (emptyKeys.isEmpty()) {
+            return new Segment(values, values, null);
+        }
+        Map<String, String> properties = new HashMap<>(merged);
+        for (String key : emptyKeys) {
+            properties.put(key, "");
+        }
+        return new Segment(values, Collections.unmodifiableMap(properties), null);
+    }
+
+    /**
+     * Evaluates the combined, unfiltered value for the given key. The segments are probed from the highest
+     * ordinal down, the first non empty value found is returned.
+     *
+     * @param key the key, not null.
+     * @return the combined value, or null.
+     */
+    String get(String key) {
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            Segment segment = segments.get(i);
+            String value;
+            if (segment.values != null) {
+                value = segment.values.get(key);
+            } else {
+                value = segment.propertySource.get(key);
+            }
+            if (value != null && !value.isEmpty()) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Access the combined, unfiltered properties. If the index contains only scannable PropertySources the
+     * precomputed immutable map is returned, otherwise a new map is created, which also contains the current
+     * properties of the non scannable PropertySources.
+     *
+     * @return the combined properties, never null.
+     */
+    Map<String, String> getProperties() {
+        if (properties != null) {
+            return properties;
+        }
+        Map<String, String> result = new HashMap<>();
+        for (Segment segment : segments) {
+            if (segment.values != null) {
+                result.putAll(segment.properties);
+            } else {
+                try {
+                    result.putAll(segment.propertySource.getProperties());
+                } catch (Exception e) {
+                    LOG.log(Level.SEVERE, "Error adding properties from PropertySource: " + segment.propertySource +
+                            ", ignoring PropertySource.", e);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Allows to check if {@link #getProperties()} returns a precomputed immutable map.
+     *
+     * @return true, if no non scannable PropertySources are contained.
+     */
+    boolean isPrecomputed() {
+        return properties != null;
+    }
+
+    /**
+     * Access the index over the keys of the precomputed properties, which is created on first access.
+     *
+     * @return the prefix index, or null, if the properties are not precomputed.
+     * @see #isPrecomputed()
+     */
+    PrefixIndex getPrefixIndex() {
+        if (properties == null) {
+            return null;
+        }
+        PrefixIndex index = this.prefixIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = this.prefixIndex;
+                if (index == null) {
+                    index = new PrefixIndex(properties);
+                    this.prefixIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return "EffectiveIndex{" +
+                "segments=" + segments.size() +
+                ", precomputed=" + isPrecomputed() +
+                '}';
+    }
+
+    /**
+     * A segment of the index, either a merged run of scannable PropertySources or a single non scannable one.
+     */
+    private static final class Segment {
+        /** The merged non empty values used for lookups, or null. */
+        final Map<String, String> values;
+        /** The merged properties including empty values, or null. */
+        final Map<String, String> properties;
+        /** The non scannable PropertySource, or null. */
+        final PropertySource propertySource;
+
+        Segment(Map<String, String> values, Map<String, String> properties, PropertySource propertySource) {
+            this.values = values;
+            this.properties = properties;
+            this.propertySource = propertySource;
+        }
+    }
+}
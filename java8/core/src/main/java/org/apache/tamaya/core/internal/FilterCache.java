@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.spi.PropertyFilter;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Bounded cache of filtered configuration values, as evaluated by {@link DefaultConfiguration#get(String)}. Entries
+ * are keyed by the property key and store the unfiltered value they were filtered from, so a cached value is only
+ * returned, if the unfiltered value is still the same. This is only valid, if all filters are
+ * {@link PropertyFilter#isDeterministic() deterministic}, see {@link #isCacheable(List)}. The cache belongs to the
+ * {@link FilterRouting} of the filters, which is shared by the successive snapshots of a context, as long as the
+ * filters are unchanged.
+ * <p>
+ * Unlike the {@link ValueCache} the entries stay valid, when the PropertySources change. The cache is active by
+ * default, it can be disabled by setting the system property {@value #ENABLED_PROPERTY} to {@code false}.
+ * </p>
+ * This class is thread-safe.
+ */
+public final class FilterCache {
+    /** The logger used. */
+    private static final Logger LOG = Logger.getLogger(FilterCache.class.getName());
+    /** System property to disable the cache. */
+    public static final String ENABLED_PROPERTY = "tamaya.core.filterCache.enabled";
+    /** System property to define the maximal number of entries cached. */
+    public static final String MAX_SIZE_PROPERTY = "tamaya.core.filterCache.maxSize";
+    /** The default maximal number of entries cached. */
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    /** The cached values. */
+    private final Map<String, Entry> values = new ConcurrentHashMap<>();
+    /** The number of cache hits. */
+    private final LongAdder hits = new LongAdder();
+    /** The number of cache misses. */
+    private final LongAdder misses = new LongAdder();
+    /** The maximal number of entries. */
+    private final int maxSize;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxSize the maximal number of entries, &gt; 0.
+     */
+    public FilterCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be > 0: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Creates a cache for the given filters, configured by the system properties {@link #ENABLED_PROPERTY} and
+     * {@link #MAX_SIZE_PROPERTY}.
+     *
+     * @param filters the filters, not null.
+     * @return the cache, or null, if the filters are not cacheable or the cache is disabled.
+     */
+    static FilterCache of(List<PropertyFilter> filters) {
+        if (!isCacheable(filters) || !Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"))) {
+            return null;
+        }
+        return new FilterCache(Integer.getInteger(MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE));
+    }
+
+    /**
+     * Checks if the values filtered by the given filters can be cached.
+     *
+     * @param filters the filters, not null.
+     * @return true, if there are filters and all of them are deterministic.
+     */
+    public static boolean isCacheable(List<PropertyFilter> filters) {
+        return !filters.isEmpty() && getNonDeterministicFilters(filters).isEmpty();
+    }
+
+    /**
+     * Evaluates the filters preventing the filtered values from being cached.
+     *
+     * @param filters the filters, not null.
+     * @return the filters not declared as deterministic, never null.
+     */
+    public static List<PropertyFilter> getNonDeterministicFilters(List<PropertyFilter> filters) {
+        List<PropertyFilter> result = new ArrayList<>();
+        for (PropertyFilter filter : filters) {
+            if (!filter.isDeterministic()) {
+                result.add(filter);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Access the cached value for the given key.
+     *
+     * @param key        the key, not null.
+     * @param unfiltered the current unfiltered value of the key, may be null.
+     * @return the cached value (an empty Optional, if the value was filtered to null), or {@code null}, if no value
+     * filtered from the given unfiltered value is cached.
+     */
+    public Optional<String> get(String key, String unfiltered) {
+        Entry entry = values.get(key);
+        if (entry == null || !Objects.equals(entry.unfiltered, unfiltered)) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    /**
+     * Caches a filtered value. If the cache is full, a single entry is evicted.
+     *
+     * @param key        the key, not null.
+     * @param unfiltered the unfiltered value, may be null.
+     * @param value      the filtered value, may be null.
+     */
+    public void put(String key, String unfiltered, String value) {
+        if (values.size() >= maxSize && !values.containsKey(key)) {
+            evictOne();
+        }
+        values.put(key, new Entry(unfiltered, Optional.ofNullable(value)));
+    }
+
+    /**
+     * Evicts an arbitrary entry, so a full cache keeps serving the remaining entries.
+     */
+    private void evictOne() {
+        Iterator<String> keys = values.keySet().iterator();
+        if (keys.hasNext()) {
+            String evicted = keys.next();
+            keys.remove();
+            LOG.finest(() -> "Filter cache full, evicted: " + evicted);
+        }
+    }
+
+    /**
+     * Get the number of entries currently cached.
+     *
+     * @return the current size.
+     */
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * Get the number of lookups served from the cache.
+     *
+     * @return the hit count.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of lookups not served from the cache.
+     *
+     * @return the miss count.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "FilterCache{" +
+                "size=" + values.size() +
+                ", maxSize=" + maxSize +
+                ", hits=" + hits.sum() +
+                ", misses=" + misses.sum() +
+                '}';
+    }
+
+    /**
+     * A cached value.
+     */
+    private static final class Entry {
+        final String unfiltered;
+        final Optional<String> value;
+
+        Entry(String unfiltered, Optional<String> value) {
+            this.unfiltered = unfiltered;
+            this.value = value;
+        }
+    }
+}
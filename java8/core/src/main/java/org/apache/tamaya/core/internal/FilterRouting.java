@@ -0,0 +1,263 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.spi.FilterScope;
+import org.apache.tamaya.spi.PropertyFilter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Routing table selecting the {@link PropertyFilter}s applicable to a key, based on their
+ * {@link PropertyFilter#getScope()}. The scopes are read once, when the routing is created. For each key the
+ * filters whose key conditions match, or which are unrestricted, are selected in their original order. Filters that
+ * only apply because of value conditions are wrapped, so the condition is checked with the current value each time
+ * the filter would be invoked.
+ * <p>
+ * The filters selected for single keys are cached, up to {@value #MAX_CACHED_KEYS} keys, a full cache evicts a single
+ * key per new key. If no filter declares a restricted scope, all keys share the same filter list.
+ * </p>
+ * This class is thread-safe.
+ */
+final class FilterRouting {
+    /** The logger used. */
+    private static final Logger LOG = Logger.getLogger(FilterRouting.class.getName());
+    /** The maximal number of keys, whose filters are cached. */
+    static final int MAX_CACHED_KEYS = 10_000;
+    /** Marker of {@link #keyRoute(String)} for a filter not applicable to a key. */
+    private static final byte SKIP = 0;
+    /** Marker of {@link #keyRoute(String)} for a filter applicable to a key. */
+    private static final byte APPLIES = 1;
+    /** Marker of {@link #keyRoute(String)} for a filter applicable to a key depending on the value. */
+    private static final byte VALUE_DEPENDENT = 2;
+
+    /** All filters, in their original order. */
+    private final List<PropertyFilter> filters;
+    /** The scopes of the filters, by index. */
+    private final FilterScope[] scopes;
+    /** Flag, if all filters apply to all keys. */
+    private final boolean unrestricted;
+    /** The filters selected per key. */
+    private final Map<String, List<PropertyFilter>> routes = new ConcurrentHashMap<>();
+    /** The cache of filtered values, or null, if the filters are not cacheable. */
+    private final FilterCache filterCache;
+
+    /**
+     * Creates a new routing table.
+     *
+     * @param filters the filters, in the order to be applied, not null. The list is copied.
+     */
+    FilterRouting(List<PropertyFilter> filters) {
+        this.filters = Collections.unmodifiableList(new ArrayList<>(filters));
+        this.scopes = new FilterScope[filters.size()];
+        boolean allUnrestricted = true;
+        for (int i = 0; i < scopes.length; i++) {
+            FilterScope scope = filters.get(i).getScope();
+            scopes[i] = scope == null ? FilterScope.ALL : scope;
+            allUnrestricted &= scopes[i].isUnrestricted();
+        }
+        this.unrestricted = allUnrestricted;
+        this.filterCache = FilterCache.of(this.filters);
+    }
+
+    /**
+     * Access the filters applicable to the given key, using the cache.
+     *
+     * @param key the key, not null.
+     * @return the filters, never null.
+     */
+    List<PropertyFilter> getFilters(String key) {
+        if (unrestricted) {
+            return filters;
+        }
+        List<PropertyFilter> route = routes.get(key);
+        if (route == null) {
+            route = route(key);
+            if (routes.size() >= MAX_CACHED_KEYS) {
+                evictOne();
+            }
+            routes.put(key, route);
+        }
+        return route;
+    }
+
+    /**
+     * Evicts an arbitrary route, so a full cache keeps serving the remaining routes.
+     */
+    private void evictOne() {
+        Iterator<String> keys = routes.keySet().iterator();
+        if (keys.hasNext()) {
+            String evicted = keys.next();
+            keys.remove();
+            LOG.finest(() -> "Filter routes full, evicted: " + evicted);
+        }
+    }
+
+    /**
+     * Get the number of keys, whose filters are currently cached.
+     *
+     * @return the number of cached routes.
+     */
+    int getCachedRouteCount() {
+        return routes.size();
+    }
+
+    /**
+     * Evaluates the filters applicable to the given key, without using the cache.
+     *
+     * @param key the key, not null.
+     * @return the filters, never null.
+     */
+    private List<PropertyFilter> route(String key) {
+        if (unrestricted) {
+            return filters;
+        }
+        List<PropertyFilter> route = new ArrayList<>(filters.size());
+        for (int i = 0; i < scopes.length; i++) {
+            FilterScope scope = scopes[i];
+            if (scope.appliesToKey(key)) {
+                route.add(filters.get(i));
+            } else if (scope.hasValueConditions()) {
+                route.add(new ValueConditionalFilter(filters.get(i), scope));
+            }
+        }
+        return route.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(route);
+    }
+
+    /**
+     * Evaluates the applicability of all filters to the given key, as input for
+     * {@link #appliesTo(byte[], int, String)}. This allows to evaluate the key conditions once, when filters are
+     * not applied in a chain per key, but one by one to multiple keys.
+     *
+     * @param key the key, not null.
+     * @return the applicability per filter index, or null, if all filters apply to all keys.
+     */
+    byte[] keyRoute(String key) {
+        if (unrestricted) {
+            return null;
+        }
+        byte[] route = new byte[scopes.length];
+        for (int i = 0; i < scopes.length; i++) {
+            if (scopes[i].appliesToKey(key)) {
+                route[i] = APPLIES;
+            } else if (scopes[i].hasValueConditions()) {
+                route[i] = VALUE_DEPENDENT;
+            } else {
+                route[i] = SKIP;
+            }
+        }
+        return route;
+    }
+
+    /**
+     * Checks if a filter applies to a key.
+     *
+     * @param keyRoute the route of the key, as returned by {@link #keyRoute(String)}.
+     * @param index    the index of the filter.
+     * @param value    the current value of the key.
+     * @return true, if the filter must be invoked.
+     */
+    boolean appliesTo(byte[] keyRoute, int index, String value) {
+        return keyRoute == null || keyRoute[index] == APPLIES
+                || (keyRoute[index] == VALUE_DEPENDENT && scopes[index].appliesToValue(value));
+    }
+
+    /**
+     * Access all filters routed.
+     *
+     * @return the unmodifiable filters, in the order to be applied, never null.
+     */
+    List<PropertyFilter> getAllFilters() {
+        return filters;
+    }
+
+    /**
+     * Access the cache of the values filtered by the filters routed.
+     *
+     * @return the cache, or null, if not all filters are deterministic or the cache is disabled.
+     */
+    FilterCache getFilterCache() {
+        return filterCache;
+    }
+
+    /**
+     * Allows to check if this routing was created for the given filters.
+     *
+     * @param filters the filters, not null.
+     * @return true, if the same filters are routed in the same order.
+     */
+    boolean isRouting(List<PropertyFilter> filters) {
+        return this.filters.equals(filters);
+    }
+
+    /**
+     * Allows to check if all filters apply to all keys.
+     *
+     * @return true, if no filter declares a restricted scope.
+     */
+    boolean isUnrestricted() {
+        return unrestricted;
+    }
+
+    @Override
+    public String toString() {
+        return "FilterRouting{" +
+                "filters=" + filters.size() +
+                ", unrestricted=" + unrestricted +
+                ", cachedKeys=" + routes.size() +
+                '}';
+    }
+
+    /**
+     * Filter invoking its delegate only, if the value matches the value conditions of its scope.
+     */
+    private static final class ValueConditionalFilter implements PropertyFilter {
+        private final PropertyFilter delegate;
+        private final FilterScope scope;
+
+        ValueConditionalFilter(PropertyFilter delegate, FilterScope scope) {
+            this.delegate = delegate;
+            this.scope = scope;
+        }
+
+        @Override
+        public String filterProperty(String key, String valueToBeFiltered) {
+            if (scope.appliesToValue(valueToBeFiltered)) {
+                return delegate.filterProperty(key, valueToBeFiltered);
+            }
+            return valueToBeFiltered;
+        }
+
+        @Override
+        public FilterScope getScope() {
+            return scope;
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.ConfigException;
+import org.apache.tamaya.core.serviceindex.ServiceIndex;
+import org.apache.tamaya.spi.ServiceContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@link org.apache.tamaya.spi.ServiceContext} reading the services from the indexes written at build time by
+ * {@link org.apache.tamaya.core.serviceindex.ServiceIndexProcessor}. Priorities are read from the index, so
+ * {@link #getService(Class)} only instantiates the implementation selected. Services are instantiated on first
+ * access of their type.
+ * <p>
+ * This context is only selected, if at least one index is available on the classpath. For service types, that are
+ * also registered by jars or folders without an index, it falls back to the {@link DefaultServiceContext}.
+ * </p>
+ */
+public final class IndexedServiceContext implements ServiceContext {
+    /** The logger used. */
+    private static final Logger LOG = Logger.getLogger(IndexedServiceContext.class.getName());
+    /** The class loader used. */
+    private final ClassLoader classLoader;
+    /** The indexed implementations, per service type name. */
+    private final Map<String, List<IndexEntry>> index = new HashMap<>();
+    /** The service type names listed in the index, per root (jar or folder) providing an index. */
+    private final Map<String, Set<String>> indexedTypes = new HashMap<>();
+    /** The context used for types not completely covered by the index. */
+    private final DefaultServiceContext fallbackContext = new DefaultServiceContext();
+    /** The instances created, per implementation class name. */
+    private final Map<String, Object> instances = new ConcurrentHashMap<>();
+    /** The services loaded, per type. */
+    private final Map<Class<?>, List<?>> servicesLoaded = new ConcurrentHashMap<>();
+    /** Singletons. */
+    private final Map<Class<?>, Optional<?>> singletons = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new instance, using the context class loader of the current thread.
+     */
+    public IndexedServiceContext() {
+        this(Thread.currentThread().getContextClassLoader());
+    }
+
+    /**
+     * Creates a new instance, reading all indexes visible to the given class loader.
+     *
+     * @param classLoader the class loader, not null.
+     */
+    public IndexedServiceContext(ClassLoader classLoader) {
+        this.classLoader = Objects.requireNonNull(classLoader);
+        try {
+            Enumeration<URL> indexUrls = classLoader.getResources(ServiceIndex.LOCATION);
+            while (indexUrls.hasMoreElements()) {
+                readIndex(indexUrls.nextElement());
+            }
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Error reading service indexes, falling back to ServiceLoader.", e);
+            index.clear();
+            indexedTypes.clear();
+        }
+    }
+
+    private void readIndex(URL indexUrl) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream is = indexUrl.openStream()) {
+            properties.load(is);
+        }
+        for (String serviceType : properties.stringPropertyNames()) {
+            List<IndexEntry> entries = index.computeIfAbsent(serviceType, t -> new ArrayList<>());
+            for (String entry : properties.getProperty(serviceType).split(",")) {
+                int separator = entry.lastIndexOf(':');
+                try {
+                    entries.add(new IndexEntry(entry.substring(0, separator).trim(),
+                            Integer.parseInt(entry.substring(separator + 1).trim())));
+                } catch (RuntimeException e) {
+                    throw new IOException("Invalid service index entry in " + indexUrl + ": " + entry, e);
+                }
+            }
+        }
+        indexedTypes.computeIfAbsent(getRoot(indexUrl, ServiceIndex.LOCATION), r -> new HashSet<>())
+                .addAll(properties.stringPropertyNames());
+        LOG.finest(() -> "Read service index: " + indexUrl);
+    }
+
+    private static String getRoot(URL url, String resource) {
+        String externalForm = url.toExternalForm();
+        return externalForm.substring(0, externalForm.length() - resource.length());
+    }
+
+    /**
+     * The ordinal is higher than the one of the {@link DefaultServiceContext}, if any index is available.
+     *
+     * @return 10, if an index is available, 0 otherwise.
+     */
+    @Override
+    public int ordinal() {
+        return indexedTypes.isEmpty() ? 0 : 10;
+    }
+
+    /**
+     * Checks if all service files of the given type are covered by an index. A service file is only covered, if the
+     * index of its root lists the service type, as the index only contains a configured set of service types.
+     *
+     * @param serviceType the service type, not null.
+     * @return true, if the services can be read from the index.
+     */
+    private boolean isIndexed(Class<?> serviceType) {
+        String resource = ServiceIndex.SERVICES_LOCATION + serviceType.getName();
+        try {
+            Enumeration<URL> serviceFiles = classLoader.getResources(resource);
+            while (serviceFiles.hasMoreElements()) {
+                URL serviceFile = serviceFiles.nextElement();
+                Set<String> types = indexedTypes.get(getRoot(serviceFile, resource));
+                if (types == null || !types.contains(serviceType.getName())) {
+                    LOG.finest(() -> "Service file not indexed, using ServiceLoader: " + serviceFile);
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            LOG.log(Level.FINEST, e, () -> "Failed to check service files of " + serviceType.getName());
+            return false;
+        }
+    }
+
+    @Override
+    public <T> Optional<T> getService(Class<T> serviceType) {
+        @SuppressWarnings("unchecked") // singletons only map a type to an Optional of this type
+        Optional<T> cached = (Optional<T>) singletons.get(serviceType);
+        if (cached == null) {
+            if (isIndexed(serviceType)) {
+                cached = Optional.ofNullable(getServiceWithHighestPriority(serviceType));
+            } else {
+                cached = fallbackContext.getService(serviceType);
+            }
+            singletons.put(serviceType, cached);
+        }
+        return cached;
+    }
+
+    @Override
+    public <T> List<T> getServices(Class<T> serviceType) {
+        @SuppressWarnings("unchecked") // servicesLoaded only maps a type to a list of this type
+        List<T> found = (List<T>) servicesLoaded.get(serviceType);
+        if (found != null) {
+            return found;
+        }
+        List<T> services;
+        if (isIndexed(serviceType)) {
+            services = new ArrayList<>();
+            for (IndexEntry entry : index.getOrDefault(serviceType.getName(), Collections.emptyList())) {
+                T service = getInstance(entry, serviceType);
+                if (service != null && !services.contains(service)) {
+                    services.add(service);
+                }
+            }
+            services = Collections.unmodifiableList(services);
+        } else {
+            services = fallbackContext.getServices(serviceType);
+        }
+        @SuppressWarnings("unchecked") // servicesLoaded only maps a type to a list of this type
+        final List<T> previousServices = (List<T>) servicesLoaded.putIfAbsent(serviceType, services);
+        return previousServices != null ? previousServices : services;
+    }
+
+    /**
+     * Selects the implementation with the highest priority from the index and instantiates only this one.
+     *
+     * @param serviceType the service type, not null.
+     * @param <T>         the type of the service
+     * @return the service, or null, if no implementation is registered.
+     * @throws ConfigException if there are multiple service implementations with the maximum priority
+     */
+    private <T> T getServiceWithHighestPriority(Class<T> serviceType) {
+        List<IndexEntry> entries = index.getOrDefault(serviceType.getName(), Collections.emptyList());
+        IndexEntry highest = null;
+        int highestPriorityServiceCount = 0;
+        for (IndexEntry entry : entries) {
+            if (highest == null || highest.priority < entry.priority) {
+                highest = entry;
+                highestPriorityServiceCount = 1;
+            } else if (highest.priority == entry.priority) {
+                highestPriorityServiceCount++;
+            }
+        }
+        if (highestPriorityServiceCount > 1) {
+            throw new ConfigException(MessageFormat.format("Found {0} implementations for Service {1} with Priority {2}: {3}",
+                                                           highestPriorityServiceCount,
+                                                           serviceType.getName(),
+                                                           highest.priority,
+                                                           entries));
+        }
+        return highest == null ? null : getInstance(highest, serviceType);
+    }
+
+    /**
+     * Access the instance of an implementation, creating it on first access. Instances are shared between
+     * {@link #getService(Class)} and {@link #getServices(Class)}. Instances are created outside of the map, as
+     * their constructors may access this context, e.g. a {@link DefaultConfigurationProvider} loading the
+     * PropertySources. If created concurrently, only the first instance stored is shared.
+     *
+     * @param entry       the index entry, not null.
+     * @param serviceType the service type, not null.
+     * @param <T>         the type of the service
+     * @return the instance, or null, if it could not be created.
+     */
+    private <T> T getInstance(IndexEntry entry, Class<T> serviceType) {
+        Object instance = instances.get(entry.className);
+        if (instance == null) {
+            instance = BootstrapTracer.trace("service", entry.className,
+                    () -> newInstance(entry.className, serviceType));
+            if (instance == null) {
+                return null;
+            }
+            Object previous = instances.putIfAbsent(entry.className, instance);
+            if (previous != null) {
+                instance = previous;
+            }
+        }
+        return serviceType.cast(instance);
+    }
+
+    /**
+     * Creates an instance of an implementation using its public default constructor.
+     *
+     * @param className   the implementation's class name, not null.
+     * @param serviceType the service type, not null.
+     * @return the instance, or null, if it could not be created.
+     */
+    private Object newInstance(String className, Class<?> serviceType) {
+        try {
+            return Class.forName(className, true, classLoader).getConstructor().newInstance();
+        } catch (Exception e) {
+            LOG.log(Level.WARNING, "Error loading services current type " + serviceType, e);
+            return null;
+        }
+    }
+
+    /**
+     * An implementation listed in the index.
+     */
+    private static final class IndexEntry {
+        final String className;
+        final int priority;
+
+        IndexEntry(String className, int priority) {
+            this.className = className;
+            this.priority = priority;
+        }
+
+        @Override
+        public String toString() {
+            return className + ':' + priority;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Immutable index over a key space, sorted by key, so the keys starting with a given prefix form a contiguous
+ * range. {@link #getSection(String)} therefore returns a view in O(log n), iterating it costs O(k) for the k keys of
+ * the section, whereas {@link #getChildKeys(String)} skips the keys below each child and costs O(c log n) for c
+ * child keys.
+ * This class is thread-safe.
+ */
+final class PrefixIndex {
+
+    /** The indexed properties. */
+    private final NavigableMap<String, String> properties;
+
+    /**
+     * Creates a new index.
+     *
+     * @param properties the properties to be indexed, not null. The map is copied.
+     */
+    PrefixIndex(Map<String, String> properties) {
+        this.properties = Collections.unmodifiableNavigableMap(new TreeMap<>(properties));
+    }
+
+    /**
+     * Access the properties whose keys start with the given prefix.
+     *
+     * @param prefix the prefix, not null. An empty prefix selects all properties.
+     * @return an unmodifiable view, sorted by key, never null.
+     */
+    NavigableMap<String, String> getSection(String prefix) {
+        return section(properties, prefix);
+    }
+
+    /**
+     * Evaluates the names of the direct children of the given prefix, which are the parts of the keys following the
+     * prefix up to the next {@code '.'}.
+     *
+     * @param prefix the prefix, not null, e.g. {@code "db."}.
+     * @return the unmodifiable, sorted names of the children, never null.
+     */
+    Set<String> getChildKeys(String prefix) {
+        return childKeys(properties, prefix);
+    }
+
+    /**
+     * Access the properties whose keys start with the given prefix.
+     *
+     * @param properties the properties, not null.
+     * @param prefix     the prefix, not null.
+     * @return an unmodifiable view, never null.
+     */
+    static NavigableMap<String, String> section(NavigableMap<String, String> properties, String prefix) {
+        if (prefix.isEmpty()) {
+            return properties;
+        }
+        String end = successor(prefix);
+        return Collections.unmodifiableNavigableMap(end == null ? properties.tailMap(prefix, true) :
+                properties.subMap(prefix, true, end, false));
+    }
+
+    /**
+     * Evaluates the names of the direct children of the given prefix. After each child found, the search continues
+     * after all keys starting with the child's name followed by a {@code '.'}.
+     *
+     * @param properties the properties, not null.
+     * @param prefix     the prefix, not null.
+     * @return the unmodifiable, sorted names of the children, never null.
+     */
+    static Set<String> childKeys(NavigableMap<String, String> properties, String prefix) {
+        Set<String> children = new TreeSet<>();
+        SortedMap<String, String> section = section(properties, prefix);
+        String key = section.isEmpty() ? null : section.firstKey();
+        while (key != null) {
+            int separator = key.indexOf('.', prefix.length());
+            if (separator < 0) {
+                children.add(key.substring(prefix.length()));
+                key = properties.higherKey(key);
+            } else {
+                children.add(key.substring(prefix.length(), separator));
+                String end = successor(key.substring(0, separator + 1));
+                key = end == null ? null : properties.ceilingKey(end);
+            }
+            if (key != null && !key.startsWith(prefix)) {
+                key = null;
+            }
+        }
+        return Collections.unmodifiableSet(children);
+    }
+
+    /**
+     * Evaluates the smallest String greater than all Strings starting with the given prefix.
+     *
+     * @param prefix the prefix, not null.
+     * @return the successor, or null, if there is no such String.
+     */
+    private static String successor(String prefix) {
+        int i = prefix.length() - 1;
+        while (i >= 0 && prefix.charAt(i) == Character.MAX_VALUE) {
+            i--;
+        }
+        if (i < 0) {
+            return null;
+        }
+        return prefix.substring(0, i) + (char) (prefix.charAt(i) + 1);
+    }
+
+    @Override
+    public String toString() {
+        return "PrefixIndex{" +
+                "size=" + properties.size() +
+                '}';
+    }
+}
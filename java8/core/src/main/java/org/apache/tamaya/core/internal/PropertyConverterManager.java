@@ -18,6 +18,10 @@
  */
 package org.apache.tamaya.core.internal;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
@@ -29,9 +33,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.StampedLock;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Logger;
 
 import org.apache.tamaya.ConfigException;
@@ -42,16 +44,25 @@ import org.apache.tamaya.spi.ServiceContext;
 
 /**
  * Manager that deals with {@link org.apache.tamaya.PropertyConverter} instances.
- * This class is thread-safe.
+ * This class is thread-safe. Registrations publish an immutable copy of the registry, so lookups are lock-free.
  */
 public class PropertyConverterManager {
     /** The logger used. */
     private static final Logger LOG = Logger.getLogger(PropertyConverterManager.class.getName());
-    /** The registered converters. */
-    private Map<TypeLiteral<?>, List<PropertyConverter<?>>> converters = new ConcurrentHashMap<>();
-    /** The lock used. */
-    private StampedLock lock = new StampedLock();
+    /**
+     * The registered converters. The referenced map is never modified, writers publish an updated copy instead, so
+     * readers do not need any locking.
+     */
+    private final AtomicReference<Map<TypeLiteral<?>, List<PropertyConverter<?>>>> converters =
+            new AtomicReference<>(Collections.emptyMap());
     private static final String CHAR_NULL_ERROR = "Cannot convert null property";
+    /** The factories resolved for types without registered converters, including types without any factory. */
+    private static final ClassValue<DefaultFactory> DEFAULT_FACTORIES = new ClassValue<DefaultFactory>() {
+        @Override
+        protected DefaultFactory computeValue(Class<?> type) {
+            return resolveDefaultFactory(type);
+        }
+    };
     /**
      * Constructor.
      */
@@ -69,16 +80,32 @@ public class PropertyConverterManager {
      * Registers the default converters provided out of the box.
      */
     protected void initConverters() {
-        for(PropertyConverter conv: ServiceContext.getInstance().getServices(PropertyConverter.class)){
-            ParameterizedType type = ReflectionUtil.getParametrizedType(conv.getClass());
-            if(type==null || type.getActualTypeArguments().length==0){
-                LOG.warning(() -> "Failed to register PropertyConverter, no generic type information available: " +
-                        conv.getClass().getName());
-            } else {
-                Type targetType = type.getActualTypeArguments()[0];
-                register(TypeLiteral.of(targetType), conv);
-            }
+        List<PropertyConverter<?>> propertyConverters = new ArrayList<>();
+        for (PropertyConverter<?> conv : ServiceContext.getInstance().getServices(PropertyConverter.class)) {
+            propertyConverters.add(conv);
         }
+        BootstrapTracer.run("converters", "register", () -> {
+            for(PropertyConverter<?> conv: propertyConverters){
+                ParameterizedType type = ReflectionUtil.getParametrizedType(conv.getClass());
+                if(type==null || type.getActualTypeArguments().length==0){
+                    LOG.warning(() -> "Failed to register PropertyConverter, no generic type information available: " +
+                            conv.getClass().getName());
+                } else {
+                    registerService(type.getActualTypeArguments()[0], conv);
+                }
+            }
+        });
+    }
+
+    /**
+     * Registers a converter loaded as service for the type argument declared by its class.
+     *
+     * @param targetType the converter's type argument, not null.
+     * @param converter  the converter, not null.
+     */
+    @SuppressWarnings("unchecked") // the target type was read from the converter's class, so the types match
+    private void registerService(Type targetType, PropertyConverter<?> converter) {
+        register(TypeLiteral.of(targetType), (PropertyConverter<Object>) converter);
     }
 
     /**
@@ -90,19 +117,29 @@ public class PropertyConverterManager {
      */
     public <T> void register(TypeLiteral<T> targetType, PropertyConverter<T> converter) {
         Objects.requireNonNull(converter);
-        Lock writeLock = lock.asWriteLock();
-        try {
-            writeLock.lock();
-            List converters = List.class.cast(this.converters.get(targetType));
-            List<PropertyConverter<T>> newConverters = new ArrayList<>();
-            if (converters != null) {
-                newConverters.addAll(converters);
-            }
-            newConverters.add(converter);
-            this.converters.put(targetType, Collections.unmodifiableList(newConverters));
-        } finally {
-            writeLock.unlock();
+        converters.updateAndGet(current -> withConverter(current, targetType, converter));
+    }
+
+    /**
+     * Creates a copy of the given registry, with the given converter appended to the converters of its type.
+     *
+     * @param current    the current registry, not null.
+     * @param targetType the target type, not null.
+     * @param converter  the converter, not null.
+     * @return the new, unmodifiable registry.
+     */
+    private static Map<TypeLiteral<?>, List<PropertyConverter<?>>> withConverter(
+            Map<TypeLiteral<?>, List<PropertyConverter<?>>> current, TypeLiteral<?> targetType,
+            PropertyConverter<?> converter) {
+        Map<TypeLiteral<?>, List<PropertyConverter<?>>> newRegistry = new HashMap<>(current);
+        List<PropertyConverter<?>> converters = current.get(targetType);
+        List<PropertyConverter<?>> newConverters = new ArrayList<>();
+        if (converters != null) {
+            newConverters.addAll(converters);
         }
+        newConverters.add(converter);
+        newRegistry.put(targetType, Collections.unmodifiableList(newConverters));
+        return Collections.unmodifiableMap(newRegistry);
     }
 
     /**
@@ -112,7 +149,7 @@ public class PropertyConverterManager {
      * @return true, if a converter for the given type is registered, or a default one can be created.
      */
     public boolean isTargetTypeSupported(TypeLiteral<?> targetType) {
-        return converters.containsKey(targetType)
+        return converters.get().containsKey(targetType)
                 || createDefaultPropertyConverter(targetType) != null;
     }
 
@@ -125,19 +162,14 @@ public class PropertyConverterManager {
      * @see #createDefaultPropertyConverter(org.apache.tamaya.TypeLiteral)
      */
     public Map<TypeLiteral<?>, List<PropertyConverter<?>>> getPropertyConverters() {
-        Lock readLock = lock.asReadLock();
-        try {
-            readLock.lock();
-            return new HashMap<>(this.converters);
-        } finally {
-            readLock.unlock();
-        }
+        return new HashMap<>(this.converters.get());
     }
 
     /**
      * Get the list of all current registered converters for the given target type.
      * If not converters are registered, they component tries to create and register a dynamic
-     * converter based on String costructor or static factory methods available.
+     * converter based on String costructor or static factory methods available. Reading registered converters
+     * does not acquire any lock.
      *
      * @param targetType the target type, not null.
      * @param <T>        the type class
@@ -145,35 +177,38 @@ public class PropertyConverterManager {
      * @see #createDefaultPropertyConverter(org.apache.tamaya.TypeLiteral)
      */
     public <T> List<PropertyConverter<T>> getPropertyConverters(TypeLiteral<T> targetType) {
-        Lock readLock = lock.asReadLock();
-        List<PropertyConverter<T>> converters;
-        try {
-            readLock.lock();
-            converters = List.class.cast(this.converters.get(targetType));
-        } finally {
-            readLock.unlock();
-        }
+        List<PropertyConverter<T>> converters = convertersOf(this.converters.get(), targetType);
         if (converters != null) {
             return converters;
         }
         PropertyConverter<T> defaultConverter = createDefaultPropertyConverter(targetType);
         if (defaultConverter != null) {
-            register(targetType, defaultConverter);
-            try {
-                readLock.lock();
-                converters = List.class.cast(this.converters.get(targetType));
-            } finally {
-                readLock.unlock();
-            }
-        }
-        if (converters != null) {
-            return converters;
+            // only register the default converter, if no other thread registered a converter in the meantime
+            Map<TypeLiteral<?>, List<PropertyConverter<?>>> registry = this.converters.updateAndGet(
+                    current -> current.containsKey(targetType) ? current :
+                            withConverter(current, targetType, defaultConverter));
+            return convertersOf(registry, targetType);
         }
         return Collections.emptyList();
     }
 
     /**
-     * Creates a dynamic PropertyConverter for the given target type.
+     * Access the converters registered for the given type.
+     *
+     * @param registry   the registry, not null.
+     * @param targetType the target type, not null.
+     * @param <T>        the type.
+     * @return the converters, or null.
+     */
+    @SuppressWarnings("unchecked") // the registry only maps a type to converters of this type, see withConverter
+    private static <T> List<PropertyConverter<T>> convertersOf(Map<TypeLiteral<?>, List<PropertyConverter<?>>> registry,
+                                                             TypeLiteral<T> targetType) {
+        return (List<PropertyConverter<T>>) (List<?>) registry.get(targetType);
+    }
+
+    /**
+     * Creates a dynamic PropertyConverter for the given target type. The factory method or String constructor used
+     * is resolved only once per type into a {@link MethodHandle}, also types without any factory are remembered.
      *
      * @param targetType the target type
      * @param <T>        the type class
@@ -183,42 +218,58 @@ public class PropertyConverterManager {
         if(Enum.class.isAssignableFrom(targetType.getRawType())){
             return new EnumConverter<T>(targetType.getRawType());
         }
-        PropertyConverter<T> converter = null;
-        Method factoryMethod = getFactoryMethod(targetType.getRawType(), "of", "valueOf", "instanceOf", "getInstance", "from", "fromString", "parse");
-        if (factoryMethod != null) {
-            converter = (value) -> {
-                    try {
-                        if (!Modifier.isStatic(factoryMethod.getModifiers())) {
-                            throw new RuntimeException(factoryMethod.toGenericString() +
-                                                       " is not a static method. Only static " +
-                                                       "methods can be used as factory methods.");
-                        }
-
-                        factoryMethod.setAccessible(true);
-
-                        Object invoke = factoryMethod.invoke(null, value);
-                        return targetType.getRawType().cast(invoke);
-                    } catch (Exception e) {
-                        throw new ConfigException("Failed to decode '" + value + "'", e);
-                    }
-            };
+        Class<T> rawType = targetType.getRawType();
+        DefaultFactory factory = DEFAULT_FACTORIES.get(rawType);
+        if (factory == DefaultFactory.NONE) {
+            return null;
         }
-        if (converter == null) {
+        return (value) -> rawType.cast(factory.create(value));
+    }
+
+    /**
+     * Resolves the factory to be used for creating instances of the given type from a String. Hereby static factory
+     * methods are preferred over a String constructor.
+     *
+     * @param type the target type, not null.
+     * @return the factory, or {@link DefaultFactory#NONE}.
+     */
+    private static DefaultFactory resolveDefaultFactory(Class<?> type) {
+        Method factoryMethod = getFactoryMethod(type, "of", "valueOf", "instanceOf", "getInstance", "from", "fromString", "parse");
+        if (factoryMethod != null) {
+            if (!Modifier.isStatic(factoryMethod.getModifiers())) {
+                return new DefaultFactory(null, factoryMethod.toGenericString() +
+                        " is not a static method. Only static " +
+                        "methods can be used as factory methods.");
+            }
             try {
-                Constructor<T> constr = targetType.getRawType().getDeclaredConstructor(String.class);
-                converter = (value) -> {
-                    try {
-                        constr.setAccessible(true);
-                        return constr.newInstance(value);
-                    } catch (Exception e) {
-                        throw new ConfigException("Failed to decode '" + value + "'", e);
-                    }
-                };
-            } catch (Exception e) {
-                LOG.finest(() -> "Failed to construct instance of type: " + targetType.getRawType().getName()+": " + e);
+                setAccessible(factoryMethod);
+                return new DefaultFactory(MethodHandles.lookup().unreflect(factoryMethod), null);
+            } catch (IllegalAccessException e) {
+                return new DefaultFactory(null, "Factory method not accessible: " + factoryMethod.toGenericString());
             }
         }
-        return converter;
+        try {
+            Constructor<?> constr = type.getDeclaredConstructor(String.class);
+            setAccessible(constr);
+            return new DefaultFactory(MethodHandles.lookup().unreflectConstructor(constr), null);
+        } catch (Exception e) {
+            LOG.finest(() -> "Failed to construct instance of type: " + type.getName()+": " + e);
+        }
+        return DefaultFactory.NONE;
+    }
+
+    /**
+     * Tries to make the given member accessible. If this is not permitted, accessing it may still succeed for
+     * public members.
+     *
+     * @param member the member, not null.
+     */
+    private static void setAccessible(AccessibleObject member) {
+        try {
+            member.setAccessible(true);
+        } catch (RuntimeException e) {
+            LOG.finest(() -> "Cannot make accessible: " + member + ": " + e);
+        }
     }
 
     /**
@@ -228,7 +279,7 @@ public class PropertyConverterManager {
      * @param methodNames the possible static method names
      * @return the first method found, or null.
      */
-    private Method getFactoryMethod(Class<?> type, String... methodNames) {
+    private static Method getFactoryMethod(Class<?> type, String... methodNames) {
         Method m;
         for (String name : methodNames) {
             try {
@@ -241,4 +292,34 @@ public class PropertyConverterManager {
         return null;
     }
 
+    /**
+     * Factory method or String constructor resolved for a type, or the error why the factory found cannot be used.
+     */
+    private static final class DefaultFactory {
+        /** Marker for types without any factory. */
+        static final DefaultFactory NONE = new DefaultFactory(null, null);
+        /** The handle, taking a String and returning an Object. */
+        private final MethodHandle handle;
+        /** The error reported, when the factory is not usable. */
+        private final String error;
+
+        DefaultFactory(MethodHandle handle, String error) {
+            this.handle = handle == null ? null : handle.asType(MethodType.methodType(Object.class, String.class));
+            this.error = error;
+        }
+
+        Object create(String value) {
+            try {
+                if (handle == null) {
+                    throw new RuntimeException(error);
+                }
+                return (Object) handle.invokeExact(value);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new ConfigException("Failed to decode '" + value + "'", e);
+            }
+        }
+    }
+
 }
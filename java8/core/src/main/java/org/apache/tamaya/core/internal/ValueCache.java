@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Bounded cache of final (combined and filtered) configuration values, as evaluated by
+ * {@link DefaultConfiguration#get(String)}. Also keys without a value are cached. The cache is owned by a
+ * {@link DefaultConfigurationContext}, which invalidates it whenever it publishes a new {@link ConfigurationSnapshot},
+ * i.e. when its PropertySources are changed or one of its
+ * {@link org.apache.tamaya.core.propertysource.ObservablePropertySource}s reports a change. Sources only detecting
+ * changes on read access, like the {@link org.apache.tamaya.core.propertysource.SystemPropertySource} with the
+ * {@code hash} strategy, are asked to check for changes by the context before cached values are read. Other
+ * PropertySources are assumed to be static.
+ * <p>
+ * Each entry is tagged with the epoch of the snapshot it was evaluated from and is only returned for lookups of
+ * the same epoch. Values evaluated from older snapshots are not stored, so stale values never survive an
+ * invalidation.
+ * </p>
+ * This class is thread-safe.
+ */
+public final class ValueCache {
+    /** The logger used. */
+    private static final Logger LOG = Logger.getLogger(ValueCache.class.getName());
+    /** System property to enable the cache for new {@link DefaultConfigurationContext} instances. */
+    public static final String ENABLED_PROPERTY = "tamaya.core.valueCache.enabled";
+    /** System property to define the maximal number of entries cached. */
+    public static final String MAX_SIZE_PROPERTY = "tamaya.core.valueCache.maxSize";
+    /** The default maximal number of entries cached. */
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    /** The cached values. */
+    private final Map<String, Entry> values = new ConcurrentHashMap<>();
+    /** The current epoch, updated on each invalidation. */
+    private final AtomicLong epoch = new AtomicLong();
+    /** The number of cache hits. */
+    private final LongAdder hits = new LongAdder();
+    /** The number of cache misses. */
+    private final LongAdder misses = new LongAdder();
+    /** The maximal number of entries. */
+    private final int maxSize;
+    /** Flag, if the cache is currently active. */
+    private volatile boolean enabled;
+
+    /**
+     * Creates a new cache, configured by the system properties {@link #ENABLED_PROPERTY} and
+     * {@link #MAX_SIZE_PROPERTY}.
+     */
+    ValueCache() {
+        this(Boolean.getBoolean(ENABLED_PROPERTY), Integer.getInteger(MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE));
+    }
+
+    /**
+     * Creates a new cache.
+     *
+     * @param enabled flag, if the cache is active.
+     * @param maxSize the maximal number of entries, &gt; 0.
+     */
+    public ValueCache(boolean enabled, int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be > 0: " + maxSize);
+        }
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Access the cached value for the given key.
+     *
+     * @param key   the key, not null.
+     * @param epoch the epoch of the snapshot evaluated.
+     * @return the cached value (an empty Optional, if the key has no value), or {@code null}, if the key is not
+     * cached for the given epoch.
+     */
+    public Optional<String> get(String key, long epoch) {
+        Entry entry = values.get(key);
+        if (entry == null || entry.epoch != epoch) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    /**
+     * Caches the value evaluated for a key. The value is ignored, if the cache has already been invalidated for a
+     * newer epoch. If the cache is full, a single entry is evicted.
+     *
+     * @param key   the key, not null.
+     * @param value the final value, may be null.
+     * @param epoch the epoch of the snapshot the value was evaluated from.
+     */
+    public void put(String key, String value, long epoch) {
+        if (this.epoch.get() != epoch) {
+            return;
+        }
+        if (values.size() >= maxSize && !values.containsKey(key)) {
+            evictOne();
+        }
+        values.put(key, new Entry(epoch, Optional.ofNullable(value)));
+    }
+
+    /**
+     * Evicts an arbitrary entry, so a full cache keeps serving the remaining entries.
+     */
+    private void evictOne() {
+        Iterator<String> keys = values.keySet().iterator();
+        if (keys.hasNext()) {
+            String evicted = keys.next();
+            keys.remove();
+            LOG.finest(() -> "Value cache full, evicted: " + evicted);
+        }
+    }
+
+    /**
+     * Removes all cached entries and only accepts entries of the given epoch (or newer) from now on.
+     *
+     * @param epoch the new epoch.
+     */
+    public void invalidate(long epoch) {
+        this.epoch.accumulateAndGet(epoch, Math::max);
+        values.clear();
+    }
+
+    /**
+     * Removes all cached entries.
+     */
+    public void clear() {
+        values.clear();
+    }
+
+    /**
+     * Allows to check if the cache is active.
+     *
+     * @return true, if values are cached.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Activates or deactivates the cache. The cache is cleared in both cases.
+     *
+     * @param enabled the new state.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        clear();
+    }
+
+    /**
+     * Get the number of lookups served from the cache.
+     *
+     * @return the hit count.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of lookups not served from the cache.
+     *
+     * @return the miss count.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the number of entries currently cached.
+     *
+     * @return the current size.
+     */
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * Get the maximal number of entries cached.
+     *
+     * @return the maximal size.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public String toString() {
+        return "ValueCache{" +
+                "enabled=" + enabled +
+                ", size=" + values.size() +
+                ", maxSize=" + maxSize +
+                ", hits=" + hits.sum() +
+                ", misses=" + misses.sum() +
+                '}';
+    }
+
+    /**
+     * A cached value, tagged with the epoch it was evaluated from.
+     */
+    private static final class Entry {
+        final long epoch;
+        final Optional<String> value;
+
+        Entry(long epoch, Optional<String> value) {
+            this.epoch = epoch;
+            this.value = value;
+        }
+    }
+}
@@ -21,7 +21,6 @@ package org.apache.tamaya.core.internal.converters;
 import org.apache.tamaya.PropertyConverter;
 
 import javax.annotation.CheckForNull;
-import java.util.Locale;
 import java.util.Objects;
 import java.util.logging.Logger;
 
@@ -43,26 +42,30 @@ public class BooleanConverter implements PropertyConverter<Boolean> {
     @Override
     @CheckForNull
     public Boolean convert(String value) {
-        String ignoreCaseValue = Objects.requireNonNull(value)
-                                        .trim()
-                                        .toLowerCase(Locale.ENGLISH);
+        Boolean result = parseBoolean(value);
+        if (result == null) {
+            LOG.warning("Unknown boolean value encountered: " + value);
+        }
+        return result;
+    }
 
-        switch(ignoreCaseValue) {
-            case "yes":
-            case "y":
-            case "true":
-            case "t":
-            case "1":
-                return Boolean.TRUE;
-            case "no":
-            case "n":
-            case "false":
-            case "f":
-            case "0":
-                return Boolean.FALSE;
-            default:
-                LOG.warning("Unknown boolean value encountered: " + value);
-                return null;
+    /**
+     * Parses the given value, ignoring case, without creating any intermediate objects.
+     *
+     * @param value the value, not null.
+     * @return {@link Boolean#TRUE}, {@link Boolean#FALSE}, or null, if the value is not a known boolean value.
+     */
+    @CheckForNull
+    public static Boolean parseBoolean(String value) {
+        String trimmed = Objects.requireNonNull(value).trim();
+        if ("yes".equalsIgnoreCase(trimmed) || "y".equalsIgnoreCase(trimmed) || "true".equalsIgnoreCase(trimmed)
+                || "t".equalsIgnoreCase(trimmed) || "1".equals(trimmed)) {
+            return Boolean.TRUE;
+        }
+        if ("no".equalsIgnoreCase(trimmed) || "n".equalsIgnoreCase(trimmed) || "false".equalsIgnoreCase(trimmed)
+                || "f".equalsIgnoreCase(trimmed) || "0".equals(trimmed)) {
+            return Boolean.FALSE;
         }
+        return null;
     }
 }
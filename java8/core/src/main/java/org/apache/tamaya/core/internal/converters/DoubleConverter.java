@@ -20,7 +20,6 @@ package org.apache.tamaya.core.internal.converters;
 
 import org.apache.tamaya.PropertyConverter;
 
-import java.util.Locale;
 import java.util.Objects;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -33,39 +32,49 @@ import java.util.logging.Logger;
 public class DoubleConverter implements PropertyConverter<Double>{
     /** The logger. */
     private static final Logger LOG = Logger.getLogger(DoubleConverter.class.getName());
-    /** The converter used, when floating point parse failed. */
-    private LongConverter integerConverter = new LongConverter();
 
     @Override
     public Double convert(String value) {
+        try {
+            return parseDouble(value);
+        } catch (NumberFormatException e) {
+            LOG.log(Level.INFO, e, () -> "Unexpected error from LongConverter for " + value);
+            return null;
+        }
+    }
+
+    /**
+     * Parses the given value to a primitive double, without creating any intermediate objects for values in
+     * floating point notation.
+     *
+     * @param value the value, not null.
+     * @return the parsed value.
+     * @throws NumberFormatException if the value is neither a valid floating point, nor a valid integral number.
+     */
+    public static double parseDouble(String value) {
         String trimmed = Objects.requireNonNull(value).trim();
-        switch(trimmed.toUpperCase(Locale.ENGLISH)){
-            case "POSITIVE_INFINITY":
-                return Double.POSITIVE_INFINITY;
-            case "NEGATIVE_INFINITY":
-                return Double.NEGATIVE_INFINITY;
-            case "NAN":
-                return Double.NaN;
-            case "MIN_VALUE":
-            case "MIN":
-                return Double.MIN_VALUE;
-            case "MAX_VALUE":
-            case "MAX":
-                return Double.MAX_VALUE;
-            default:
-                try {
-                    return Double.valueOf(trimmed);
-                } catch(Exception e){
-                    // OK perhaps we have an integral number that must be converted to the double type...
-                    LOG.log(Level.FINER, e, () -> "Parsing of double as floating number failed, trying parsing integral" +
-                            " number instead...");
-                }
-                try{
-                    return integerConverter.convert(trimmed).doubleValue();
-                } catch(Exception e){
-                    LOG.log(Level.INFO, e, () -> "Unexpected error from LongConverter for " + trimmed);
-                    return null;
-                }
+        if ("POSITIVE_INFINITY".equalsIgnoreCase(trimmed)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if ("NEGATIVE_INFINITY".equalsIgnoreCase(trimmed)) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        if ("NAN".equalsIgnoreCase(trimmed)) {
+            return Double.NaN;
+        }
+        if ("MIN_VALUE".equalsIgnoreCase(trimmed) || "MIN".equalsIgnoreCase(trimmed)) {
+            return Double.MIN_VALUE;
+        }
+        if ("MAX_VALUE".equalsIgnoreCase(trimmed) || "MAX".equalsIgnoreCase(trimmed)) {
+            return Double.MAX_VALUE;
+        }
+        try {
+            return Double.parseDouble(trimmed);
+        } catch (NumberFormatException e) {
+            // OK perhaps we have an integral number that must be converted to the double type...
+            LOG.log(Level.FINER, e, () -> "Parsing of double as floating number failed, trying parsing integral" +
+                    " number instead...");
         }
+        return LongConverter.parseLong(trimmed);
     }
 }
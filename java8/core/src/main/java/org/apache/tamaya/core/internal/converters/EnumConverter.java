@@ -21,7 +21,9 @@ package org.apache.tamaya.core.internal.converters;
 import org.apache.tamaya.ConfigException;
 import org.apache.tamaya.PropertyConverter;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.Objects;
 import java.util.logging.Logger;
@@ -33,7 +35,7 @@ import java.util.logging.Logger;
 public class EnumConverter<T> implements PropertyConverter<T> {
     private Logger LOG = Logger.getLogger(EnumConverter.class.getName());
     private Class<T> enumType;
-    private Method factory;
+    private MethodHandle factory;
 
     public EnumConverter(Class<T> enumType) {
         if (!Enum.class.isAssignableFrom(enumType)) {
@@ -41,8 +43,15 @@ public class EnumConverter<T> implements PropertyConverter<T> {
         }
         this.enumType = Objects.requireNonNull(enumType);
         try {
-            this.factory = enumType.getMethod("valueOf", String.class);
-        } catch (NoSuchMethodException e) {
+            Method valueOf = enumType.getMethod("valueOf", String.class);
+            try {
+                valueOf.setAccessible(true);
+            } catch (RuntimeException e) {
+                LOG.finest(() -> "Cannot make accessible: " + valueOf + ": " + e);
+            }
+            this.factory = MethodHandles.lookup().unreflect(valueOf)
+                    .asType(MethodType.methodType(Object.class, String.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
             throw new ConfigException("Uncovertible enum type without valueOf method found, please provide a custom " +
                     "PropertyConverter for: " + enumType.getName());
         }
@@ -51,8 +60,10 @@ public class EnumConverter<T> implements PropertyConverter<T> {
     @Override
     public T convert(String value) {
         try {
-            return (T) factory.invoke(null, value);
-        } catch (InvocationTargetException | IllegalAccessException e) {
+            return enumType.cast((Object) factory.invokeExact(value));
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
             throw new ConfigException("Invalid enum value '" + value + "' for " + enumType.getName(), e);
         }
     }
@@ -20,7 +20,6 @@ package org.apache.tamaya.core.internal.converters;
 
 import org.apache.tamaya.PropertyConverter;
 
-import java.util.Locale;
 import java.util.Objects;
 
 /**
@@ -44,16 +43,52 @@ public class IntegerConverter implements PropertyConverter<Integer>{
 
     @Override
     public Integer convert(String value) {
+        return parseInt(value);
+    }
+
+    /**
+     * Parses the given value to a primitive int, without creating any intermediate objects for values in plain
+     * decimal notation.
+     *
+     * @param value the value, not null.
+     * @return the parsed value.
+     * @throws NumberFormatException if the value is not a valid integer.
+     */
+    public static int parseInt(String value) {
         String trimmed = Objects.requireNonNull(value).trim();
-        switch(trimmed.toUpperCase(Locale.ENGLISH)){
-            case "MIN_VALUE":
-            case "MIN":
-                return Integer.MIN_VALUE;
-            case "MAX_VALUE":
-            case "MAX":
-                return Integer.MAX_VALUE;
-            default:
-                return Integer.decode(trimmed);
+        if ("MIN_VALUE".equalsIgnoreCase(trimmed) || "MIN".equalsIgnoreCase(trimmed)) {
+            return Integer.MIN_VALUE;
+        }
+        if ("MAX_VALUE".equalsIgnoreCase(trimmed) || "MAX".equalsIgnoreCase(trimmed)) {
+            return Integer.MAX_VALUE;
+        }
+        if (isPlainDecimal(trimmed)) {
+            return Integer.parseInt(trimmed);
+        }
+        return Integer.decode(trimmed);
+    }
+
+    /**
+     * Checks if the given value is a decimal number without radix prefix or leading zeros, so parsing it yields
+     * the same result as decoding it.
+     *
+     * @param value the trimmed value, not null.
+     * @return true, if the value is a plain decimal number.
+     */
+    static boolean isPlainDecimal(String value) {
+        int start = 0;
+        if (!value.isEmpty() && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+            start = 1;
+        }
+        if (value.length() <= start || (value.charAt(start) == '0' && value.length() > start + 1)) {
+            return false;
+        }
+        for (int i = start; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch < '0' || ch > '9') {
+                return false;
+            }
         }
+        return true;
     }
 }
@@ -20,7 +20,6 @@ package org.apache.tamaya.core.internal.converters;
 
 import org.apache.tamaya.PropertyConverter;
 
-import java.util.Locale;
 import java.util.Objects;
 
 /**
@@ -44,16 +43,28 @@ public class LongConverter implements PropertyConverter<Long>{
 
     @Override
     public Long convert(String value) {
+        return parseLong(value);
+    }
+
+    /**
+     * Parses the given value to a primitive long, without creating any intermediate objects for values in plain
+     * decimal notation.
+     *
+     * @param value the value, not null.
+     * @return the parsed value.
+     * @throws NumberFormatException if the value is not a valid long.
+     */
+    public static long parseLong(String value) {
         String trimmed = Objects.requireNonNull(value).trim();
-        switch(trimmed.toUpperCase(Locale.ENGLISH)){
-            case "MIN_VALUE":
-            case "MIN":
-                return Long.MIN_VALUE;
-            case "MAX_VALUE":
-            case "MAX":
-                return Long.MAX_VALUE;
-            default:
-                return Long.decode(trimmed);
+        if ("MIN_VALUE".equalsIgnoreCase(trimmed) || "MIN".equalsIgnoreCase(trimmed)) {
+            return Long.MIN_VALUE;
+        }
+        if ("MAX_VALUE".equalsIgnoreCase(trimmed) || "MAX".equalsIgnoreCase(trimmed)) {
+            return Long.MAX_VALUE;
+        }
+        if (IntegerConverter.isPlainDecimal(trimmed)) {
+            return Long.parseLong(trimmed);
         }
+        return Long.decode(trimmed);
     }
 }
@@ -0,0 +1,290 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.metrics;
+
+import org.apache.tamaya.TypeLiteral;
+import org.apache.tamaya.spi.ConfigurationMetrics;
+import org.apache.tamaya.spi.PropertySource;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Default {@link ConfigurationMetrics} collecting access counts per key, latency histograms per PropertySource and
+ * overall latency histograms for key access, filtering and conversion. Counters are based on {@link LongAdder}, so
+ * concurrent request threads do not contend on a single counter. To bound the memory used, at most
+ * {@value #MAX_KEYS_PROPERTY} keys are tracked individually, further keys are only counted as untracked.
+ * This class is thread-safe.
+ */
+public class DefaultConfigurationMetrics implements ConfigurationMetrics {
+    /** System property to define the maximal number of keys tracked individually. */
+    public static final String MAX_KEYS_PROPERTY = "tamaya.core.metrics.maxKeys";
+    /** The default maximal number of keys tracked individually. */
+    public static final int DEFAULT_MAX_KEYS = 1000;
+
+    /** The statistics per key. */
+    private final Map<String, KeyStatistics> keys = new ConcurrentHashMap<>();
+    /** The latencies per PropertySource name. */
+    private final Map<String, LatencyHistogram> propertySources = new ConcurrentHashMap<>();
+    /** The latencies per conversion target type. */
+    private final Map<TypeLiteral<?>, LatencyHistogram> conversions = new ConcurrentHashMap<>();
+    /** The latencies of all key accesses. */
+    private final LatencyHistogram accessLatency = new LatencyHistogram();
+    /** The latencies of applying the filters. */
+    private final LatencyHistogram filterLatency = new LatencyHistogram();
+    /** The latencies of all conversions. */
+    private final LatencyHistogram conversionLatency = new LatencyHistogram();
+    /** The number of key accesses without a value. */
+    private final LongAdder misses = new LongAdder();
+    /** The number of failed conversions. */
+    private final LongAdder conversionFailures = new LongAdder();
+    /** The number of accesses of keys not tracked individually. */
+    private final LongAdder untrackedAccesses = new LongAdder();
+    /** The maximal number of keys tracked individually. */
+    private final int maxKeys;
+
+    /**
+     * Creates a new instance, configured by the system property {@link #MAX_KEYS_PROPERTY}.
+     */
+    public DefaultConfigurationMetrics() {
+        this(Integer.getInteger(MAX_KEYS_PROPERTY, DEFAULT_MAX_KEYS));
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param maxKeys the maximal number of keys tracked individually, &gt;= 0.
+     */
+    public DefaultConfigurationMetrics(int maxKeys) {
+        if (maxKeys < 0) {
+            throw new IllegalArgumentException("maxKeys must be >= 0: " + maxKeys);
+        }
+        this.maxKeys = maxKeys;
+    }
+
+    @Override
+    public void keyAccessed(String key, long nanos, boolean found) {
+        accessLatency.record(nanos);
+        if (!found) {
+            misses.increment();
+        }
+        KeyStatistics statistics = keys.get(key);
+        if (statistics == null) {
+            if (keys.size() >= maxKeys) {
+                untrackedAccesses.increment();
+                return;
+            }
+            statistics = keys.computeIfAbsent(key, k -> new KeyStatistics());
+        }
+        statistics.accesses.increment();
+        if (!found) {
+            statistics.misses.increment();
+        }
+    }
+
+    @Override
+    public void propertySourceAccessed(PropertySource propertySource, String key, long nanos) {
+        histogram(propertySources, propertySource.getName()).record(nanos);
+    }
+
+    @Override
+    public void filtersApplied(String key, long nanos) {
+        filterLatency.record(nanos);
+    }
+
+    @Override
+    public void valueConverted(String key, TypeLiteral<?> type, long nanos, boolean success) {
+        conversionLatency.record(nanos);
+        histogram(conversions, type).record(nanos);
+        if (!success) {
+            conversionFailures.increment();
+        }
+    }
+
+    private static <K> LatencyHistogram histogram(Map<K, LatencyHistogram> histograms, K key) {
+        LatencyHistogram histogram = histograms.get(key);
+        if (histogram == null) {
+            histogram = histograms.computeIfAbsent(key, k -> new LatencyHistogram());
+        }
+        return histogram;
+    }
+
+    /**
+     * Access the latencies of all key accesses.
+     *
+     * @return the histogram, never null.
+     */
+    public LatencyHistogram getAccessLatency() {
+        return accessLatency;
+    }
+
+    /**
+     * Access the latencies of applying the filters.
+     *
+     * @return the histogram, never null.
+     */
+    public LatencyHistogram getFilterLatency() {
+        return filterLatency;
+    }
+
+    /**
+     * Access the latencies of all conversions.
+     *
+     * @return the histogram, never null.
+     */
+    public LatencyHistogram getConversionLatency() {
+        return conversionLatency;
+    }
+
+    /**
+     * Access the latencies per PropertySource.
+     *
+     * @return the histograms by PropertySource name, never null.
+     */
+    public Map<String, LatencyHistogram> getPropertySourceLatencies() {
+        return Collections.unmodifiableMap(propertySources);
+    }
+
+    /**
+     * Access the latencies per conversion target type.
+     *
+     * @return the histograms by type, never null.
+     */
+    public Map<TypeLiteral<?>, LatencyHistogram> getConversionLatencies() {
+        return Collections.unmodifiableMap(conversions);
+    }
+
+    /**
+     * Access the number of key accesses without a value.
+     *
+     * @return the count.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Access the number of conversions failed.
+     *
+     * @return the count.
+     */
+    public long getConversionFailureCount() {
+        return conversionFailures.sum();
+    }
+
+    /**
+     * Access the number of accesses of keys not tracked individually, since {@link #getMaxKeys()} was reached.
+     *
+     * @return the count.
+     */
+    public long getUntrackedAccessCount() {
+        return untrackedAccesses.sum();
+    }
+
+    /**
+     * Access the number of accesses of a key.
+     *
+     * @param key the key, not null.
+     * @return the count, 0 if the key was never accessed or is not tracked.
+     */
+    public long getAccessCount(String key) {
+        KeyStatistics statistics = keys.get(key);
+        return statistics != null ? statistics.accesses.sum() : 0L;
+    }
+
+    /**
+     * Access the keys accessed most often.
+     *
+     * @param limit the maximal number of keys returned.
+     * @return the access counts by key, ordered by descending count, never null.
+     */
+    public Map<String, Long> getHotKeys(int limit) {
+        return top(keys, s -> s.accesses.sum(), limit);
+    }
+
+    /**
+     * Access the keys accessed most often without finding a value.
+     *
+     * @param limit the maximal number of keys returned.
+     * @return the miss counts by key, ordered by descending count, never null.
+     */
+    public Map<String, Long> getMissingKeys(int limit) {
+        return top(keys, s -> s.misses.sum(), limit);
+    }
+
+    private static <V> Map<String, Long> top(Map<String, V> values, Function<V, Long> counter, int limit) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        values.entrySet().stream()
+                .map(e -> new AbstractMap.SimpleImmutableEntry<>(e.getKey(), counter.apply(e.getValue())))
+                .filter(e -> e.getValue() > 0L)
+                .sorted(Comparator.comparing((Map.Entry<String, Long> e) -> e.getValue()).reversed())
+                .limit(limit)
+                .forEach(e -> result.put(e.getKey(), e.getValue()));
+        return result;
+    }
+
+    /**
+     * Access the maximal number of keys tracked individually.
+     *
+     * @return the maximal number of keys.
+     */
+    public int getMaxKeys() {
+        return maxKeys;
+    }
+
+    /**
+     * Resets all metrics collected. Values recorded concurrently may be lost.
+     */
+    public void reset() {
+        keys.clear();
+        propertySources.clear();
+        conversions.clear();
+        accessLatency.reset();
+        filterLatency.reset();
+        conversionLatency.reset();
+        misses.reset();
+        conversionFailures.reset();
+        untrackedAccesses.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "DefaultConfigurationMetrics{" +
+                "access=" + accessLatency +
+                ", filters=" + filterLatency +
+                ", conversion=" + conversionLatency +
+                ", misses=" + getMissCount() +
+                ", keys=" + keys.size() +
+                '}';
+    }
+
+    /**
+     * The counters of a single key.
+     */
+    private static final class KeyStatistics {
+        private final LongAdder accesses = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Low overhead histogram of latencies. Values are counted in buckets of power of two nanoseconds, so recording a
+ * value is a single atomic increment plus two {@link LongAdder} updates, whereas percentiles are only approximated
+ * by the upper bound of their bucket. This class is thread-safe.
+ */
+public final class LatencyHistogram {
+    /** The number of buckets, the last bucket takes all values from 2^(BUCKETS-2) nanoseconds. */
+    private static final int BUCKETS = 40;
+
+    /** The counts per bucket, bucket {@code i} counts values below {@code 2^i} nanoseconds. */
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    /** The number of values recorded. */
+    private final LongAdder count = new LongAdder();
+    /** The sum of all values recorded. */
+    private final LongAdder totalNanos = new LongAdder();
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos the latency in nanoseconds.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0L, nanos);
+        buckets.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value)));
+        count.increment();
+        totalNanos.add(value);
+    }
+
+    /**
+     * Access the number of values recorded.
+     *
+     * @return the count.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Access the sum of all values recorded.
+     *
+     * @return the sum in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * Access the mean of all values recorded.
+     *
+     * @return the mean in nanoseconds, or 0, if no values were recorded.
+     */
+    public long getMeanNanos() {
+        long n = count.sum();
+        return n == 0 ? 0L : totalNanos.sum() / n;
+    }
+
+    /**
+     * Approximates a percentile of the values recorded.
+     *
+     * @param percentile the percentile, e.g. {@code 0.99}, between 0 and 1.
+     * @return the upper bound of the bucket containing the percentile in nanoseconds, or 0, if no values were
+     * recorded.
+     */
+    public long getPercentileNanos(double percentile) {
+        if (percentile < 0.0 || percentile > 1.0) {
+            throw new IllegalArgumentException("percentile must be between 0 and 1: " + percentile);
+        }
+        long[] counts = new long[BUCKETS];
+        long total = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0L) {
+            return 0L;
+        }
+        long threshold = (long) Math.ceil(total * percentile);
+        long seen = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= threshold && counts[i] > 0) {
+                return i == 0 ? 0L : (1L << i) - 1;
+            }
+        }
+        return (1L << (BUCKETS - 1)) - 1;
+    }
+
+    /**
+     * Resets all values recorded. Values recorded concurrently may be lost.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0L);
+        }
+        count.reset();
+        totalNanos.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{count=" + getCount() +
+                ", mean=" + TimeUnit.NANOSECONDS.toMicros(getMeanNanos()) + "us" +
+                ", p99=" + TimeUnit.NANOSECONDS.toMicros(getPercentileNanos(0.99)) + "us}";
+    }
+}
@@ -20,22 +20,44 @@ package org.apache.tamaya.core.propertysource;
 
 import org.apache.tamaya.spi.PropertySource;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * A base class for {@link PropertySource}s. It provides a {@link #initializeOrdinal(int)} method that
  * reads the ordinal from the config source itself, allowing the ordinal to be "self-configured" by
- * the configuration read.
+ * the configuration read. Additionally change listeners can be registered, which are notified by subclasses calling
+ * {@link #firePropertiesChanged()}.
+ * <p>
+ * Subclasses must implement {@link #getProperties()}. Subclasses that can look up single keys directly should
+ * also override {@link #getValue(String)}. They may implement {@link #getProperties()} by returning
+ * {@link #getCachedProperties()}, so the map built by {@link #collectProperties()} is only materialized on first
+ * access and cached until {@link #firePropertiesChanged()} is called.
+ * </p>
  */
-public abstract class BasePropertySource implements PropertySource {
+public abstract class BasePropertySource implements ObservablePropertySource {
 
     private static final Logger LOG = Logger.getLogger(BasePropertySource.class.getName());
 
 
     private int ordinal = DefaultOrdinal.PROPERTY_SOURCE;
 
+    /**
+     * The listeners notified, when the properties of this source have changed.
+     */
+    private final List<Consumer<PropertySource>> changeListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * The properties returned by {@link #getCachedProperties()}, or null, if not yet evaluated.
+     */
+    private volatile Map<String, String> cachedProperties;
+
 
     @Override
     public int getOrdinal() {
@@ -46,9 +68,48 @@ public abstract class BasePropertySource implements PropertySource {
     @Override
     public String get(String key) {
         Objects.requireNonNull(key, "key must not be null");
+        return getValue(key);
+    }
+
+    /**
+     * Looks up the value of a single key. By default the key is looked up in {@link #getProperties()}, sources
+     * able to look up keys directly should override this method.
+     *
+     * @param key the key, not null.
+     * @return the value, or null.
+     */
+    protected String getValue(String key) {
         return getProperties().get(key);
     }
 
+    /**
+     * Access the properties returned by {@link #collectProperties()}, which are cached until
+     * {@link #firePropertiesChanged()} is called. Subclasses opt in to this cache by returning the result from
+     * {@link #getProperties()}.
+     *
+     * @return the properties, never null.
+     */
+    protected final Map<String, String> getCachedProperties() {
+        Map<String, String> properties = this.cachedProperties;
+        if (properties == null) {
+            properties = Collections.unmodifiableMap(collectProperties());
+            this.cachedProperties = properties;
+        }
+        return properties;
+    }
+
+    /**
+     * Collects all properties of this source, called by {@link #getCachedProperties()} on first access and after
+     * each change. The map returned must not be modified afterwards. Subclasses using {@link #getCachedProperties()}
+     * must override this method.
+     *
+     * @return the properties, never null.
+     * @throws UnsupportedOperationException if not overridden.
+     */
+    protected Map<String, String> collectProperties() {
+        throw new UnsupportedOperationException(getClass().getName() + " does not collect its properties.");
+    }
+
 
     /**
      * Initializing the ordinal of this {@link PropertySource} with the given defaultOrdinal.
@@ -74,4 +135,29 @@ public abstract class BasePropertySource implements PropertySource {
         }
     }
 
+    @Override
+    public void addChangeListener(Consumer<PropertySource> listener) {
+        changeListeners.add(Objects.requireNonNull(listener));
+    }
+
+    @Override
+    public void removeChangeListener(Consumer<PropertySource> listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * Notifies all registered change listeners that the properties of this source have changed. The properties
+     * cached by {@link #getProperties()} are discarded before.
+     */
+    protected void firePropertiesChanged() {
+        cachedProperties = null;
+        for (Consumer<PropertySource> listener : changeListeners) {
+            try {
+                listener.accept(this);
+            } catch (Exception e) {
+                LOG.log(Level.WARNING, "Error notifying change listener of PropertySource: " + getName(), e);
+            }
+        }
+    }
+
 }
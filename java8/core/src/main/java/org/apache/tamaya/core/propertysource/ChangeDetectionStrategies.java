@@ -0,0 +1,351 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.propertysource;
+
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Factory methods for the {@link ChangeDetectionStrategy} instances supported by the {@link SystemPropertySource}.
+ */
+public final class ChangeDetectionStrategies {
+    /** The logger used. */
+    private static final Logger LOG = Logger.getLogger(ChangeDetectionStrategies.class.getName());
+    /**
+     * System property to select the strategy used by {@link SystemPropertySource}, one of {@code hash},
+     * {@code version}, {@code throttled}, {@code periodic} or {@code manual}.
+     */
+    public static final String STRATEGY_PROPERTY = "tamaya.core.systemProperties.changeDetection";
+    /** System property to define the period of the {@code throttled} and {@code periodic} strategies in milliseconds. */
+    public static final String RESCAN_PERIOD_PROPERTY = "tamaya.core.systemProperties.rescanPeriod";
+    /** The default period of the {@code throttled} and {@code periodic} strategies in milliseconds. */
+    public static final long DEFAULT_RESCAN_PERIOD = 1000L;
+
+    /** Private constructor. */
+    private ChangeDetectionStrategies(){}
+
+    /**
+     * Creates the strategy configured by the system properties {@link #STRATEGY_PROPERTY} and
+     * {@link #RESCAN_PERIOD_PROPERTY}. By default changes are visible immediately: {@link #versionCounting()} is used
+     * if {@link VersionedProperties} are installed, {@link #hashing()} otherwise. The throttled and periodic
+     * strategies trade this visibility for cheaper reads and must be selected explicitly.
+     *
+     * @return the strategy, never null.
+     */
+    public static ChangeDetectionStrategy fromSystemProperties() {
+        String defaultStrategy = System.getProperties() instanceof VersionedProperties ? "version" : "hash";
+        String strategy = System.getProperty(STRATEGY_PROPERTY, defaultStrategy).trim().toLowerCase(Locale.ENGLISH);
+        switch (strategy) {
+            case "throttled":
+                return throttledHashing(Long.getLong(RESCAN_PERIOD_PROPERTY, DEFAULT_RESCAN_PERIOD),
+                        TimeUnit.MILLISECONDS);
+            case "periodic":
+                return periodic(Long.getLong(RESCAN_PERIOD_PROPERTY, DEFAULT_RESCAN_PERIOD), TimeUnit.MILLISECONDS);
+            case "version":
+                return versionCounting();
+            case "manual":
+                return manual();
+            case "hash":
+                return hashing();
+            default:
+                LOG.warning(() -> "Unknown change detection strategy '" + strategy + "', using 'hash'.");
+                return hashing();
+        }
+    }
+
+    /**
+     * Detects changes by comparing the hash code of the system properties on each read access. Changes are visible
+     * immediately, but each read is O(n) over all system properties.
+     *
+     * @return a new strategy, never null.
+     * @see #throttledHashing(long, TimeUnit)
+     */
+    public static ChangeDetectionStrategy hashing() {
+        return new HashingStrategy();
+    }
+
+    /**
+     * Detects changes by comparing the hash code of the system properties on read access, but at most once per
+     * period. Reads in between only compare a timestamp, changes are visible on the first read after the period
+     * has elapsed.
+     *
+     * @param period the minimal period between two checks, &gt; 0.
+     * @param unit   the period's unit, not null.
+     * @return a new strategy, never null.
+     */
+    public static ChangeDetectionStrategy throttledHashing(long period, TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("period must be > 0: " + period);
+        }
+        return new ThrottledHashingStrategy(unit.toNanos(period));
+    }
+
+    /**
+     * Rescans the system properties in the background with the given period. Read access does not perform any
+     * checks, changes are visible after the next rescan.
+     *
+     * @param period the period, &gt; 0.
+     * @param unit   the period's unit, not null.
+     * @return a new strategy, never null.
+     */
+    public static ChangeDetectionStrategy periodic(long period, TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("period must be > 0: " + period);
+        }
+        return new PeriodicStrategy(unit.toMillis(period));
+    }
+
+    /**
+     * Detects changes done through {@link System#setProperty(String, String)} and similar methods by comparing a
+     * single version number on read access. This requires {@link VersionedProperties} to be installed explicitly by
+     * {@link VersionedProperties#install()}, the strategy never replaces the system properties by itself. As long as
+     * they are not installed, e.g. also after the system properties were replaced, the strategy falls back to
+     * comparing hash codes like {@link #hashing()}.
+     *
+     * @return a new strategy, never null.
+     */
+    public static ChangeDetectionStrategy versionCounting() {
+        return new VersionCountingStrategy();
+    }
+
+    /**
+     * Never detects any changes by itself. Changes are only visible after an explicit
+     * {@link SystemPropertySource#refresh()}.
+     *
+     * @return a new strategy, never null.
+     */
+    public static ChangeDetectionStrategy manual() {
+        return new ManualStrategy();
+    }
+
+    /**
+     * Strategy comparing hash codes on read access.
+     */
+    private static final class HashingStrategy implements ChangeDetectionStrategy {
+        private volatile int previousHash;
+
+        @Override
+        public void start(Runnable refreshAction) {
+            previousHash = System.getProperties().hashCode();
+        }
+
+        @Override
+        public boolean isChanged() {
+            int hash = System.getProperties().hashCode();
+            if (hash != previousHash) {
+                previousHash = hash;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void stop() {
+            // nothing to release
+        }
+
+        @Override
+        public String toString() {
+            return "hash";
+        }
+    }
+
+    /**
+     * Strategy comparing hash codes on read access, at most once per period.
+     */
+    private static final class ThrottledHashingStrategy implements ChangeDetectionStrategy {
+        private final long periodNanos;
+        private volatile long nextCheck;
+        private volatile int previousHash;
+
+        ThrottledHashingStrategy(long periodNanos) {
+            this.periodNanos = periodNanos;
+        }
+
+        @Override
+        public void start(Runnable refreshAction) {
+            previousHash = System.getProperties().hashCode();
+            nextCheck = System.nanoTime() + periodNanos;
+        }
+
+        @Override
+        public boolean isChanged() {
+            long now = System.nanoTime();
+            if (now - nextCheck < 0) {
+                return false;
+            }
+            nextCheck = now + periodNanos;
+            int hash = System.getProperties().hashCode();
+            if (hash != previousHash) {
+                previousHash = hash;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void stop() {
+            // nothing to release
+        }
+
+        @Override
+        public String toString() {
+            return "throttled(" + TimeUnit.NANOSECONDS.toMillis(periodNanos) + "ms)";
+        }
+    }
+
+    /**
+     * Strategy rescanning in a background thread.
+     */
+    private static final class PeriodicStrategy implements ChangeDetectionStrategy {
+        private final long periodMillis;
+        private ScheduledExecutorService executor;
+
+        PeriodicStrategy(long periodMillis) {
+            this.periodMillis = periodMillis;
+        }
+
+        @Override
+        public synchronized void start(Runnable refreshAction) {
+            if (executor != null) {
+                throw new IllegalStateException("Strategy already started.");
+            }
+            executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "tamaya-system-properties-rescan");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(() -> {
+                try {
+                    refreshAction.run();
+                } catch (Exception e) {
+                    LOG.log(Level.WARNING, "Rescan of system properties failed.", e);
+                }
+            }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public boolean isChanged() {
+            return false;
+        }
+
+        @Override
+        public boolean isCheckedOnRead() {
+            return false;
+        }
+
+        @Override
+        public synchronized void stop() {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "periodic(" + periodMillis + "ms)";
+        }
+    }
+
+    /**
+     * Strategy comparing the version of installed {@link VersionedProperties}.
+     */
+    private static final class VersionCountingStrategy implements ChangeDetectionStrategy {
+        private final HashingStrategy fallback = new HashingStrategy();
+        private final AtomicBoolean fallbackReported = new AtomicBoolean();
+        private volatile Properties previousProperties;
+        private volatile long previousVersion;
+
+        @Override
+        public void start(Runnable refreshAction) {
+            fallback.start(refreshAction);
+            Properties properties = System.getProperties();
+            previousProperties = properties;
+            if (properties instanceof VersionedProperties) {
+                previousVersion = ((VersionedProperties) properties).getVersion();
+            }
+        }
+
+        @Override
+        public boolean isChanged() {
+            Properties properties = System.getProperties();
+            if (!(properties instanceof VersionedProperties)) {
+                if (!fallbackReported.getAndSet(true)) {
+                    LOG.warning("Versioned system properties are not installed, comparing hash codes instead.");
+                }
+                previousProperties = properties;
+                return fallback.isChanged();
+            }
+            long version = ((VersionedProperties) properties).getVersion();
+            if (properties != previousProperties || version != previousVersion) {
+                previousProperties = properties;
+                previousVersion = version;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void stop() {
+            // nothing to release
+        }
+
+        @Override
+        public String toString() {
+            return "version";
+        }
+    }
+
+    /**
+     * Strategy relying on explicit refreshes.
+     */
+    private static final class ManualStrategy implements ChangeDetectionStrategy {
+
+        @Override
+        public void start(Runnable refreshAction) {
+            // changes are only applied by explicit refreshes
+        }
+
+        @Override
+        public boolean isChanged() {
+            return false;
+        }
+
+        @Override
+        public void stop() {
+            // nothing to release
+        }
+
+        @Override
+        public boolean isCheckedOnRead() {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return "manual";
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.propertysource;
+
+/**
+ * Strategy used by a {@link org.apache.tamaya.spi.PropertySource} to detect changes of its underlying data, e.g.
+ * by the {@link SystemPropertySource}. Strategies either report changes synchronously on read access via
+ * {@link #isChanged()}, which must be cheap, or trigger the refresh action passed to {@link #start(Runnable)}
+ * asynchronously.
+ *
+ * @see ChangeDetectionStrategies
+ */
+public interface ChangeDetectionStrategy {
+
+    /**
+     * Binds this strategy to a source. Called once, when the source is created.
+     *
+     * @param refreshAction the action rescanning the source's data, not null.
+     */
+    void start(Runnable refreshAction);
+
+    /**
+     * Checks on read access, if the source's data must be rescanned.
+     *
+     * @return true, if the data has changed since the last check.
+     */
+    boolean isChanged();
+
+    /**
+     * Allows to check if this strategy detects changes by {@link #isChanged()} on read access. Sources using such a
+     * strategy must be asked to check for changes before values cached from them are used.
+     *
+     * @return true, if changes are detected on read access. By default true.
+     * @see ObservablePropertySource#isDetectingChangesOnRead()
+     */
+    default boolean isCheckedOnRead() {
+        return true;
+    }
+
+    /**
+     * Releases any resources held, e.g. background threads. Afterwards no more changes are detected.
+     */
+    void stop();
+}
@@ -0,0 +1,381 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.propertysource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Compact, immutable map of properties, intended for large PropertySources loaded once from files. Instead of
+ * separate objects per entry, the keys are sorted by their UTF-8 encoding and stored in a single byte array, where
+ * each key only stores the suffix not shared with its predecessor. Every {@value #BLOCK_SIZE}th key is stored
+ * completely. A lookup uses an open addressing table of the keys' hash codes to find the candidate entries and
+ * verifies a candidate by scanning its block of at most {@value #BLOCK_SIZE} keys. Values are deduplicated and
+ * returned as is, so lookups of ASCII keys do not allocate.
+ * <p>
+ * Keys are materialized as new Strings when the map is iterated, so this map trades iteration speed for memory.
+ * </p>
+ * This class is thread-safe.
+ */
+public final class CompactPropertyMap extends AbstractMap<String, String> {
+    /** The number of keys per block, the first key of each block is stored without prefix compression. */
+    static final int BLOCK_SIZE = 16;
+
+    /** The entries: shared prefix length, suffix length, suffix bytes and value index, all lengths as varints. */
+    private final byte[] data;
+    /** The offsets of the first entry of each block in {@link #data}. */
+    private final int[] blocks;
+    /** The distinct values. */
+    private final String[] values;
+    /** The {@link String#hashCode()} of each key, by entry index. */
+    private final int[] hashes;
+    /** Open addressing table of entry indexes + 1, indexed by the keys' hash codes, 0 marks a free slot. */
+    private final int[] table;
+    /** The number of entries. */
+    private final int size;
+    /** The length of the longest key in bytes. */
+    private final int maxKeyLength;
+    /** The entry set, created lazily. */
+    private transient Set<Map.Entry<String, String>> entrySet;
+
+    private CompactPropertyMap(byte[] data, int[] blocks, String[] values, int[] hashes, int maxKeyLength) {
+        this.data = data;
+        this.blocks = blocks;
+        this.values = values;
+        this.hashes = hashes;
+        this.size = hashes.length;
+        this.maxKeyLength = maxKeyLength;
+        this.table = new int[Math.max(2, Integer.highestOneBit(Math.max(1, size) * 2 - 1) << 1)];
+        int mask = table.length - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = spread(hashes[i]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i + 1;
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Creates a compact copy of the given properties.
+     *
+     * @param properties the properties, not null.
+     * @return the new map, never null.
+     */
+    public static CompactPropertyMap of(Properties properties) {
+        Map<String, String> map = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            map.put(key, properties.getProperty(key));
+        }
+        return of(map);
+    }
+
+    /**
+     * Creates a compact copy of the given map.
+     *
+     * @param properties the properties, not null. Null keys or values are not supported.
+     * @return the new map, never null.
+     */
+    public static CompactPropertyMap of(Map<String, String> properties) {
+        List<Map.Entry<byte[], String>> entries = new ArrayList<>(properties.size());
+        for (Map.Entry<String, String> en : properties.entrySet()) {
+            if (en.getKey() == null || en.getValue() == null) {
+                throw new NullPointerException("Null keys or values are not supported: " + en);
+            }
+            entries.add(new SimpleImmutableEntry<>(en.getKey().getBytes(StandardCharsets.UTF_8), en.getValue()));
+        }
+        entries.sort((e1, e2) -> compare(e1.getKey(), e2.getKey()));
+        int[] hashes = new int[entries.size()];
+
+        Map<String, Integer> valueIndexes = new HashMap<>();
+        List<String> values = new ArrayList<>();
+        ByteArrayBuilder data = new ByteArrayBuilder();
+        int[] blocks = new int[(entries.size() + BLOCK_SIZE - 1) / BLOCK_SIZE];
+        byte[] previous = new byte[0];
+        int maxKeyLength = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            byte[] key = entries.get(i).getKey();
+            int shared = 0;
+            if (i % BLOCK_SIZE == 0) {
+                blocks[i / BLOCK_SIZE] = data.size();
+            } else {
+                shared = sharedPrefix(previous, key);
+            }
+            data.writeVarInt(shared);
+            data.writeVarInt(key.length - shared);
+            data.write(key, shared, key.length - shared);
+            String value = entries.get(i).getValue();
+            Integer valueIndex = valueIndexes.get(value);
+            if (valueIndex == null) {
+                valueIndex = values.size();
+                valueIndexes.put(value, valueIndex);
+                values.add(value);
+            }
+            data.writeVarInt(valueIndex);
+            hashes[i] = new String(key, StandardCharsets.UTF_8).hashCode();
+            maxKeyLength = Math.max(maxKeyLength, key.length);
+            previous = key;
+        }
+        return new CompactPropertyMap(data.toByteArray(), blocks, values.toArray(new String[values.size()]),
+                hashes, maxKeyLength);
+    }
+
+    private static int compare(byte[] b1, byte[] b2) {
+        int len = Math.min(b1.length, b2.length);
+        for (int i = 0; i < len; i++) {
+            int diff = (b1[i] & 0xFF) - (b2[i] & 0xFF);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return b1.length - b2.length;
+    }
+
+    private static int sharedPrefix(byte[] b1, byte[] b2) {
+        int len = Math.min(b1.length, b2.length);
+        int i = 0;
+        while (i < len && b1[i] == b2[i]) {
+            i++;
+        }
+        return i;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public String get(Object key) {
+        if (!(key instanceof String) || size == 0) {
+            return null;
+        }
+        String stringKey = (String) key;
+        byte[] encoded = isAscii(stringKey) ? null : stringKey.getBytes(StandardCharsets.UTF_8);
+        int keyLength = encoded != null ? encoded.length : stringKey.length();
+        if (keyLength > maxKeyLength) {
+            return null;
+        }
+        int hash = stringKey.hashCode();
+        int mask = table.length - 1;
+        int slot = spread(hash) & mask;
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            if (hashes[entry - 1] == hash) {
+                String value = scanBlock((entry - 1) / BLOCK_SIZE, stringKey, encoded, keyLength);
+                if (value != null) {
+                    return value;
+                }
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Scans a block for the given key. While scanning, the number of leading bytes the current entry has in common
+     * with the key searched is tracked, so only the bytes following the common prefix are compared.
+     */
+    private String scanBlock(int block, String key, byte[] encoded, int keyLength) {
+        int pos = blocks[block];
+        int end = Math.min(size, (block + 1) * BLOCK_SIZE) - block * BLOCK_SIZE;
+        int matched = 0;
+        for (int i = 0; i < end; i++) {
+            int shared = readVarInt(pos);
+            pos = skipVarInt(pos);
+            int suffixLength = readVarInt(pos);
+            pos = skipVarInt(pos);
+            int suffixStart = pos;
+            pos += suffixLength;
+            int valueIndex = readVarInt(pos);
+            pos = skipVarInt(pos);
+            if (i > 0 && shared < matched) {
+                // this entry differs from its predecessor before the common prefix, so it is greater than the key
+                return null;
+            }
+            if (i > 0 && shared > matched) {
+                // this entry continues like its predecessor, which was less than the key
+                continue;
+            }
+            // compare the bytes following the common prefix
+            int keyPos = shared;
+            int suffixPos = 0;
+            while (keyPos < keyLength && suffixPos < suffixLength) {
+                int diff = (keyByte(key, encoded, keyPos) & 0xFF) - (data[suffixStart + suffixPos] & 0xFF);
+                if (diff < 0) {
+                    return null;
+                }
+                if (diff > 0) {
+                    break;
+                }
+                keyPos++;
+                suffixPos++;
+            }
+            if (keyPos == keyLength && suffixPos == suffixLength) {
+                return values[valueIndex];
+            }
+            if (keyPos == keyLength) {
+                // the key searched is a prefix of this entry, so it is less than the entry
+                return null;
+            }
+            matched = keyPos;
+        }
+        return null;
+    }
+
+    private static byte keyByte(String key, byte[] encoded, int index) {
+        return encoded != null ? encoded[index] : (byte) key.charAt(index);
+    }
+
+    private static boolean isAscii(String key) {
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int readVarInt(int pos) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[pos++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private int skipVarInt(int pos) {
+        while (data[pos++] < 0) {
+            // skip continuation bytes
+        }
+        return pos;
+    }
+
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+        Set<Map.Entry<String, String>> result = entrySet;
+        if (result == null) {
+            result = new AbstractSet<Map.Entry<String, String>>() {
+                @Override
+                public Iterator<Map.Entry<String, String>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+            entrySet = result;
+        }
+        return result;
+    }
+
+    /**
+     * Iterator decoding the entries in key order.
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<String, String>> {
+        private final byte[] key = new byte[maxKeyLength];
+        private int pos;
+        private int index;
+
+        @Override
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        @Override
+        public Map.Entry<String, String> next() {
+            if (index >= size) {
+                throw new NoSuchElementException();
+            }
+            int shared = readVarInt(pos);
+            pos = skipVarInt(pos);
+            int suffixLength = readVarInt(pos);
+            pos = skipVarInt(pos);
+            System.arraycopy(data, pos, key, shared, suffixLength);
+            pos += suffixLength;
+            String value = values[readVarInt(pos)];
+            pos = skipVarInt(pos);
+            index++;
+            return new SimpleImmutableEntry<>(new String(key, 0, shared + suffixLength, StandardCharsets.UTF_8),
+                    value);
+        }
+    }
+
+    /**
+     * Minimal growable byte array, writing varints as used by {@link CompactPropertyMap}.
+     */
+    private static final class ByteArrayBuilder {
+        private byte[] bytes = new byte[256];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        void write(byte[] b, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(b, offset, bytes, size, length);
+            size += length;
+        }
+
+        void writeVarInt(int value) {
+            ensureCapacity(5);
+            while ((value & ~0x7F) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        private void ensureCapacity(int additional) {
+            if (size + additional > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + additional));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+}
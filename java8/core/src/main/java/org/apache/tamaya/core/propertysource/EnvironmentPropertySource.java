@@ -19,29 +19,155 @@
 package org.apache.tamaya.core.propertysource;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This {@link org.apache.tamaya.spi.PropertySource} provides all Properties which are set
  * via <br />
  * {@code export myprop=myval} on UNIX Systems or<br />
  * {@code set myprop=myval} on Windows
+ * <p>
+ * If relaxed binding is enabled (see {@link #RELAXED_BINDING_PROPERTY}), an index of the variables by their exact
+ * and their normalized names is built once, so a key like {@code db.pool.max-size} also matches the variable
+ * {@code DB_POOL_MAX_SIZE}. Keys are normalized by {@link #normalizeKey(String)}. If several variables are
+ * normalized to the same key, the variable already in normalized form wins. Keys looked up in other forms are added
+ * to the index on first access, up to {@value #MAX_RELAXED_KEYS} keys, so repeated lookups are a single hash probe
+ * without normalizing the key again. With relaxed binding the source is not scannable, as
+ * {@link #getProperties()} cannot contain all the keys matched.
+ * </p>
  */
 public class EnvironmentPropertySource extends BasePropertySource {
 
+    /**
+     * System property to enable relaxed binding for instances created with the default constructor.
+     */
+    public static final String RELAXED_BINDING_PROPERTY = "tamaya.core.env.relaxedBinding";
+
+    /**
+     * The maximal number of keys added to the index by lookups.
+     */
+    static final int MAX_RELAXED_KEYS = 10_000;
+
+    /**
+     * Marker for keys in the index not matching any variable, compared by identity.
+     */
+    private static final String MISSING = new String("");
+
+    /**
+     * The variables by their exact, normalized and looked up names, or null, if relaxed binding is disabled.
+     */
+    private final Map<String, String> normalizedIndex;
+
+    /**
+     * The number of keys added to the index by lookups.
+     */
+    private final AtomicInteger relaxedKeys = new AtomicInteger();
+
     public EnvironmentPropertySource() {
+        this(Boolean.getBoolean(RELAXED_BINDING_PROPERTY));
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param relaxedBinding flag, if keys should also match the environment variables in normalized form.
+     */
+    public EnvironmentPropertySource(boolean relaxedBinding) {
+        this.normalizedIndex = relaxedBinding ? createNormalizedIndex(System.getenv()) : null;
         initializeOrdinal(DefaultOrdinal.ENVIRONMENT_PROPERTIES);
     }
 
+    /**
+     * Normalizes a key for relaxed binding: dots, dashes and slashes are replaced by underscores and all letters
+     * are converted to upper case, e.g. {@code db.pool.max-size} is normalized to {@code DB_POOL_MAX_SIZE}.
+     *
+     * @param key the key, not null.
+     * @return the normalized key.
+     */
+    public static String normalizeKey(String key) {
+        StringBuilder normalized = null;
+        for (int i = 0; i < key.length(); i++) {
+            char ch = key.charAt(i);
+            char normalizedChar = ch == '.' || ch == '-' || ch == '/' ? '_' : Character.toUpperCase(ch);
+            if (normalized == null && normalizedChar != ch) {
+                normalized = new StringBuilder(key.length()).append(key, 0, i);
+            }
+            if (normalized != null) {
+                normalized.append(normalizedChar);
+            }
+        }
+        return normalized == null ? key : normalized.toString();
+    }
+
+    private static Map<String, String> createNormalizedIndex(Map<String, String> environment) {
+        Map<String, String> index = new ConcurrentHashMap<>(environment);
+        for (Map.Entry<String, String> en : environment.entrySet()) {
+            index.putIfAbsent(normalizeKey(en.getKey()), en.getValue());
+        }
+        return index;
+    }
+
+    /**
+     * Allows to check if relaxed binding is enabled.
+     *
+     * @return true, if keys are also matched in normalized form.
+     */
+    public boolean isRelaxedBinding() {
+        return normalizedIndex != null;
+    }
+
 
     @Override
     public String getName() {
         return "environment-properties";
     }
 
+    @Override
+    protected String getValue(String key) {
+        if (normalizedIndex == null) {
+            return System.getenv(key);
+        }
+        String value = normalizedIndex.get(key);
+        if (value == null) {
+            value = lookupRelaxed(key);
+        }
+        return value == MISSING ? null : value;
+    }
+
+    /**
+     * Looks up a key not yet contained in the index by its normalized form and adds the result to the index,
+     * unless {@value #MAX_RELAXED_KEYS} keys have been added already.
+     *
+     * @param key the key, not null.
+     * @return the value, or {@link #MISSING}.
+     */
+    private String lookupRelaxed(String key) {
+        String value = normalizedIndex.get(normalizeKey(key));
+        if (value == null) {
+            value = MISSING;
+        }
+        if (relaxedKeys.get() < MAX_RELAXED_KEYS && normalizedIndex.putIfAbsent(key, value) == null) {
+            relaxedKeys.incrementAndGet();
+        }
+        return value;
+    }
+
     @Override
     public Map<String, String> getProperties() {
         return System.getenv(); // already a map and unmodifiable
 
     }
 
+    /**
+     * With relaxed binding, {@link #getProperties()} only contains the variables by their original names, whereas
+     * lookups also match the normalized forms. The source is then not scannable, so indexes query it by key.
+     *
+     * @return false, if relaxed binding is enabled.
+     */
+    @Override
+    public boolean isScannable() {
+        return !isRelaxedBinding();
+    }
+
 }
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.propertysource;
+
+import org.apache.tamaya.spi.PropertySource;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * {@link PropertySource} deferring the creation of the actual source until its data is accessed the first time by
+ * {@link #get(String)} or {@link #getProperties()}. Name, ordinal and the scannable flag are given on creation, so
+ * sorting and registering the source does not force loading it. Hence an ordinal configured within the source's
+ * data by {@link PropertySource#TAMAYA_ORDINAL} is ignored.
+ * <p>
+ * If the source loaded is an {@link ObservablePropertySource}, its changes are forwarded to the listeners of this
+ * instance. Errors loading the source are thrown on each access, until the source could be loaded.
+ * </p>
+ */
+public class LazyPropertySource extends BasePropertySource {
+
+    private final String name;
+    private final int ordinal;
+    private final boolean scannable;
+    private final Supplier<? extends PropertySource> loader;
+
+    /**
+     * The source loaded, or null, if not yet loaded.
+     */
+    private volatile PropertySource delegate;
+
+    /**
+     * Creates a new scannable instance.
+     *
+     * @param name    the source's name, not null.
+     * @param ordinal the source's ordinal.
+     * @param loader  the supplier creating the actual source, not null.
+     */
+    public LazyPropertySource(String name, int ordinal, Supplier<? extends PropertySource> loader) {
+        this(name, ordinal, true, loader);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param name      the source's name, not null.
+     * @param ordinal   the source's ordinal.
+     * @param scannable flag, if the source loaded is scannable.
+     * @param loader    the supplier creating the actual source, not null.
+     */
+    public LazyPropertySource(String name, int ordinal, boolean scannable, Supplier<? extends PropertySource> loader) {
+        this.name = Objects.requireNonNull(name);
+        this.ordinal = ordinal;
+        this.scannable = scannable;
+        this.loader = Objects.requireNonNull(loader);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    @Override
+    public boolean isScannable() {
+        return scannable;
+    }
+
+    /**
+     * Allows to check if the actual source has already been loaded.
+     *
+     * @return true, if the source has been loaded.
+     */
+    public boolean isLoaded() {
+        return delegate != null;
+    }
+
+    @Override
+    protected String getValue(String key) {
+        return getDelegate().get(key);
+    }
+
+    @Override
+    public Map<String, String> getProperties() {
+        return getDelegate().getProperties();
+    }
+
+    /**
+     * Access the actual source, loading it on first access.
+     *
+     * @return the source, never null.
+     */
+    private PropertySource getDelegate() {
+        PropertySource source = this.delegate;
+        if (source == null) {
+            synchronized (this) {
+                source = this.delegate;
+                if (source == null) {
+                    source = Objects.requireNonNull(loader.get(), "loader returned null");
+                    if (source instanceof ObservablePropertySource) {
+                        ((ObservablePropertySource) source).addChangeListener(changed -> firePropertiesChanged());
+                    }
+                    this.delegate = source;
+                }
+            }
+        }
+        return source;
+    }
+
+    @Override
+    public String toString() {
+        return "LazyPropertySource{" +
+                "name='" + name + '\'' +
+                ", ordinal=" + ordinal +
+                ", loaded=" + isLoaded() +
+                '}';
+    }
+}
@@ -0,0 +1,357 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.propertysource;
+
+import org.apache.tamaya.ConfigException;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * {@link org.apache.tamaya.spi.PropertySource} reading a precompiled, indexed binary file through a
+ * {@link MappedByteBuffer}, intended for very large sets of properties. The data is never copied onto the heap: a
+ * lookup probes the hash table stored in the file and only decodes the value found. As the file is mapped read-only,
+ * all JVMs on a host mapping the same file share its pages in the page cache.
+ * <p>
+ * Files are created by {@link #write(Map, Path)}. They contain a header, an open addressing table of entry offsets,
+ * indexed by the {@link String#hashCode()} of the keys, and the entries, each consisting of the key's hash code, the
+ * UTF-8 encoded key and the UTF-8 encoded value, all lengths as 4 byte integers. Since the table stores int offsets,
+ * a file must not exceed 2 GB.
+ * </p>
+ * <p>
+ * {@link #getProperties()} returns a view decoding the entries on iteration, so iterating large files is expensive.
+ * The source is therefore not {@link #isScannable() scannable}, so indexes query it by key.
+ * The mapping is released, when the source is garbage collected.
+ * </p>
+ * This class is thread-safe.
+ */
+public class MappedPropertySource extends BasePropertySource {
+
+    /** The magic number identifying the file format, {@code "TMYP"}. */
+    static final int MAGIC = 0x544D5950;
+    /** The version of the file format. */
+    static final int VERSION = 1;
+    /** The length of the header: magic, version, number of entries and length of the table. */
+    private static final int HEADER_LENGTH = 16;
+
+    private final String name;
+    /** The mapped file, only accessed by absolute reads, so the buffer can be shared between threads. */
+    private final ByteBuffer buffer;
+    /** The number of entries. */
+    private final int size;
+    /** The length of the table, a power of two. */
+    private final int tableLength;
+    /** The offset of the first entry. */
+    private final int entriesOffset;
+    /** The entries as map, created lazily. */
+    private transient Map<String, String> properties;
+
+    /**
+     * Creates a new instance, mapping the given file. The ordinal defaults to
+     * {@link DefaultOrdinal#FILE_PROPERTIES}, it can be overridden by {@link #TAMAYA_ORDINAL}.
+     *
+     * @param file the file written by {@link #write(Map, Path)}, not null.
+     * @throws ConfigException if the file cannot be read or is not in the expected format.
+     */
+    public MappedPropertySource(Path file) {
+        this.name = file.toUri().toString();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_LENGTH || length > Integer.MAX_VALUE) {
+                throw new ConfigException("Invalid length of mapped properties file " + file + ": " + length);
+            }
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        } catch (IOException e) {
+            throw new ConfigException("Failed to map properties file " + file, e);
+        }
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new ConfigException("Not a mapped properties file (version " + VERSION + "): " + file);
+        }
+        this.size = buffer.getInt(8);
+        this.tableLength = buffer.getInt(12);
+        long tableEnd = HEADER_LENGTH + tableLength * 4L;
+        if (size < 0 || Integer.bitCount(tableLength) != 1 || tableLength < size || tableEnd > buffer.capacity()) {
+            throw new ConfigException("Corrupt header of mapped properties file: " + file);
+        }
+        this.entriesOffset = (int) tableEnd;
+        initializeOrdinal(DefaultOrdinal.FILE_PROPERTIES);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The entries are decoded on demand only, so iterating them would copy the whole file onto the heap. Indexes
+     * therefore query this source by key.
+     *
+     * @return false.
+     */
+    @Override
+    public boolean isScannable() {
+        return false;
+    }
+
+    /**
+     * Looks up the key in the file's hash table and decodes its value. At most {@code tableLength} slots are probed,
+     * so a corrupt table without free slots cannot loop forever.
+     *
+     * @param key the key, not null.
+     * @return the value, or null.
+     * @throws ConfigException if the file is corrupt.
+     */
+    @Override
+    protected String getValue(String key) {
+        int hash = key.hashCode();
+        byte[] encoded = null;
+        int mask = tableLength - 1;
+        int slot = spread(hash) & mask;
+        for (int probes = 0; probes < tableLength; probes++, slot = (slot + 1) & mask) {
+            int offset = buffer.getInt(HEADER_LENGTH + slot * 4);
+            if (offset == 0) {
+                return null;
+            }
+            checkRange(offset, 8);
+            if (buffer.getInt(offset) == hash) {
+                if (encoded == null) {
+                    encoded = key.getBytes(StandardCharsets.UTF_8);
+                }
+                if (keyEquals(offset + 4, encoded)) {
+                    int valueOffset = offset + 8 + encoded.length;
+                    return decode(valueOffset + 4, buffer.getInt(valueOffset));
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean keyEquals(int offset, byte[] key) {
+        if (buffer.getInt(offset) != key.length) {
+            return false;
+        }
+        int start = offset + 4;
+        checkRange(start, key.length + 4);
+        for (int i = 0; i < key.length; i++) {
+            if (buffer.get(start + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String decode(int offset, int length) {
+        checkRange(offset, length);
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(offset + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Checks that the given range lies within the entries of the file.
+     *
+     * @param offset the start of the range.
+     * @param length the length of the range.
+     * @throws ConfigException if the range is out of bounds.
+     */
+    private void checkRange(long offset, long length) {
+        if (length < 0 || offset < entriesOffset || offset + length > buffer.capacity()) {
+            throw corrupt("range " + offset + "+" + length + " exceeds the entries");
+        }
+    }
+
+    private ConfigException corrupt(String reason) {
+        return new ConfigException("Corrupt mapped properties file " + name + ": " + reason);
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Access all properties as an unmodifiable view of the mapped file. Single key lookups are delegated to the
+     * file's hash table, iterating decodes all entries.
+     *
+     * @return the properties, never null.
+     */
+    @Override
+    public Map<String, String> getProperties() {
+        Map<String, String> result = this.properties;
+        if (result == null) {
+            result = new MappedMap();
+            this.properties = result;
+        }
+        return result;
+    }
+
+    /**
+     * Writes the given properties to a file readable by this class. The file is written to a temporary file first and
+     * then moved to the target, so JVMs having mapped a previous version of the file are not affected.
+     *
+     * @param properties the properties, not null.
+     * @param target     the target file, not null.
+     * @throws IOException if the file cannot be written, or the properties exceed the maximum file size of 2 GB.
+     */
+    public static void write(Map<String, String> properties, Path target) throws IOException {
+        Map<String, String> sorted = new TreeMap<>(properties);
+        int size = sorted.size();
+        int tableLength = Integer.highestOneBit(Math.max(1, size) * 2 - 1) << 1;
+        long entriesOffset = HEADER_LENGTH + tableLength * 4L;
+        int[] table = new int[tableLength];
+        ByteArrayOutputStream entries = new ByteArrayOutputStream();
+        DataOutputStream entriesOut = new DataOutputStream(entries);
+        for (Map.Entry<String, String> en : sorted.entrySet()) {
+            long offset = entriesOffset + entries.size();
+            if (offset > Integer.MAX_VALUE) {
+                throw new IOException("Properties exceed the maximum size of a mapped properties file.");
+            }
+            int hash = en.getKey().hashCode();
+            int slot = spread(hash) & (tableLength - 1);
+            while (table[slot] != 0) {
+                slot = (slot + 1) & (tableLength - 1);
+            }
+            table[slot] = (int) offset;
+            byte[] key = en.getKey().getBytes(StandardCharsets.UTF_8);
+            byte[] value = Objects.requireNonNull(en.getValue(), "value must not be null").getBytes(StandardCharsets.UTF_8);
+            entriesOut.writeInt(hash);
+            entriesOut.writeInt(key.length);
+            entriesOut.write(key);
+            entriesOut.writeInt(value.length);
+            entriesOut.write(value);
+        }
+        if (entriesOffset + entries.size() > Integer.MAX_VALUE) {
+            throw new IOException("Properties exceed the maximum size of a mapped properties file.");
+        }
+        Path directory = target.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream os = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(size);
+                out.writeInt(tableLength);
+                for (int offset : table) {
+                    out.writeInt(offset);
+                }
+                entries.writeTo(out);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Unmodifiable map view of the mapped file.
+     */
+    private final class MappedMap extends AbstractMap<String, String> {
+
+        private Set<Map.Entry<String, String>> entrySet;
+
+        @Override
+        public String get(Object key) {
+            return key instanceof String ? getValue((String) key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Set<Map.Entry<String, String>> entrySet() {
+            if (entrySet == null) {
+                entrySet = new AbstractSet<Map.Entry<String, String>>() {
+                    @Override
+                    public Iterator<Map.Entry<String, String>> iterator() {
+                        return new EntryIterator();
+                    }
+
+                    @Override
+                    public int size() {
+                        return size;
+                    }
+                };
+            }
+            return entrySet;
+        }
+    }
+
+    /**
+     * Iterates the entries in the order stored, that is sorted by key.
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<String, String>> {
+        private int index;
+        private int offset = entriesOffset;
+
+        @Override
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        @Override
+        public Map.Entry<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            checkRange(offset, 8);
+            int keyLength = buffer.getInt(offset + 4);
+            String key = decode(offset + 8, keyLength);
+            int valueOffset = offset + 8 + keyLength;
+            checkRange(valueOffset, 4);
+            int valueLength = buffer.getInt(valueOffset);
+            String value = decode(valueOffset + 4, valueLength);
+            offset = valueOffset + 4 + valueLength;
+            index++;
+            return new AbstractMap.SimpleImmutableEntry<>(key, value);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.propertysource;
+
+import org.apache.tamaya.spi.PropertySource;
+
+import java.util.function.Consumer;
+
+/**
+ * A {@link PropertySource} that is able to report changes of its contents. Listeners registered are called with the
+ * changed PropertySource, whenever the source detects that the values it provides have changed. This allows
+ * components that cache evaluated configuration values (e.g. the
+ * {@link org.apache.tamaya.core.internal.ValueCache}) to invalidate their state.
+ */
+public interface ObservablePropertySource extends PropertySource {
+
+    /**
+     * Registers a listener that is notified when the contents of this PropertySource have changed.
+     *
+     * @param listener the listener, not null.
+     */
+    void addChangeListener(Consumer<PropertySource> listener);
+
+    /**
+     * Removes a previously registered listener.
+     *
+     * @param listener the listener, not null.
+     */
+    void removeChangeListener(Consumer<PropertySource> listener);
+
+    /**
+     * Allows to check if this source only detects changes of its data when it is read, instead of notifying its
+     * listeners by itself. Components caching state derived from such a source must call
+     * {@link #checkForChanges()} before relying on that state, since reading their cached state skips the reads that
+     * would detect the change.
+     *
+     * @return true, if changes are only detected on read access. By default false.
+     */
+    default boolean isDetectingChangesOnRead() {
+        return false;
+    }
+
+    /**
+     * Checks if the data of this source has changed and notifies the registered listeners, if so. By default this
+     * method does nothing, as sources are expected to notify their listeners by themselves.
+     *
+     * @see #isDetectingChangesOnRead()
+     */
+    default void checkForChanges() {
+        // changes are notified by the source itself
+    }
+
+}
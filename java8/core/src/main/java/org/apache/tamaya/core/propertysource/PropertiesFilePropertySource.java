@@ -23,16 +23,30 @@ import org.apache.tamaya.core.internal.PropertiesFileLoader;
 import java.net.URL;
 
 /**
- * {@link org.apache.tamaya.spi.PropertySource} for properties-files
+ * {@link org.apache.tamaya.spi.PropertySource} for properties-files. If the system property
+ * {@value #COMPACT_STORAGE_PROPERTY} is set to {@code true}, the properties are kept in a {@link CompactPropertyMap},
+ * which needs considerably less heap for large files at the cost of slower lookups and iteration.
  */
 public class PropertiesFilePropertySource extends PropertiesPropertySource {
 
+    /** System property to store the properties of new instances in a {@link CompactPropertyMap}. */
+    public static final String COMPACT_STORAGE_PROPERTY = "tamaya.core.propertiesFile.compact";
 
     private String fileName;
 
 
     public PropertiesFilePropertySource(URL propertiesFile) {
-        super(PropertiesFileLoader.load(propertiesFile));
+        this(propertiesFile, Boolean.getBoolean(COMPACT_STORAGE_PROPERTY));
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param propertiesFile the properties file, not null.
+     * @param compact        if true, the properties are stored in a {@link CompactPropertyMap}.
+     */
+    public PropertiesFilePropertySource(URL propertiesFile, boolean compact) {
+        super(PropertiesFileLoader.load(propertiesFile), compact);
 
         initializeOrdinal(DefaultOrdinal.FILE_PROPERTIES);
         this.fileName = propertiesFile.toExternalForm();
@@ -34,13 +34,28 @@ abstract class PropertiesPropertySource extends BasePropertySource {
 
     // package private to not expose this class
     PropertiesPropertySource(Properties properties) {
-        Map<String, String> props = new HashMap<>();
+        this(properties, false);
+    }
 
-        for (String key : properties.stringPropertyNames()) {
-            props.put(key, properties.getProperty(key));
-        }
+    /**
+     * Creates a new instance.
+     *
+     * @param properties the properties, not null.
+     * @param compact    if true, the properties are stored as {@link CompactPropertyMap}, otherwise as
+     *                   {@link HashMap}.
+     */
+    PropertiesPropertySource(Properties properties, boolean compact) {
+        if (compact) {
+            this.properties = CompactPropertyMap.of(properties);
+        } else {
+            Map<String, String> props = new HashMap<>();
 
-        this.properties = Collections.unmodifiableMap(props);
+            for (String key : properties.stringPropertyNames()) {
+                props.put(key, properties.getProperty(key));
+            }
+
+            this.properties = Collections.unmodifiableMap(props);
+        }
     }
 
 
@@ -21,12 +21,16 @@ package org.apache.tamaya.core.propertysource;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.StampedLock;
 
 /**
- * This {@link org.apache.tamaya.spi.PropertySource} manages the system properties.
+ * This {@link org.apache.tamaya.spi.PropertySource} manages the system properties. Changes of the system properties
+ * are detected by a {@link ChangeDetectionStrategy}, by default selected by the system property
+ * {@value ChangeDetectionStrategies#STRATEGY_PROPERTY}. Reads access an immutable copy of the system properties
+ * without locking; only rescans are synchronized.
  */
 public class SystemPropertySource extends PropertiesPropertySource {
 
@@ -35,17 +39,31 @@ public class SystemPropertySource extends PropertiesPropertySource {
      */
     private StampedLock propertySourceLock = new StampedLock();
 
+    /**
+     * The strategy used for detecting changes.
+     */
+    private final ChangeDetectionStrategy changeDetection;
 
     /**
-     * previous System.getProperties().hashCode()
-     * so we can check if we need to reload
+     * The current copy of the system properties, published for lock-free reads.
      */
-    private int previousHash;
+    private volatile Map<String, String> currentProperties;
 
 
     public SystemPropertySource() {
+        this(ChangeDetectionStrategies.fromSystemProperties());
+    }
+
+    /**
+     * Creates a new instance, using the given strategy for detecting changes of the system properties.
+     *
+     * @param changeDetection the strategy, not null.
+     */
+    public SystemPropertySource(ChangeDetectionStrategy changeDetection) {
         super(System.getProperties());
-        previousHash = System.getProperties().hashCode();
+        this.currentProperties = this.properties;
+        this.changeDetection = Objects.requireNonNull(changeDetection);
+        changeDetection.start(this::refresh);
         initializeOrdinal(DefaultOrdinal.SYSTEM_PROPERTIES);
     }
 
@@ -57,30 +75,73 @@ public class SystemPropertySource extends PropertiesPropertySource {
 
     @Override
     public Map<String, String> getProperties() {
+        checkForChanges();
+        return currentProperties;
+    }
+
+    /**
+     * Unless the strategy rescans the system properties by itself, changes are only detected on read access.
+     *
+     * @return true, if the strategy checks for changes on read access.
+     * @see ChangeDetectionStrategy#isCheckedOnRead()
+     */
+    @Override
+    public boolean isDetectingChangesOnRead() {
+        return changeDetection.isCheckedOnRead();
+    }
 
+    /**
+     * Asks the strategy if the system properties have changed and rescans them, if so.
+     */
+    @Override
+    public void checkForChanges() {
+        if (changeDetection.isChanged()) {
+            refresh();
+        }
+    }
+
+    /**
+     * Rescans the system properties. If they have changed, the new values are published and the registered change
+     * listeners are notified.
+     */
+    public void refresh() {
         Lock writeLock = propertySourceLock.asWriteLock();
-        // only need to reload and fill our map if something has changed
+        boolean changed = false;
         try {
             writeLock.lock();
-            if (previousHash != System.getProperties().hashCode()) {
+            Properties systemProperties = System.getProperties();
+            Map<String, String> properties = new HashMap<>();
 
-                if (previousHash != System.getProperties().hashCode()) {
-
-                    Properties systemProperties = System.getProperties();
-                    Map<String, String> properties = new HashMap<>();
-
-                    for (String propertyName : systemProperties.stringPropertyNames()) {
-                        properties.put(propertyName, System.getProperty(propertyName));
-                    }
+            for (String propertyName : systemProperties.stringPropertyNames()) {
+                properties.put(propertyName, systemProperties.getProperty(propertyName));
+            }
 
-                    this.properties = Collections.unmodifiableMap(properties);
-                    previousHash = systemProperties.hashCode();
-                }
+            if (!properties.equals(currentProperties)) {
+                this.properties = Collections.unmodifiableMap(properties);
+                this.currentProperties = this.properties;
+                changed = true;
             }
         } finally {
             writeLock.unlock();
         }
+        if (changed) {
+            firePropertiesChanged();
+        }
+    }
 
-        return super.getProperties();
+    /**
+     * Stops the detection of changes, e.g. terminates the background thread of a periodic strategy.
+     */
+    public void stopChangeDetection() {
+        changeDetection.stop();
+    }
+
+    /**
+     * Get the strategy used for detecting changes.
+     *
+     * @return the strategy, never null.
+     */
+    public ChangeDetectionStrategy getChangeDetectionStrategy() {
+        return changeDetection;
     }
 }
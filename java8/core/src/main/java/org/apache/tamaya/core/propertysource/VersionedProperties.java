@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.propertysource;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * {@link Properties} that count their modifications, so changes can be detected by comparing a single version
+ * number instead of scanning all entries. Modifications done through the views returned by {@link #keySet()},
+ * {@link #entrySet()} or {@link #values()} are not counted. Installing them as system properties by
+ * {@link #install()} is required for {@link ChangeDetectionStrategies#versionCounting()}.
+ */
+public class VersionedProperties extends Properties {
+
+    private static final long serialVersionUID = 1L;
+
+    /** The logger used. */
+    private static final Logger LOG = Logger.getLogger(VersionedProperties.class.getName());
+
+    /**
+     * The number of modifications.
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Creates new properties, containing all entries of the given properties. Values only provided by the given
+     * properties' defaults are kept as defaults of the new properties.
+     *
+     * @param properties the properties to copy, not null.
+     */
+    public VersionedProperties(Properties properties) {
+        super(defaultsOf(properties));
+        super.putAll(properties);
+    }
+
+    /**
+     * Replaces the system properties by {@link VersionedProperties} containing the same entries and defaults, unless
+     * they are installed already. The system properties are never replaced implicitly, callers must opt in by
+     * calling this method, e.g. on startup.
+     *
+     * @return the installed system properties, never null.
+     */
+    public static synchronized VersionedProperties install() {
+        Properties properties = System.getProperties();
+        if (properties instanceof VersionedProperties) {
+            return (VersionedProperties) properties;
+        }
+        VersionedProperties versionedProperties = new VersionedProperties(properties);
+        System.setProperties(versionedProperties);
+        LOG.fine("Installed versioned system properties.");
+        return versionedProperties;
+    }
+
+    /**
+     * Collects the values of the given properties, which are only provided by their defaults.
+     *
+     * @param properties the properties, not null.
+     * @return the defaults, or null, if there are none.
+     */
+    private static Properties defaultsOf(Properties properties) {
+        Properties defaults = null;
+        for (String key : properties.stringPropertyNames()) {
+            if (!properties.containsKey(key)) {
+                if (defaults == null) {
+                    defaults = new Properties();
+                }
+                defaults.setProperty(key, properties.getProperty(key));
+            }
+        }
+        return defaults;
+    }
+
+    /**
+     * Get the current version, which is increased on each modification.
+     *
+     * @return the current version.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    @Override
+    public synchronized Object put(Object key, Object value) {
+        try {
+            return super.put(key, value);
+        } finally {
+            version.incrementAndGet();
+        }
+    }
+
+    @Override
+    public synchronized void putAll(Map<?, ?> t) {
+        try {
+            super.putAll(t);
+        } finally {
+            version.incrementAndGet();
+        }
+    }
+
+    @Override
+    public synchronized Object remove(Object key) {
+        try {
+            return super.remove(key);
+        } finally {
+            version.incrementAndGet();
+        }
+    }
+
+    @Override
+    public synchronized boolean remove(Object key, Object value) {
+        try {
+            return super.remove(key, value);
+        } finally {
+            version.incrementAndGet();
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        try {
+            super.clear();
+        } finally {
+            version.incrementAndGet();
+        }
+    }
+
+    @Override
+    public synchronized Object putIfAbsent(Object key, Object value) {
+        try {
+            return super.putIfAbsent(key, value);
+        } finally {
+            version.incrementAndGet();
+        }
+    }
+
+    @Override
+    public synchronized boolean replace(Object key, Object oldValue, Object newValue) {
+        try {
+            return super.replace(key, oldValue, newValue);
+        } finally {
+            version.incrementAndGet();
+        }
+    }
+
+    @Override
+    public synchronized Object replace(Object key, Object value) {
+        try {
+            return super.replace(key, value);
+        } finally {
+            version.incrementAndGet();
+        }
+    }
+
+    @Override
+    public synchronized void replaceAll(BiFunction<? super Object, ? super Object, ?> function) {
+        try {
+            super.replaceAll(function);
+        } finally {
+            version.incrementAndGet();
+        }
+    }
+
+    @Override
+    public synchronized Object computeIfAbsent(Object key, Function<? super Object, ?> mappingFunction) {
+        try {
+            return super.computeIfAbsent(key, mappingFunction);
+        } finally {
+            version.incrementAndGet();
+        }
+    }
+
+    @Override
+    public synchronized Object computeIfPresent(Object key,
+                                                BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        try {
+            return super.computeIfPresent(key, remappingFunction);
+        } finally {
+            version.incrementAndGet();
+        }
+    }
+
+    @Override
+    public synchronized Object compute(Object key, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        try {
+            return super.compute(key, remappingFunction);
+        } finally {
+            version.incrementAndGet();
+        }
+    }
+
+    @Override
+    public synchronized Object merge(Object key, Object value,
+                                     BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        try {
+            return super.merge(key, value, remappingFunction);
+        } finally {
+            version.incrementAndGet();
+        }
+    }
+}
@@ -20,11 +20,14 @@ package org.apache.tamaya.core.provider;
 
 import org.apache.tamaya.ConfigException;
 import org.apache.tamaya.core.internal.PropertiesFileLoader;
+import org.apache.tamaya.core.propertysource.DefaultOrdinal;
+import org.apache.tamaya.core.propertysource.LazyPropertySource;
 import org.apache.tamaya.core.propertysource.PropertiesFilePropertySource;
 import org.apache.tamaya.spi.PropertySource;
 import org.apache.tamaya.spi.PropertySourceProvider;
 
 import java.io.IOException;
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -32,10 +35,31 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 /**
- * Provider which reads all {@code javaconfiguration.properties} files from classpath
+ * Provider which reads all {@code javaconfiguration.properties} files from classpath. If lazy loading is enabled by
+ * {@link #LAZY_LOADING_PROPERTY}, the files are only parsed, when a value is read from them the first time.
  */
 public class JavaConfigurationProvider implements PropertySourceProvider {
 
+    /**
+     * System property to defer parsing of the files until their first access.
+     */
+    public static final String LAZY_LOADING_PROPERTY = "tamaya.core.javaconfiguration.lazy";
+
+    private final boolean lazy;
+
+    public JavaConfigurationProvider() {
+        this(Boolean.getBoolean(LAZY_LOADING_PROPERTY));
+    }
+
+    /**
+     * Creates a new provider.
+     *
+     * @param lazy flag, if the files should be parsed on first access only. In this case any ordinal configured
+     *             within the files is ignored, all of them use {@link DefaultOrdinal#FILE_PROPERTIES}.
+     */
+    public JavaConfigurationProvider(boolean lazy) {
+        this.lazy = lazy;
+    }
 
     @Override
     public Collection<PropertySource> getPropertySources() {
@@ -48,7 +72,7 @@ public class JavaConfigurationProvider implements PropertySourceProvider {
             propertySources.addAll(
                     PropertiesFileLoader.resolvePropertiesFiles("javaconfiguration.properties")
                             .stream()
-                            .map(PropertiesFilePropertySource::new)
+                            .map(this::createPropertySource)
                             .collect(Collectors.toList()));
 
 
@@ -58,4 +82,12 @@ public class JavaConfigurationProvider implements PropertySourceProvider {
 
         return Collections.unmodifiableList(propertySources);
     }
+
+    private PropertySource createPropertySource(URL propertiesFile) {
+        if (lazy) {
+            return new LazyPropertySource(propertiesFile.toExternalForm(), DefaultOrdinal.FILE_PROPERTIES,
+                    () -> new PropertiesFilePropertySource(propertiesFile));
+        }
+        return new PropertiesFilePropertySource(propertiesFile);
+    }
 }
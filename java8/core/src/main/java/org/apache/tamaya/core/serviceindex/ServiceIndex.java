@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.serviceindex;
+
+/**
+ * Constants describing the service index written by {@link ServiceIndexProcessor} and read by
+ * {@link org.apache.tamaya.core.internal.IndexedServiceContext}.
+ * <p>
+ * The index is a properties file. Each key is a service type, its value is a comma separated list of
+ * {@code implementationClass:priority} entries, in the order of the corresponding {@code META-INF/services} file.
+ * The priority is the value of the implementation's {@link javax.annotation.Priority} annotation, or
+ * {@link #DEFAULT_PRIORITY}.
+ * </p>
+ */
+public final class ServiceIndex {
+
+    /** The location of the index within a jar or class folder. */
+    public static final String LOCATION = "META-INF/tamaya/service-index.properties";
+
+    /** The location of the service files covered by the index. */
+    public static final String SERVICES_LOCATION = "META-INF/services/";
+
+    /** The priority of implementations without {@link javax.annotation.Priority} annotation. */
+    public static final int DEFAULT_PRIORITY = 1;
+
+    /** Private constructor. */
+    private ServiceIndex(){}
+}
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.serviceindex;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+
+/**
+ * Annotation processor writing the {@link ServiceIndex} of a module at compile time. It reads the
+ * {@code META-INF/services} files of the Tamaya service types (and the types given by the option
+ * {@value #SERVICE_TYPES_OPTION}) from the class output, resolves the {@link javax.annotation.Priority} of each
+ * implementation and writes {@value ServiceIndex#LOCATION}. The service files must be copied to the class output
+ * before compilation, as done by Maven's resources phase.
+ * <p>
+ * The processor is not registered automatically, it must be configured explicitly, e.g. by
+ * {@code -processor org.apache.tamaya.core.serviceindex.ServiceIndexProcessor}, or by the
+ * {@code annotationProcessors} setting of the maven-compiler-plugin.
+ * </p>
+ */
+@SupportedAnnotationTypes("*")
+@SupportedOptions(ServiceIndexProcessor.SERVICE_TYPES_OPTION)
+public class ServiceIndexProcessor extends AbstractProcessor {
+
+    /** Option listing additional service types to be indexed, separated by commas. */
+    public static final String SERVICE_TYPES_OPTION = "tamaya.serviceIndex.types";
+
+    /** The service types indexed by default. */
+    private static final List<String> DEFAULT_SERVICE_TYPES = Arrays.asList(
+            "org.apache.tamaya.spi.PropertySource",
+            "org.apache.tamaya.spi.PropertySourceProvider",
+            "org.apache.tamaya.spi.PropertyFilter",
+            "org.apache.tamaya.spi.PropertyValueCombinationPolicy",
+            "org.apache.tamaya.spi.ConfigurationProviderSpi",
+            "org.apache.tamaya.spi.ConfigurationMetrics",
+            "org.apache.tamaya.spi.ServiceContext",
+            "org.apache.tamaya.spi.PropertyConverter",
+            "org.apache.tamaya.PropertyConverter",
+            "org.apache.tamaya.core.resources.ResourceLoader",
+            "org.apache.tamaya.resolver.spi.ExpressionEvaluator");
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            try {
+                writeIndex(createIndex());
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Failed to write service index: " + e);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Evaluates the service types to be indexed.
+     *
+     * @return the service types, never null.
+     */
+    private Set<String> getServiceTypes() {
+        Set<String> serviceTypes = new LinkedHashSet<>(DEFAULT_SERVICE_TYPES);
+        String additionalTypes = processingEnv.getOptions().get(SERVICE_TYPES_OPTION);
+        if (additionalTypes != null) {
+            for (String type : additionalTypes.split(",")) {
+                if (!type.trim().isEmpty()) {
+                    serviceTypes.add(type.trim());
+                }
+            }
+        }
+        return serviceTypes;
+    }
+
+    /**
+     * Creates the index entries for all service files found.
+     *
+     * @return the index, ordered by service type.
+     * @throws IOException if a service file cannot be read.
+     */
+    private Map<String, String> createIndex() throws IOException {
+        Map<String, String> index = new TreeMap<>();
+        for (String serviceType : getServiceTypes()) {
+            List<String> implementations = readServiceFile(serviceType);
+            if (implementations.isEmpty()) {
+                continue;
+            }
+            StringJoiner entries = new StringJoiner(",");
+            for (String implementation : implementations) {
+                entries.add(implementation + ':' + getPriority(implementation));
+            }
+            index.put(serviceType, entries.toString());
+        }
+        return index;
+    }
+
+    /**
+     * Reads the implementations listed in the service file of the given type from the class output.
+     *
+     * @param serviceType the service type, not null.
+     * @return the implementation class names, empty if no service file exists.
+     * @throws IOException if the service file cannot be read.
+     */
+    private List<String> readServiceFile(String serviceType) throws IOException {
+        List<String> implementations = new ArrayList<>();
+        FileObject serviceFile;
+        Reader reader;
+        try {
+            serviceFile = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "",
+                    ServiceIndex.SERVICES_LOCATION + serviceType);
+            reader = serviceFile.openReader(true);
+        } catch (IOException | IllegalArgumentException e) {
+            // no service file for this type
+            return implementations;
+        }
+        try (BufferedReader in = new BufferedReader(reader)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                int comment = line.indexOf('#');
+                String implementation = (comment >= 0 ? line.substring(0, comment) : line).trim();
+                if (!implementation.isEmpty() && !implementations.contains(implementation)) {
+                    implementations.add(implementation);
+                }
+            }
+        }
+        return implementations;
+    }
+
+    /**
+     * Resolves the priority of an implementation from its {@link javax.annotation.Priority} annotation.
+     *
+     * @param implementation the implementation's class name, not null.
+     * @return the priority, or {@link ServiceIndex#DEFAULT_PRIORITY}.
+     */
+    private int getPriority(String implementation) {
+        TypeElement type = processingEnv.getElementUtils().getTypeElement(implementation.replace('$', '.'));
+        if (type == null) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Service implementation not found, using default priority: " + implementation);
+            return ServiceIndex.DEFAULT_PRIORITY;
+        }
+        for (AnnotationMirror annotation : type.getAnnotationMirrors()) {
+            if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName()
+                    .contentEquals("javax.annotation.Priority")) {
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> en :
+                        annotation.getElementValues().entrySet()) {
+                    if (en.getKey().getSimpleName().contentEquals("value")) {
+                        return ((Number) en.getValue().getValue()).intValue();
+                    }
+                }
+            }
+        }
+        return ServiceIndex.DEFAULT_PRIORITY;
+    }
+
+    /**
+     * Writes the index to the class output, if any services were found.
+     *
+     * @param index the index, not null.
+     * @throws IOException if the index cannot be written.
+     */
+    private void writeIndex(Map<String, String> index) throws IOException {
+        if (index.isEmpty()) {
+            return;
+        }
+        FileObject indexFile = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                ServiceIndex.LOCATION);
+        try (Writer writer = indexFile.openWriter()) {
+            writer.write("# Generated by " + ServiceIndexProcessor.class.getName() + ", do not edit.\n");
+            for (Map.Entry<String, String> en : index.entrySet()) {
+                writer.write(en.getKey() + '=' + en.getValue() + '\n');
+            }
+        }
+    }
+}
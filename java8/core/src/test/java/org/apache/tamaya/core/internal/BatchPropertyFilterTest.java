@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.spi.BatchPropertyFilter;
+import org.apache.tamaya.spi.FilterScope;
+import org.apache.tamaya.spi.PropertyFilter;
+import org.apache.tamaya.spi.PropertySource;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.apache.tamaya.spi.PropertyValueCombinationPolicy.DEFAULT_OVERRIDING_COLLECTOR;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class BatchPropertyFilterTest {
+
+    @Test
+    public void testDefaultAdapterDelegatesToSingleValues() {
+        BatchPropertyFilter filter = (key, value) -> key.equals("remove") ? null : value + "!";
+        Map<String, String> properties = new HashMap<>();
+        properties.put("a", "1");
+        properties.put("remove", "2");
+        Map<String, String> filtered = filter.filterProperties(properties);
+        assertEquals("1!", filtered.get("a"));
+        assertEquals(2, filtered.size());
+        assertEquals(null, filtered.get("remove"));
+    }
+
+    @Test
+    public void testBatchIsCalledOncePerCycle() {
+        // values are marked as encrypted by a per key filter, decrypted in a batch and finally trimmed per key
+        PropertyFilter marking = (key, value) -> value != null && key.startsWith("secret.") && !value.startsWith("ENC(")
+                && !value.startsWith("decrypted") ? "ENC(" + value + ")" : value;
+        DecryptingFilter decrypting = new DecryptingFilter();
+        PropertyFilter trimming = (key, value) -> value == null ? null : value.trim();
+        Map<String, String> properties = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            properties.put("secret.key" + i, "value" + i);
+            properties.put("plain.key" + i, "value" + i);
+        }
+        properties.put("secret.removed", "value");
+        DefaultConfiguration config = configuration(Arrays.asList(marking, decrypting, trimming), properties);
+
+        Map<String, String> filtered = config.getProperties();
+
+        // one cycle decrypting, one cycle confirming the values
+        assertEquals(2, decrypting.batches.get());
+        assertEquals(101, decrypting.maxBatchSize.get());
+        assertEquals("decrypted value7", filtered.get("secret.key7"));
+        assertEquals("value7", filtered.get("plain.key7"));
+        assertFalse(filtered.containsKey("secret.removed"));
+        assertEquals(200, filtered.size());
+        for (Map.Entry<String, String> en : filtered.entrySet()) {
+            assertEquals(en.getKey(), en.getValue(), config.get(en.getKey()));
+        }
+    }
+
+    private static DefaultConfiguration configuration(List<PropertyFilter> filters, Map<String, String> properties) {
+        PropertySource propertySource = new PropertySource() {
+            @Override
+            public int getOrdinal() {
+                return 0;
+            }
+
+            @Override
+            public String get(String key) {
+                return properties.get(key);
+            }
+
+            @Override
+            public Map<String, String> getProperties() {
+                return properties;
+            }
+        };
+        return new DefaultConfiguration(new ConfigurationSnapshot(0L, Collections.singletonList(propertySource),
+                filters, DEFAULT_OVERRIDING_COLLECTOR, new DefaultConfigurationContext(), null, false));
+    }
+
+    private static final class DecryptingFilter implements BatchPropertyFilter {
+        private final AtomicInteger batches = new AtomicInteger();
+        private final AtomicInteger maxBatchSize = new AtomicInteger();
+
+        @Override
+        public String filterProperty(String key, String value) {
+            if (key.equals("secret.removed")) {
+                return null;
+            }
+            return value != null && value.startsWith("ENC(") ? " decrypted " + value.substring(4, value.length() - 1) : value;
+        }
+
+        @Override
+        public Map<String, String> filterProperties(Map<String, String> properties) {
+            batches.incrementAndGet();
+            maxBatchSize.accumulateAndGet(properties.size(), Math::max);
+            Map<String, String> result = new HashMap<>();
+            for (Map.Entry<String, String> en : properties.entrySet()) {
+                String value = filterProperty(en.getKey(), en.getValue());
+                // only changed values are returned
+                if (!Objects.equals(value, en.getValue())) {
+                    result.put(en.getKey(), value);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public FilterScope getScope() {
+            return FilterScope.ofKeyPrefixes("secret.");
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.core.propertysource.BasePropertySource;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ConfigurationSnapshotTest {
+
+    @Test
+    public void testEpochIncreasesOnChange() {
+        DefaultConfigurationContext context = new DefaultConfigurationContext();
+        ConfigurationSnapshot first = context.getSnapshot();
+        assertSame(first, context.getSnapshot());
+        context.addPropertySources(new SinglePropertySource("snapshot.test", "1"));
+        ConfigurationSnapshot second = context.getSnapshot();
+        assertTrue(second.getEpoch() > first.getEpoch());
+        assertEquals(first.getPropertySources().size() + 1, second.getPropertySources().size());
+    }
+
+    @Test
+    public void testSnapshotIsNotAffectedByAddedPropertySources() {
+        DefaultConfigurationContext context = new DefaultConfigurationContext();
+        Configuration config = new DefaultConfiguration(context);
+        Configuration snapshot = config.snapshot();
+        context.addPropertySources(new SinglePropertySource("snapshot.test2", "value"));
+        assertEquals("value", config.get("snapshot.test2"));
+        assertNull(snapshot.get("snapshot.test2"));
+        assertEquals("value", config.snapshot().get("snapshot.test2"));
+    }
+
+    @Test
+    public void testSnapshotConfigurationIsReused() {
+        DefaultConfigurationContext context = new DefaultConfigurationContext();
+        ConfigurationSnapshot snapshot = context.getSnapshot();
+        assertSame(snapshot.getConfiguration(), snapshot.getConfiguration());
+        assertSame(snapshot.getConfiguration(), snapshot.getConfiguration().snapshot());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSnapshotIsImmutable() {
+        new DefaultConfigurationContext().getSnapshot().addPropertySources(new SinglePropertySource("a", "b"));
+    }
+
+    private static final class SinglePropertySource extends BasePropertySource {
+        private final Map<String, String> properties;
+
+        SinglePropertySource(String key, String value) {
+            this.properties = Collections.singletonMap(key, value);
+            initializeOrdinal(2000);
+        }
+
+        @Override
+        public Map<String, String> getProperties() {
+            return properties;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.TypeLiteral;
+import org.apache.tamaya.core.propertysource.BasePropertySource;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ConversionCacheTest {
+
+    private static final TypeLiteral<BigDecimal> BIG_DECIMAL = TypeLiteral.of(BigDecimal.class);
+
+    @Test
+    public void testHitsAndMisses() {
+        ConversionCache cache = new ConversionCache(true, 10);
+        assertNull(cache.get("a", BIG_DECIMAL, "1"));
+        cache.put("a", BIG_DECIMAL, "1", BigDecimal.ONE, cache.getGeneration());
+        assertEquals(BigDecimal.ONE, cache.get("a", BIG_DECIMAL, "1"));
+        assertNull(cache.get("a", TypeLiteral.of(Integer.class), "1"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void testChangedRawValueIsNotServed() {
+        ConversionCache cache = new ConversionCache(true, 10);
+        cache.put("a", BIG_DECIMAL, "1", BigDecimal.ONE, cache.getGeneration());
+        assertNull(cache.get("a", BIG_DECIMAL, "10"));
+    }
+
+    @Test
+    public void testStaleValueIsNotCachedAfterInvalidation() {
+        ConversionCache cache = new ConversionCache(true, 10);
+        long generation = cache.getGeneration();
+        cache.invalidate();
+        cache.put("a", BIG_DECIMAL, "1", BigDecimal.ONE, generation);
+        assertNull(cache.get("a", BIG_DECIMAL, "1"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testValueStoredConcurrentlyToInvalidationIsNotServed() throws Exception {
+        ConversionCache cache = new ConversionCache(true, 10);
+        for (int i = 0; i < 1000; i++) {
+            long generation = cache.getGeneration();
+            Thread invalidation = new Thread(cache::invalidate);
+            invalidation.start();
+            cache.put("a", BIG_DECIMAL, "1", BigDecimal.ONE, generation);
+            invalidation.join();
+            assertNull(cache.get("a", BIG_DECIMAL, "1"));
+        }
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        ConversionCache cache = new ConversionCache(true, 3);
+        for (int i = 0; i < 10; i++) {
+            cache.put("key" + i, BIG_DECIMAL, String.valueOf(i), BigDecimal.valueOf(i), cache.getGeneration());
+            // a full cache evicts a single entry
+            assertEquals(Math.min(i + 1, 3), cache.size());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxSize() {
+        new ConversionCache(true, 0);
+    }
+
+    @Test
+    public void testConvertedValuesAreCachedByConfiguration() {
+        DefaultConfigurationContext context = new DefaultConfigurationContext();
+        context.setConversionCacheEnabled(true);
+        DefaultConfiguration config = new DefaultConfiguration(context);
+        MutablePropertySource source = new MutablePropertySource();
+        source.put("conversion.test", "a");
+        context.addPropertySources(source);
+        AtomicInteger conversions = new AtomicInteger();
+        context.addPropertyConverter(TypeLiteral.of(Token.class), value -> {
+            conversions.incrementAndGet();
+            return new Token(value);
+        });
+
+        Token token = config.get("conversion.test", Token.class);
+        assertSame(token, config.get("conversion.test", Token.class));
+        assertEquals(1, conversions.get());
+
+        source.put("conversion.test", "b");
+        assertEquals("b", config.get("conversion.test", Token.class).value);
+        assertEquals(2, conversions.get());
+
+        context.addPropertyConverter(TypeLiteral.of(Token.class), value -> new Token(value));
+        assertEquals(0, context.getConversionCache().size());
+    }
+
+    @Test
+    public void testPrimitiveFallbackConversionsAreCached() {
+        DefaultConfigurationContext context = new DefaultConfigurationContext();
+        context.setConversionCacheEnabled(true);
+        DefaultConfiguration config = new DefaultConfiguration(context);
+        MutablePropertySource source = new MutablePropertySource();
+        source.put("conversion.test", "answer");
+        context.addPropertySources(source);
+        AtomicInteger conversions = new AtomicInteger();
+        context.addPropertyConverter(TypeLiteral.of(Integer.class), value -> {
+            conversions.incrementAndGet();
+            return "answer".equals(value) ? 42 : null;
+        });
+
+        assertEquals(42, config.getInt("conversion.test", 0));
+        assertEquals(42, config.getInt("conversion.test", 0));
+        assertEquals(1, conversions.get());
+    }
+
+    private static final class Token {
+        final String value;
+
+        Token(String value) {
+            this.value = value;
+        }
+    }
+
+    private static final class MutablePropertySource extends BasePropertySource {
+
+        private Map<String, String> properties = new HashMap<>();
+
+        MutablePropertySource() {
+            initializeOrdinal(2000);
+        }
+
+        void put(String key, String value) {
+            properties.put(key, value);
+        }
+
+        @Override
+        public Map<String, String> getProperties() {
+            return properties;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spi.PropertySourceProvider;
+import org.apache.tamaya.spi.ServiceContext;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DefaultConfigurationContextTest {
+
+    @Test
+    public void testParallelBootstrapKeepsOrdering() {
+        List<PropertySource> serialSources = new DefaultConfigurationContext().getPropertySources();
+        List<PropertySource> parallelSources;
+        System.setProperty(DefaultConfigurationContext.PARALLEL_BOOTSTRAP_PROPERTY, "true");
+        try {
+            parallelSources = new DefaultConfigurationContext().getPropertySources();
+        } finally {
+            System.clearProperty(DefaultConfigurationContext.PARALLEL_BOOTSTRAP_PROPERTY);
+        }
+        assertEquals(serialSources.size(), parallelSources.size());
+        for (int i = 0; i < serialSources.size(); i++) {
+            assertEquals(serialSources.get(i).getName(), parallelSources.get(i).getName());
+            assertEquals(serialSources.get(i).getOrdinal(), parallelSources.get(i).getOrdinal());
+        }
+    }
+
+    @Test
+    public void testBootstrapIsOnlyTracedIfEnabled() {
+        assertNull(new DefaultConfigurationContext().getBootstrapReport());
+    }
+
+    @Test
+    public void testBootstrapReport() {
+        BootstrapReport report;
+        System.setProperty(BootstrapTracer.TRACE_PROPERTY, "true");
+        try {
+            report = new DefaultConfigurationContext().getBootstrapReport();
+        } finally {
+            System.clearProperty(BootstrapTracer.TRACE_PROPERTY);
+        }
+        assertNotNull(report);
+        assertNull(BootstrapTracer.current());
+        List<String> phases = report.getPhases("phase").stream().map(BootstrapReport.Phase::getName)
+                .collect(Collectors.toList());
+        assertTrue(phases.contains("propertyConverters"));
+        assertTrue(phases.contains("propertySourceProviders"));
+        assertTrue(phases.contains("propertyFilters"));
+        List<PropertySourceProvider> providers = ServiceContext.getInstance().getServices(PropertySourceProvider.class);
+        List<BootstrapReport.Phase> providerPhases = report.getPhases("provider");
+        assertEquals(providers.size(), providerPhases.size());
+        for (BootstrapReport.Phase phase : providerPhases) {
+            assertEquals(1, phase.getDepth());
+            assertTrue(phase.getDurationNanos() <= report.getTotalNanos());
+        }
+        assertTrue(report.toString().startsWith("Bootstrap of "));
+    }
+}
@@ -21,11 +21,14 @@ package org.apache.tamaya.core.internal;
 import org.apache.tamaya.spi.ConfigurationContext;
 import org.apache.tamaya.spi.PropertyFilter;
 import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spi.PropertyValueCombinationPolicy;
 import org.junit.Test;
 import org.mockito.Mockito;
 
 import javax.annotation.Priority;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static java.util.Collections.singletonList;
@@ -163,6 +166,53 @@ public class DefaultConfigurationTest {
         assertThat(value, equalTo("$D$CV"));
     }
 
+    /* =
+     * =- Section with tests for combining the values of multiple PropertySources
+     * =
+     */
+
+    @Test
+    public void overridingPolicyStopsAtHighestOrdinalValue() {
+        PropertySource low = Mockito.mock(PropertySource.class, NOT_MOCKED_ANSWER);
+        PropertySource high = Mockito.mock(PropertySource.class, NOT_MOCKED_ANSWER);
+
+        doReturn("H").when(high).get(eq("key"));
+
+        ConfigurationContext context = Mockito.mock(ConfigurationContext.class, NOT_MOCKED_ANSWER);
+
+        doReturn(Arrays.asList(low, high)).when(context).getPropertySources();
+        doReturn(Collections.emptyList()).when(context).getPropertyFilters();
+        doReturn(DEFAULT_OVERRIDING_COLLECTOR).when(context).getPropertyValueCombinationPolicy();
+
+        DefaultConfiguration configuration = new DefaultConfiguration(context);
+
+        assertThat(configuration.get("key"), equalTo("H"));
+
+        verify(high).get(eq("key"));
+        verifyNoMoreInteractions(high, low);
+    }
+
+    @Test
+    public void nonOverridingPolicySeesAllPropertySources() {
+        PropertySource low = Mockito.mock(PropertySource.class, NOT_MOCKED_ANSWER);
+        PropertySource high = Mockito.mock(PropertySource.class, NOT_MOCKED_ANSWER);
+
+        doReturn("L").when(low).get(eq("key"));
+        doReturn("H").when(high).get(eq("key"));
+
+        ConfigurationContext context = Mockito.mock(ConfigurationContext.class, NOT_MOCKED_ANSWER);
+        PropertyValueCombinationPolicy concatenating = (current, key, propertySource) ->
+                current == null ? propertySource.get(key) : current + ',' + propertySource.get(key);
+
+        doReturn(Arrays.asList(low, high)).when(context).getPropertySources();
+        doReturn(Collections.emptyList()).when(context).getPropertyFilters();
+        doReturn(concatenating).when(context).getPropertyValueCombinationPolicy();
+
+        DefaultConfiguration configuration = new DefaultConfiguration(context);
+
+        assertThat(configuration.get("key"), equalTo("L,H"));
+    }
+
     private static class FilterAppendingA implements PropertyFilter {
         @Override
         public String filterProperty(String key, String value) {
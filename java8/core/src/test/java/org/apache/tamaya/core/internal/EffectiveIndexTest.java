@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.core.propertysource.ChangeDetectionStrategies;
+import org.apache.tamaya.core.propertysource.SystemPropertySource;
+import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spi.PropertyValueCombinationPolicy;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.apache.tamaya.spi.PropertyValueCombinationPolicy.DEFAULT_OVERRIDING_COLLECTOR;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class EffectiveIndexTest {
+
+    @Test
+    public void testMergesScannablePropertySources() {
+        EffectiveIndex index = new EffectiveIndex(Arrays.asList(
+                new MapPropertySource(1, true, "a", "1", "b", "1"),
+                new MapPropertySource(2, true, "b", "2", "c", "")));
+        assertTrue(index.isPrecomputed());
+        assertEquals("1", index.get("a"));
+        assertEquals("2", index.get("b"));
+        assertNull(index.get("c"));
+        assertEquals(3, index.getProperties().size());
+        assertEquals("", index.getProperties().get("c"));
+    }
+
+    @Test
+    public void testEmptyValuesAreOnlySkippedByLookups() {
+        EffectiveIndex index = new EffectiveIndex(Arrays.asList(
+                new MapPropertySource(1, true, "a", "1", "b", ""),
+                new MapPropertySource(2, true, "a", "")));
+        assertEquals("1", index.get("a"));
+        assertNull(index.get("b"));
+        assertEquals("", index.getProperties().get("a"));
+        assertEquals("", index.getProperties().get("b"));
+        assertEquals(2, index.getPrefixIndex().getSection("").size());
+    }
+
+    @Test
+    public void testNonScannablePropertySourcesAreEvaluatedLive() {
+        MapPropertySource live = new MapPropertySource(2, false, "a", "2");
+        EffectiveIndex index = new EffectiveIndex(Arrays.asList(
+                new MapPropertySource(1, true, "a", "1", "b", "1"),
+                live,
+                new MapPropertySource(3, true, "b", "3")));
+        assertFalse(index.isPrecomputed());
+        assertEquals("2", index.get("a"));
+        assertEquals("3", index.get("b"));
+        live.properties.put("a", "changed");
+        assertEquals("changed", index.get("a"));
+        assertEquals("changed", index.getProperties().get("a"));
+    }
+
+    @Test
+    public void testEmptyIndex() {
+        EffectiveIndex index = new EffectiveIndex(Collections.<PropertySource>emptyList());
+        assertNull(index.get("a"));
+        assertTrue(index.getProperties().isEmpty());
+    }
+
+    @Test
+    public void testIsSupported() {
+        assertTrue(EffectiveIndex.isSupported(DEFAULT_OVERRIDING_COLLECTOR));
+        PropertyValueCombinationPolicy custom = (current, key, propertySource) -> current;
+        assertFalse(EffectiveIndex.isSupported(custom));
+    }
+
+    @Test
+    public void testContextUsesIndex() {
+        DefaultConfigurationContext context = new DefaultConfigurationContext();
+        DefaultConfiguration config = new DefaultConfiguration(context);
+        String expected = config.get("name");
+        context.setEffectiveIndexEnabled(true);
+        assertTrue(context.isEffectiveIndexEnabled());
+        assertEquals(expected, config.get("name"));
+        context.addPropertySources(new MapPropertySource(5000, true, "name", "indexed"));
+        assertEquals("indexed", config.get("name"));
+        assertEquals("indexed", config.getProperties().get("name"));
+        context.setEffectiveIndexEnabled(false);
+        assertNull(context.getSnapshot().getEffectiveIndex());
+    }
+
+    @Test
+    public void testPropertiesDoNotDependOnIndex() {
+        DefaultConfigurationContext context = new DefaultConfigurationContext();
+        context.addPropertySources(
+                new MapPropertySource(5000, true, "index.a", "low", "index.b", "low", "index.c", "low"),
+                new MapPropertySource(5001, false, "index.a", "live", "index.b", ""),
+                new MapPropertySource(5002, true, "index.a", "high"));
+        DefaultConfiguration config = new DefaultConfiguration(context);
+        Map<String, String> expected = new HashMap<>(config.getProperties());
+        assertEquals(config.get("index.a"), expected.get("index.a"));
+        assertEquals("high", expected.get("index.a"));
+        assertEquals("", expected.get("index.b"));
+        assertEquals("low", expected.get("index.c"));
+
+        context.setEffectiveIndexEnabled(true);
+        assertEquals(expected, new HashMap<>(config.getProperties()));
+        assertEquals(config.getSection("index."), new DefaultConfiguration(ConfigurationSnapshot.of(context))
+                .getSection("index."));
+    }
+
+    @Test
+    public void testSystemPropertyChangesAreIndexed() {
+        DefaultConfigurationContext context = new DefaultConfigurationContext();
+        context.setEffectiveIndexEnabled(true);
+        DefaultConfiguration config = new DefaultConfiguration(context);
+        context.addPropertySources(new SystemPropertySource(ChangeDetectionStrategies.hashing()) {
+            @Override
+            public int getOrdinal() {
+                return 5000;
+            }
+        });
+        try {
+            System.setProperty("index.system.test", "1");
+            assertEquals("1", config.get("index.system.test"));
+
+            System.setProperty("index.system.test", "2");
+            assertEquals("2", config.get("index.system.test"));
+            assertEquals("2", config.getProperties().get("index.system.test"));
+        } finally {
+            System.clearProperty("index.system.test");
+        }
+        assertNull(config.get("index.system.test"));
+    }
+
+    private static final class MapPropertySource implements PropertySource {
+        private final int ordinal;
+        private final boolean scannable;
+        private final Map<String, String> properties = new HashMap<>();
+
+        MapPropertySource(int ordinal, boolean scannable, String... keyValues) {
+            this.ordinal = ordinal;
+            this.scannable = scannable;
+            for (int i = 0; i < keyValues.length; i += 2) {
+                properties.put(keyValues[i], keyValues[i + 1]);
+            }
+        }
+
+        @Override
+        public int getOrdinal() {
+            return ordinal;
+        }
+
+        @Override
+        public String get(String key) {
+            return properties.get(key);
+        }
+
+        @Override
+        public Map<String, String> getProperties() {
+            return properties;
+        }
+
+        @Override
+        public boolean isScannable() {
+            return scannable;
+        }
+    }
+}
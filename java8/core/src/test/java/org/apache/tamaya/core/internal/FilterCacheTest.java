@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.spi.PropertyFilter;
+import org.apache.tamaya.spi.PropertySource;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.apache.tamaya.spi.PropertyValueCombinationPolicy.DEFAULT_OVERRIDING_COLLECTOR;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FilterCacheTest {
+
+    @Test
+    public void testCacheIsKeyedByUnfilteredValue() {
+        FilterCache cache = new FilterCache(2);
+        assertNull(cache.get("a", "1"));
+        cache.put("a", "1", "filtered");
+        cache.put("b", null, null);
+        assertEquals(Optional.of("filtered"), cache.get("a", "1"));
+        assertNull(cache.get("a", "2"));
+        assertEquals(Optional.empty(), cache.get("b", null));
+        cache.put("c", "3", "3");
+        assertEquals(2, cache.size());
+        assertEquals(Optional.of("3"), cache.get("c", "3"));
+        // a single entry was evicted
+        assertTrue(cache.get("a", "1") == null ^ cache.get("b", null) == null);
+        cache.put("c", "4", "4");
+        assertEquals(2, cache.size());
+        assertEquals(4, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    public void testOnlyDeterministicFiltersAreCacheable() {
+        PropertyFilter deterministic = new CountingFilter(true);
+        PropertyFilter other = (key, value) -> value;
+        assertTrue(FilterCache.isCacheable(Collections.singletonList(deterministic)));
+        assertFalse(FilterCache.isCacheable(Collections.emptyList()));
+        assertFalse(FilterCache.isCacheable(Arrays.asList(deterministic, other)));
+        assertEquals(Collections.singletonList(other),
+                FilterCache.getNonDeterministicFilters(Arrays.asList(deterministic, other)));
+    }
+
+    @Test
+    public void testFilteredValuesAreCached() {
+        CountingFilter filter = new CountingFilter(true);
+        Map<String, String> properties = new HashMap<>();
+        properties.put("a", "1");
+        DefaultConfiguration config = configuration(Collections.singletonList(filter), properties);
+
+        assertEquals("1!", config.get("a"));
+        int invocations = filter.invocations.get();
+        assertEquals("1!", config.get("a"));
+        assertEquals(invocations, filter.invocations.get());
+        properties.put("a", "2");
+        assertEquals("2!", config.get("a"));
+        assertTrue(filter.invocations.get() > invocations);
+    }
+
+    @Test
+    public void testCacheIsSharedBySuccessiveSnapshots() {
+        CountingFilter filter = new CountingFilter(true);
+        Map<String, String> properties = new HashMap<>();
+        properties.put("a", "1");
+        ConfigurationSnapshot snapshot = snapshot(Collections.singletonList(filter), properties);
+
+        assertEquals("1!", snapshot.getConfiguration().get("a"));
+        int invocations = filter.invocations.get();
+        ConfigurationSnapshot successor = snapshot.renew();
+        assertTrue(successor.getFilterRouting() == snapshot.getFilterRouting());
+        assertEquals("1!", successor.getConfiguration().get("a"));
+        assertEquals(invocations, filter.invocations.get());
+        assertEquals(1, successor.getFilterRouting().getFilterCache().getHitCount());
+    }
+
+    @Test
+    public void testNonDeterministicFiltersAreEvaluatedOnEachRead() {
+        CountingFilter deterministic = new CountingFilter(true);
+        CountingFilter other = new CountingFilter(false);
+        Map<String, String> properties = new HashMap<>();
+        properties.put("a", "1");
+        DefaultConfiguration config = configuration(Arrays.asList(deterministic, other), properties);
+
+        assertEquals("1!", config.get("a"));
+        int invocations = other.invocations.get();
+        assertEquals("1!", config.get("a"));
+        assertEquals(2 * invocations, other.invocations.get());
+    }
+
+    private static DefaultConfiguration configuration(List<PropertyFilter> filters, Map<String, String> properties) {
+        return new DefaultConfiguration(snapshot(filters, properties));
+    }
+
+    private static ConfigurationSnapshot snapshot(List<PropertyFilter> filters, Map<String, String> properties) {
+        PropertySource propertySource = new PropertySource() {
+            @Override
+            public int getOrdinal() {
+                return 0;
+            }
+
+            @Override
+            public String get(String key) {
+                return properties.get(key);
+            }
+
+            @Override
+            public Map<String, String> getProperties() {
+                return properties;
+            }
+        };
+        return new ConfigurationSnapshot(0L, Collections.singletonList(propertySource), filters,
+                DEFAULT_OVERRIDING_COLLECTOR, new DefaultConfigurationContext(), null, false);
+    }
+
+    /**
+     * Appends a single '!' to each value.
+     */
+    private static final class CountingFilter implements PropertyFilter {
+        private final AtomicInteger invocations = new AtomicInteger();
+        private final boolean deterministic;
+
+        CountingFilter(boolean deterministic) {
+            this.deterministic = deterministic;
+        }
+
+        @Override
+        public String filterProperty(String key, String value) {
+            invocations.incrementAndGet();
+            return value.endsWith("!") ? value : value + "!";
+        }
+
+        @Override
+        public boolean isDeterministic() {
+            return deterministic;
+        }
+    }
+}
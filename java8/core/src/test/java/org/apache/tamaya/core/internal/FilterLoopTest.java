@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.spi.PropertyFilter;
+import org.apache.tamaya.spi.PropertySource;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.apache.tamaya.spi.PropertyValueCombinationPolicy.DEFAULT_OVERRIDING_COLLECTOR;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class FilterLoopTest {
+
+    private static final int KEYS = 20_000;
+
+    @Test
+    public void testLaterPassesOnlyRevisitChangedKeys() {
+        AtomicInteger invocations = new AtomicInteger();
+        PropertyFilter growing = (key, value) -> {
+            invocations.incrementAndGet();
+            return key.startsWith("grow.") && value.length() < 3 ? value + "." : value;
+        };
+        DefaultConfiguration config = configuration(Collections.singletonList(growing),
+                "grow.a", "x", "grow.b", "xyz");
+
+        Map<String, String> properties = config.getProperties();
+
+        // one pass over all keys, two passes for the key changed
+        assertEquals(KEYS + 2 + 2, invocations.get());
+        assertEquals("x..", properties.get("grow.a"));
+        assertEquals("xyz", properties.get("grow.b"));
+        assertSameAsSingleReads(config, properties);
+    }
+
+    @Test
+    public void testRemovedAndOscillatingValues() {
+        PropertyFilter removing = (key, value) -> key.startsWith("remove.") ? null : value;
+        PropertyFilter oscillating = (key, value) -> key.equals("flip") ? ("a".equals(value) ? "b" : "a") : value;
+        PropertyFilter restoring = (key, value) -> value == null && key.equals("remove.restored") ? "back" : value;
+        DefaultConfiguration config = configuration(Arrays.asList(removing, oscillating, restoring),
+                "remove.a", "1", "remove.restored", "2", "flip", "a");
+
+        Map<String, String> properties = config.getProperties();
+
+        assertFalse(properties.containsKey("remove.a"));
+        assertEquals("back", properties.get("remove.restored"));
+        assertEquals("a", properties.get("flip"));
+        assertSameAsSingleReads(config, properties);
+    }
+
+    private static void assertSameAsSingleReads(DefaultConfiguration config, Map<String, String> properties) {
+        for (Map.Entry<String, String> en : properties.entrySet()) {
+            assertEquals(en.getKey(), config.get(en.getKey()), en.getValue());
+        }
+        assertEquals(KEYS + 2, properties.keySet().stream().filter(k -> config.get(k) != null).count());
+    }
+
+    private static DefaultConfiguration configuration(List<PropertyFilter> filters, String... keyValues) {
+        Map<String, String> properties = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            properties.put("key" + i, "value" + i);
+        }
+        for (int i = 0; i < keyValues.length; i += 2) {
+            properties.put(keyValues[i], keyValues[i + 1]);
+        }
+        PropertySource propertySource = new PropertySource() {
+            @Override
+            public int getOrdinal() {
+                return 0;
+            }
+
+            @Override
+            public String get(String key) {
+                return properties.get(key);
+            }
+
+            @Override
+            public Map<String, String> getProperties() {
+                return properties;
+            }
+        };
+        return new DefaultConfiguration(new ConfigurationSnapshot(0L, Collections.singletonList(propertySource),
+                filters, DEFAULT_OVERRIDING_COLLECTOR, new DefaultConfigurationContext(), null, false));
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.spi.FilterScope;
+import org.apache.tamaya.spi.PropertyFilter;
+import org.apache.tamaya.spi.PropertySource;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.apache.tamaya.spi.PropertyValueCombinationPolicy.DEFAULT_OVERRIDING_COLLECTOR;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class FilterRoutingTest {
+
+    @Test
+    public void testScopes() {
+        FilterScope scope = FilterScope.ofKeyPrefixes("secret.")
+                .or(FilterScope.ofKeyPatterns(".*\\.password"))
+                .or(FilterScope.ofValuesContaining("ENC("));
+        assertTrue(scope.appliesTo("secret.a", "plain"));
+        assertTrue(scope.appliesTo("db.password", "plain"));
+        assertTrue(scope.appliesTo("db.user", "ENC(abc)"));
+        assertFalse(scope.appliesTo("db.user", "plain"));
+        assertFalse(scope.appliesTo("db.password.hint", null));
+        assertFalse(scope.isUnrestricted());
+        assertTrue(scope.or(FilterScope.ALL).isUnrestricted());
+        assertTrue(FilterScope.ALL.appliesTo("any", null));
+    }
+
+    @Test
+    public void testRoutes() {
+        PropertyFilter all = (key, value) -> value;
+        PropertyFilter secrets = new ScopedFilter(FilterScope.ofKeyPrefixes("secret."), "x");
+        PropertyFilter encrypted = new ScopedFilter(FilterScope.ofValuesContaining("ENC("), "y");
+        FilterRouting routing = new FilterRouting(Arrays.asList(all, secrets, encrypted));
+
+        assertFalse(routing.isUnrestricted());
+        assertEquals(Arrays.asList(all, secrets), routing.getFilters("secret.a").subList(0, 2));
+        assertEquals(3, routing.getFilters("secret.a").size());
+        assertEquals(2, routing.getFilters("other").size());
+        assertSame(routing.getFilters("other"), routing.getFilters("other"));
+        assertEquals("plain", routing.getFilters("other").get(1).filterProperty("other", "plain"));
+        assertEquals("y", routing.getFilters("other").get(1).filterProperty("other", "ENC(a)"));
+
+        List<PropertyFilter> unscoped = Collections.singletonList(all);
+        FilterRouting unrestricted = new FilterRouting(unscoped);
+        assertTrue(unrestricted.isUnrestricted());
+        assertTrue(unrestricted.isRouting(unscoped));
+        assertEquals(unscoped, unrestricted.getFilters("any"));
+    }
+
+    @Test
+    public void testFullRoutingEvictsSingleRoutes() {
+        PropertyFilter secrets = new ScopedFilter(FilterScope.ofKeyPrefixes("secret."), "x");
+        FilterRouting routing = new FilterRouting(Collections.singletonList(secrets));
+        for (int i = 0; i <= FilterRouting.MAX_CACHED_KEYS; i++) {
+            routing.getFilters("secret." + i);
+        }
+        assertEquals(FilterRouting.MAX_CACHED_KEYS, routing.getCachedRouteCount());
+    }
+
+    @Test
+    public void testConfigurationOnlyInvokesApplicableFilters() {
+        AtomicInteger invocations = new AtomicInteger();
+        PropertyFilter masking = new ScopedFilter(FilterScope.ofKeyPrefixes("secret."), "*****") {
+            @Override
+            public String filterProperty(String key, String value) {
+                invocations.incrementAndGet();
+                return super.filterProperty(key, value);
+            }
+        };
+        // the decrypting filter only applies after the value has been replaced by the key scoped filter before
+        PropertyFilter replacing = new ScopedFilter(FilterScope.ofKeyPrefixes("encrypted."), "ENC(value)");
+        PropertyFilter decrypting = (key, value) -> value.startsWith("ENC(") ? "decrypted" : value;
+        PropertyFilter scopedDecrypting = new ScopedFilter(FilterScope.ofValuesContaining("ENC("), null) {
+            @Override
+            public String filterProperty(String key, String value) {
+                return decrypting.filterProperty(key, value);
+            }
+        };
+        Map<String, String> properties = new HashMap<>();
+        properties.put("secret.password", "geheim");
+        properties.put("encrypted.value", "plain");
+        properties.put("other", "value");
+        DefaultConfiguration config = configuration(Arrays.asList(masking, replacing, scopedDecrypting), properties);
+
+        assertEquals("value", config.get("other"));
+        assertEquals(0, invocations.get());
+        assertEquals("*****", config.get("secret.password"));
+        assertEquals("decrypted", config.get("encrypted.value"));
+        invocations.set(0);
+        Map<String, String> filtered = config.getProperties();
+        assertEquals("*****", filtered.get("secret.password"));
+        assertEquals("decrypted", filtered.get("encrypted.value"));
+        assertEquals("value", filtered.get("other"));
+        // one pass changing the value, one confirming it
+        assertEquals(2, invocations.get());
+    }
+
+    private static DefaultConfiguration configuration(List<PropertyFilter> filters, Map<String, String> properties) {
+        PropertySource propertySource = new PropertySource() {
+            @Override
+            public int getOrdinal() {
+                return 0;
+            }
+
+            @Override
+            public String get(String key) {
+                return properties.get(key);
+            }
+
+            @Override
+            public Map<String, String> getProperties() {
+                return properties;
+            }
+        };
+        return new DefaultConfiguration(new ConfigurationSnapshot(0L, Collections.singletonList(propertySource),
+                filters, DEFAULT_OVERRIDING_COLLECTOR, new DefaultConfigurationContext(), null, false));
+    }
+
+    private static class ScopedFilter implements PropertyFilter {
+        private final FilterScope scope;
+        private final String replacement;
+
+        ScopedFilter(FilterScope scope, String replacement) {
+            this.scope = scope;
+            this.replacement = replacement;
+        }
+
+        @Override
+        public String filterProperty(String key, String value) {
+            return scope.appliesTo(key, value) ? replacement : value;
+        }
+
+        @Override
+        public FilterScope getScope() {
+            return scope;
+        }
+    }
+}
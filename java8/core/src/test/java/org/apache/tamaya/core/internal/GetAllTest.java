@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.spi.BatchPropertyFilter;
+import org.apache.tamaya.spi.PropertyFilter;
+import org.apache.tamaya.spi.PropertySource;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.apache.tamaya.spi.PropertyValueCombinationPolicy.DEFAULT_OVERRIDING_COLLECTOR;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GetAllTest {
+
+    private static final List<String> KEYS = Arrays.asList("c", "a", "missing", "b", "a", "empty");
+
+    @Test
+    public void testMatchesIndividualGets() {
+        PropertyFilter filter = (key, value) -> "b".equals(key) && !value.startsWith("filtered:") ?
+                "filtered:" + value : value;
+        DefaultConfiguration config = configuration(Collections.singletonList(filter),
+                new CountingPropertySource(properties("a", "low", "b", "low", "empty", "low")),
+                new CountingPropertySource(properties("a", "high", "c", "high", "empty", "")));
+
+        Map<String, String> expected = new LinkedHashMap<>();
+        for (String key : KEYS) {
+            if (config.get(key) != null) {
+                expected.put(key, config.get(key));
+            }
+        }
+        Map<String, String> values = config.getAll(KEYS);
+        assertEquals(expected, values);
+        assertEquals(Arrays.asList("c", "a", "b", "empty"), new ArrayList<>(values.keySet()));
+        assertEquals("filtered:low", values.get("b"));
+        assertEquals("low", values.get("empty"));
+        try {
+            values.put("x", "y");
+            throw new AssertionError("Result must be unmodifiable.");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testPropertySourcesAreOnlyAskedForPendingKeys() {
+        CountingPropertySource low = new CountingPropertySource(properties("a", "low", "b", "low"));
+        CountingPropertySource high = new CountingPropertySource(properties("a", "high", "c", "high"));
+        DefaultConfiguration config = configuration(Collections.emptyList(), low, high);
+
+        Map<String, String> values = config.getAll(Arrays.asList("a", "b", "c"));
+        assertEquals(properties("a", "high", "b", "low", "c", "high"), values);
+        assertEquals(3, high.reads.get());
+        assertEquals(1, low.reads.get());
+
+        config.getAll(Arrays.asList("a", "c"));
+        assertEquals(1, low.reads.get());
+    }
+
+    @Test
+    public void testBatchFiltersAreCalledOncePerCycle() {
+        AtomicInteger calls = new AtomicInteger();
+        BatchPropertyFilter filter = new BatchPropertyFilter() {
+            @Override
+            public Map<String, String> filterProperties(Map<String, String> properties) {
+                calls.incrementAndGet();
+                Map<String, String> result = new HashMap<>();
+                for (Map.Entry<String, String> en : properties.entrySet()) {
+                    if (en.getValue() != null && !en.getValue().endsWith("!")) {
+                        result.put(en.getKey(), en.getValue() + "!");
+                    }
+                }
+                return result;
+            }
+
+            @Override
+            public String filterProperty(String key, String value) {
+                return value == null || value.endsWith("!") ? value : value + "!";
+            }
+        };
+        DefaultConfiguration config = configuration(Collections.singletonList(filter),
+                new CountingPropertySource(properties("a", "1", "b", "2", "c", "3")));
+
+        assertEquals(properties("a", "1!", "b", "2!", "c", "3!"), config.getAll(Arrays.asList("a", "b", "c")));
+        // one cycle changing the values, one confirming them
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testTypedValues() {
+        DefaultConfiguration config = configuration(Collections.emptyList(),
+                new CountingPropertySource(properties("a", "1", "b", "2")));
+
+        Map<String, Integer> values = config.getAll(Arrays.asList("b", "missing", "a"), Integer.class);
+        assertEquals(Arrays.asList("b", "a"), new ArrayList<>(values.keySet()));
+        assertEquals(Integer.valueOf(2), values.get("b"));
+        assertEquals(Integer.valueOf(1), values.get("a"));
+        assertTrue(config.getAll(Collections.emptyList(), Integer.class).isEmpty());
+    }
+
+    private static Map<String, String> properties(String... keysAndValues) {
+        Map<String, String> properties = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            properties.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return properties;
+    }
+
+    private static DefaultConfiguration configuration(List<PropertyFilter> filters,
+                                                      PropertySource... propertySources) {
+        return new DefaultConfiguration(new ConfigurationSnapshot(0L, Arrays.asList(propertySources), filters,
+                DEFAULT_OVERRIDING_COLLECTOR, new DefaultConfigurationContext(), null, false));
+    }
+
+    /**
+     * PropertySource counting the single key reads.
+     */
+    private static final class CountingPropertySource implements PropertySource {
+        private final AtomicInteger reads = new AtomicInteger();
+        private final Map<String, String> properties;
+
+        CountingPropertySource(Map<String, String> properties) {
+            this.properties = properties;
+        }
+
+        @Override
+        public int getOrdinal() {
+            return 0;
+        }
+
+        @Override
+        public String get(String key) {
+            reads.incrementAndGet();
+            return properties.get(key);
+        }
+
+        @Override
+        public Map<String, String> getProperties() {
+            return properties;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.core.serviceindex.ServiceIndex;
+import org.apache.tamaya.core.serviceindex.ServiceIndexProcessor;
+import org.apache.tamaya.spi.PropertySource;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.annotation.Priority;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class IndexedServiceContextTest {
+
+    private static final AtomicInteger LOW_INSTANCES = new AtomicInteger();
+    /** The context used by {@link NestingService} while it is created. */
+    private static volatile IndexedServiceContext nestingContext;
+
+    private final List<Path> tempDirectories = new ArrayList<>();
+
+    @After
+    public void deleteTempDirectories() throws IOException {
+        for (Path directory : tempDirectories) {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.delete(file);
+                }
+            }
+        }
+        tempDirectories.clear();
+    }
+
+    @Test
+    public void testServicesAreReadFromIndex() throws Exception {
+        Path root = createTempDirectory("tamaya-index");
+        write(root.resolve(ServiceIndex.SERVICES_LOCATION + Greeter.class.getName()),
+                LowGreeter.class.getName() + "\n" + HighGreeter.class.getName() + "\n");
+        write(root.resolve(ServiceIndex.LOCATION), Greeter.class.getName() + "=" +
+                LowGreeter.class.getName() + ":1," + HighGreeter.class.getName() + ":10\n");
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{root.toUri().toURL()},
+                getClass().getClassLoader())) {
+            IndexedServiceContext context = new IndexedServiceContext(classLoader);
+            assertEquals(10, context.ordinal());
+
+            int lowInstances = LOW_INSTANCES.get();
+            Greeter greeter = context.getService(Greeter.class).get();
+            assertTrue(greeter instanceof HighGreeter);
+            assertEquals(lowInstances, LOW_INSTANCES.get());
+
+            List<Greeter> greeters = context.getServices(Greeter.class);
+            assertEquals(2, greeters.size());
+            assertTrue(greeters.get(0) instanceof LowGreeter);
+            assertSame(greeter, greeters.get(1));
+        }
+    }
+
+    @Test
+    public void testTypesMissingInIndexUseServiceLoader() throws Exception {
+        Path root = createTempDirectory("tamaya-index");
+        write(root.resolve(ServiceIndex.SERVICES_LOCATION + Greeter.class.getName()),
+                HighGreeter.class.getName() + "\n");
+        write(root.resolve(ServiceIndex.SERVICES_LOCATION + Other.class.getName()),
+                OtherImpl.class.getName() + "\n");
+        write(root.resolve(ServiceIndex.LOCATION), Greeter.class.getName() + "=" +
+                HighGreeter.class.getName() + ":10\n");
+        Thread thread = Thread.currentThread();
+        ClassLoader contextClassLoader = thread.getContextClassLoader();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{root.toUri().toURL()},
+                getClass().getClassLoader())) {
+            thread.setContextClassLoader(classLoader);
+            IndexedServiceContext context = new IndexedServiceContext(classLoader);
+            assertEquals(10, context.ordinal());
+            assertTrue(context.getService(Greeter.class).get() instanceof HighGreeter);
+
+            List<Other> others = context.getServices(Other.class);
+            assertEquals(1, others.size());
+            assertTrue(others.get(0) instanceof OtherImpl);
+            assertTrue(context.getService(Other.class).get() instanceof OtherImpl);
+        } finally {
+            thread.setContextClassLoader(contextClassLoader);
+        }
+    }
+
+    @Test
+    public void testServicesMayLookupServicesWhileCreated() throws Exception {
+        Path root = createTempDirectory("tamaya-index");
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Path src = createTempDirectory("tamaya-index-src");
+        StringBuilder services = new StringBuilder();
+        StringBuilder index = new StringBuilder(Nested.class.getName() + "=");
+        String[] sources = new String[40];
+        for (int i = 0; i < sources.length; i++) {
+            Path source = src.resolve("test/Nested" + i + ".java");
+            write(source, "package test;\n" +
+                    "public class Nested" + i + " implements " + Nested.class.getCanonicalName() + " {}\n");
+            sources[i] = source.toString();
+            services.append("test.Nested").append(i).append('\n');
+            index.append(i > 0 ? "," : "").append("test.Nested").append(i).append(":1");
+        }
+        String[] args = new String[sources.length + 4];
+        args[0] = "-cp";
+        args[1] = System.getProperty("java.class.path");
+        args[2] = "-d";
+        args[3] = root.toString();
+        System.arraycopy(sources, 0, args, 4, sources.length);
+        assertEquals(0, compiler.run(null, null, null, args));
+        write(root.resolve(ServiceIndex.SERVICES_LOCATION + Nested.class.getName()), services.toString());
+        write(root.resolve(ServiceIndex.SERVICES_LOCATION + Nesting.class.getName()),
+                NestingService.class.getName() + "\n");
+        write(root.resolve(ServiceIndex.LOCATION), index + "\n" + Nesting.class.getName() + "=" +
+                NestingService.class.getName() + ":1\n");
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{root.toUri().toURL()},
+                getClass().getClassLoader())) {
+            IndexedServiceContext context = new IndexedServiceContext(classLoader);
+            nestingContext = context;
+            NestingService nesting = (NestingService) context.getService(Nesting.class).get();
+            assertEquals(40, nesting.nested.size());
+            assertSame(nesting, context.getServices(Nesting.class).get(0));
+        } finally {
+            nestingContext = null;
+        }
+    }
+
+    @Test
+    public void testNotIndexedTypesUseServiceLoader() {
+        IndexedServiceContext context = new IndexedServiceContext(getClass().getClassLoader());
+        assertEquals(0, context.ordinal());
+        assertEquals(new DefaultServiceContext().getServices(PropertySource.class).size(),
+                context.getServices(PropertySource.class).size());
+    }
+
+    @Test
+    public void testProcessorWritesIndex() throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Path src = createTempDirectory("tamaya-index-src");
+        Path out = createTempDirectory("tamaya-index-out");
+        Path source = src.resolve("test/MyFilter.java");
+        write(source, "package test;\n" +
+                "@javax.annotation.Priority(5)\n" +
+                "public class MyFilter implements org.apache.tamaya.spi.PropertyFilter {\n" +
+                "    public String filterProperty(String key, String value) { return value; }\n" +
+                "}\n");
+        write(out.resolve(ServiceIndex.SERVICES_LOCATION + "org.apache.tamaya.spi.PropertyFilter"),
+                "# comment\ntest.MyFilter\n");
+
+        int result = compiler.run(null, null, null, "-proc:only", "-processor",
+                ServiceIndexProcessor.class.getName(), "-cp", System.getProperty("java.class.path"),
+                "-processorpath", System.getProperty("java.class.path"),
+                "-d", out.toString(), source.toString());
+
+        assertEquals(0, result);
+        List<String> index = Files.readAllLines(out.resolve(ServiceIndex.LOCATION), StandardCharsets.UTF_8);
+        assertTrue(index.contains("org.apache.tamaya.spi.PropertyFilter=test.MyFilter:5"));
+    }
+
+    private Path createTempDirectory(String prefix) throws IOException {
+        Path directory = Files.createTempDirectory(prefix);
+        tempDirectories.add(directory);
+        return directory;
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, Collections.singletonList(content), StandardCharsets.UTF_8);
+    }
+
+    public interface Greeter {
+    }
+
+    public static class LowGreeter implements Greeter {
+        public LowGreeter() {
+            LOW_INSTANCES.incrementAndGet();
+        }
+    }
+
+    @Priority(10)
+    public static class HighGreeter implements Greeter {
+    }
+
+    public interface Other {
+    }
+
+    public interface Nested {
+    }
+
+    public interface Nesting {
+    }
+
+    public static class NestingService implements Nesting {
+        final List<Nested> nested;
+
+        public NestingService() {
+            nested = nestingContext.getServices(Nested.class);
+        }
+    }
+
+    public static class OtherImpl implements Other {
+    }
+}
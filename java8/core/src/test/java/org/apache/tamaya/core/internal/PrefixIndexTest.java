@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.spi.PropertySource;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PrefixIndexTest {
+
+    private static final PrefixIndex INDEX = new PrefixIndex(properties(
+            "db", "x",
+            "db.primary", "leaf",
+            "db.primary.url", "jdbc:primary",
+            "db.primary.user", "sa",
+            "db.primary-backup.url", "jdbc:backup",
+            "db.secondary.pool.size", "5",
+            "db.timeout", "10",
+            "dbx.other", "y",
+            "other", "z",
+            "\uffff", "max",
+            "\uffff\uffff.a", "max"));
+
+    @Test
+    public void testSection() {
+        assertEquals(Arrays.asList("db.primary.url", "db.primary.user"),
+                Arrays.asList(INDEX.getSection("db.primary.").keySet().toArray()));
+        assertEquals(8, INDEX.getSection("db").size());
+        assertEquals(6, INDEX.getSection("db.").size());
+        assertEquals("10", INDEX.getSection("db.").get("db.timeout"));
+        assertTrue(INDEX.getSection("missing.").isEmpty());
+        assertEquals(11, INDEX.getSection("").size());
+        assertEquals(2, INDEX.getSection("\uffff").size());
+        assertEquals(1, INDEX.getSection("\uffff\uffff").size());
+    }
+
+    @Test
+    public void testChildKeys() {
+        assertEquals(new HashSet<>(Arrays.asList("primary", "primary-backup", "secondary", "timeout")),
+                INDEX.getChildKeys("db."));
+        assertEquals(new HashSet<>(Arrays.asList("url", "user")), INDEX.getChildKeys("db.primary."));
+        assertEquals(new HashSet<>(Arrays.asList("db", "dbx", "other", "\uffff", "\uffff\uffff")),
+                INDEX.getChildKeys(""));
+        assertTrue(INDEX.getChildKeys("db.timeout.").isEmpty());
+    }
+
+    @Test
+    public void testConfigurationSections() {
+        DefaultConfigurationContext context = new DefaultConfigurationContext();
+        context.addPropertySources(new SectionPropertySource(properties(
+                "section.test.a", "1", "section.test.b.c", "2", "section.test.b.d", "3", "section.other", "4")));
+        DefaultConfiguration config = new DefaultConfiguration(context);
+        Map<String, String> scanned = config.getSection("section.");
+        context.setEffectiveIndexEnabled(true);
+        assertEquals(scanned, config.getSection("section."));
+        assertEquals(3, config.getSection("section.test.").size());
+        assertEquals(new HashSet<>(Arrays.asList("test", "other")), config.getChildKeys("section."));
+        assertEquals(new HashSet<>(Arrays.asList("a", "b")), config.snapshot().getChildKeys("section.test."));
+        context.setEffectiveIndexEnabled(false);
+        assertEquals(new HashSet<>(Arrays.asList("a", "b")), config.getChildKeys("section.test."));
+    }
+
+    private static Map<String, String> properties(String... keyValues) {
+        Map<String, String> properties = new HashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            properties.put(keyValues[i], keyValues[i + 1]);
+        }
+        return properties;
+    }
+
+    private static final class SectionPropertySource implements PropertySource {
+        private final Map<String, String> properties;
+
+        SectionPropertySource(Map<String, String> properties) {
+            this.properties = properties;
+        }
+
+        @Override
+        public int getOrdinal() {
+            return 5000;
+        }
+
+        @Override
+        public String get(String key) {
+            return properties.get(key);
+        }
+
+        @Override
+        public Map<String, String> getProperties() {
+            return properties;
+        }
+    }
+}
@@ -23,7 +23,11 @@ import org.apache.tamaya.PropertyConverter;
 import org.apache.tamaya.TypeLiteral;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
@@ -58,6 +62,51 @@ public class PropertyConverterManagerTest {
         assertThat(((MyType)result).getValue(), equalTo("IN"));
     }
 
+    @Test
+    public void stringConstructorIsUsedAsConverter() {
+        PropertyConverterManager manager = new PropertyConverterManager();
+
+        List<PropertyConverter<MyConstructedType>> converters =
+                manager.getPropertyConverters(TypeLiteral.of(MyConstructedType.class));
+
+        assertThat(converters, hasSize(1));
+        assertThat(converters.get(0).convert("IN").value, equalTo("IN"));
+    }
+
+    @Test
+    public void typeWithoutFactoryIsNotSupported() {
+        PropertyConverterManager manager = new PropertyConverterManager();
+
+        assertThat(manager.isTargetTypeSupported(TypeLiteral.of(PropertyConverterManagerTest.class)), is(false));
+        assertThat(manager.getPropertyConverters(TypeLiteral.of(PropertyConverterManagerTest.class)), hasSize(0));
+    }
+
+    @Test
+    public void defaultConverterIsRegisteredOnceForConcurrentLookups() throws Exception {
+        PropertyConverterManager manager = new PropertyConverterManager();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<PropertyConverter<MyType>>>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                results.add(executor.submit(() -> manager.getPropertyConverters(TypeLiteral.of(MyType.class))));
+            }
+            for (Future<List<PropertyConverter<MyType>>> result : results) {
+                assertThat(result.get(), hasSize(1));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(manager.getPropertyConverters().get(TypeLiteral.of(MyType.class)), hasSize(1));
+    }
+
+    private static class MyConstructedType {
+        private final String value;
+
+        private MyConstructedType(String value) {
+            this.value = value;
+        }
+    }
+
     public static class MyType {
         private String typeValue;
 
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.core.propertysource.BasePropertySource;
+import org.apache.tamaya.core.propertysource.ChangeDetectionStrategies;
+import org.apache.tamaya.core.propertysource.SystemPropertySource;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ValueCacheTest {
+
+    @Test
+    public void testHitsAndMisses() {
+        ValueCache cache = new ValueCache(true, 10);
+        assertNull(cache.get("a", 0L));
+        cache.put("a", "A", 0L);
+        cache.put("b", null, 0L);
+        assertEquals(Optional.of("A"), cache.get("a", 0L));
+        assertEquals(Optional.empty(), cache.get("b", 0L));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testStaleValueIsNotCachedAfterInvalidation() {
+        ValueCache cache = new ValueCache(true, 10);
+        cache.invalidate(1L);
+        cache.put("a", "A", 0L);
+        assertNull(cache.get("a", 0L));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testValuesOfOtherEpochsAreNotReturned() {
+        ValueCache cache = new ValueCache(true, 10);
+        cache.put("a", "A", 0L);
+        assertNull(cache.get("a", 1L));
+        assertEquals(Optional.of("A"), cache.get("a", 0L));
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        ValueCache cache = new ValueCache(true, 3);
+        for (int i = 0; i < 10; i++) {
+            cache.put("key" + i, "value" + i, 0L);
+            assertTrue(cache.size() <= 3);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxSize() {
+        new ValueCache(true, 0);
+    }
+
+    @Test
+    public void testCachedValuesAreInvalidatedByContext() {
+        DefaultConfigurationContext context = new DefaultConfigurationContext();
+        context.setValueCacheEnabled(true);
+        DefaultConfiguration config = new DefaultConfiguration(context);
+        MutablePropertySource source = new MutablePropertySource();
+        source.put("cache.test", "1");
+        context.addPropertySources(source);
+
+        assertEquals("1", config.get("cache.test"));
+        assertEquals("1", config.get("cache.test"));
+        assertTrue(context.getValueCache().getHitCount() > 0);
+
+        source.put("cache.test", "2");
+        assertEquals("2", config.get("cache.test"));
+
+        context.addPropertySources(new MutablePropertySource());
+        assertEquals(0, context.getValueCache().size());
+
+        context.setValueCacheEnabled(false);
+        assertFalse(context.isValueCacheEnabled());
+        assertEquals("2", config.get("cache.test"));
+    }
+
+    @Test
+    public void testCacheIsBoundedWithoutEvictingAll() {
+        ValueCache cache = new ValueCache(true, 3);
+        for (int i = 0; i < 3; i++) {
+            cache.put("key" + i, "value" + i, 0L);
+        }
+        cache.put("key3", "value3", 0L);
+        assertEquals(3, cache.size());
+        assertEquals(Optional.of("value3"), cache.get("key3", 0L));
+    }
+
+    @Test
+    public void testSystemPropertyChangesAreNotHiddenByCache() {
+        DefaultConfigurationContext context = new DefaultConfigurationContext();
+        context.setValueCacheEnabled(true);
+        DefaultConfiguration config = new DefaultConfiguration(context);
+        SystemPropertySource source = new SystemPropertySource(ChangeDetectionStrategies.hashing()) {
+            @Override
+            public int getOrdinal() {
+                return 5000;
+            }
+        };
+        context.addPropertySources(source);
+        try {
+            System.setProperty("cache.system.test", "1");
+            assertEquals("1", config.get("cache.system.test"));
+            assertEquals("1", config.get("cache.system.test"));
+
+            System.setProperty("cache.system.test", "2");
+            assertEquals("2", config.get("cache.system.test"));
+        } finally {
+            System.clearProperty("cache.system.test");
+        }
+        assertNull(config.get("cache.system.test"));
+    }
+
+    private static final class MutablePropertySource extends BasePropertySource {
+
+        private Map<String, String> properties = new HashMap<>();
+
+        MutablePropertySource() {
+            initializeOrdinal(2000);
+        }
+
+        void put(String key, String value) {
+            properties.put(key, value);
+            firePropertiesChanged();
+        }
+
+        @Override
+        public Map<String, String> getProperties() {
+            return properties;
+        }
+    }
+}
@@ -128,4 +128,18 @@ public class BooleanConverterTest {
             case "tests.converter.boolean.f2":
                 return "F";
      */
-}
\ No newline at end of file
+
+    /**
+     * Test the primitive accessor. The value are provided by
+     * {@link org.apache.tamaya.core.internal.converters.ConverterTestsPropertySource}.
+     * @throws Exception
+     */
+    @Test
+    public void testGetBoolean() throws Exception {
+        Configuration config = ConfigurationProvider.getConfiguration();
+        assertTrue(config.getBoolean("tests.converter.boolean.yes3", false));
+        assertFalse(config.getBoolean("tests.converter.boolean.n2", true));
+        assertTrue(config.getBoolean("tests.converter.boolean.foo", true));
+        assertFalse(config.getBoolean("tests.converter.boolean.foo", false));
+    }
+}
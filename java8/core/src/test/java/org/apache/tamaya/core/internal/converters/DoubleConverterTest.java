@@ -173,4 +173,18 @@ public class DoubleConverterTest {
         assertEquals(Double.NEGATIVE_INFINITY, valueRead.get().doubleValue(),0.0d);
     }
 
-}
\ No newline at end of file
+    /**
+     * Test the primitive accessor. The value are provided by
+     * {@link org.apache.tamaya.core.internal.converters.ConverterTestsPropertySource}.
+     * @throws Exception
+     */
+    @Test
+    public void testGetDouble() throws Exception {
+        Configuration config = ConfigurationProvider.getConfiguration();
+        assertEquals(1.23456789, config.getDouble("tests.converter.double.decimal", -1.0), 0.0d);
+        assertEquals(100.0, config.getDouble("tests.converter.double.integer", -1.0), 0.0d);
+        assertEquals(-255.0, config.getDouble("tests.converter.double.hex2", -1.0), 0.0d);
+        assertEquals(Double.NEGATIVE_INFINITY, config.getDouble("tests.converter.double.ni", -1.0), 0.0d);
+        assertEquals(-1.0, config.getDouble("tests.converter.double.foo", -1.0), 0.0d);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal.converters;
+
+import org.apache.tamaya.ConfigException;
+import org.junit.Test;
+
+import java.math.RoundingMode;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the default converter for enums.
+ */
+public class EnumConverterTest {
+
+    private final EnumConverter<RoundingMode> converter = new EnumConverter<>(RoundingMode.class);
+
+    @Test
+    public void testConvert() {
+        assertEquals(RoundingMode.HALF_UP, converter.convert("HALF_UP"));
+    }
+
+    @Test
+    public void testConvert_NestedEnum() {
+        assertEquals(Mode.ON, new EnumConverter<>(Mode.class).convert("ON"));
+    }
+
+    @Test(expected = ConfigException.class)
+    public void testConvert_InvalidValue() {
+        converter.convert("foo");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotAnEnum() {
+        new EnumConverter<>(String.class);
+    }
+
+    private enum Mode {
+        ON, OFF
+    }
+}
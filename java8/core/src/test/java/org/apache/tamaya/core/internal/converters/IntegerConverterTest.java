@@ -110,4 +110,19 @@ public class IntegerConverterTest {
         assertTrue(valueRead.isPresent());
         assertEquals(Integer.MAX_VALUE, valueRead.get().intValue());
     }
-}
\ No newline at end of file
+
+    /**
+     * Test the primitive accessor. The value are provided by
+     * {@link org.apache.tamaya.core.internal.converters.ConverterTestsPropertySource}.
+     * @throws Exception
+     */
+    @Test
+    public void testGetInt() throws Exception {
+        Configuration config = ConfigurationProvider.getConfiguration();
+        assertEquals(101, config.getInt("tests.converter.integer.decimal", -1));
+        assertEquals(2, config.getInt("tests.converter.integer.octal", -1));
+        assertEquals(0x2F, config.getInt("tests.converter.integer.hex.lowerX", -1));
+        assertEquals(Integer.MIN_VALUE, config.getInt("tests.converter.integer.min", -1));
+        assertEquals(-1, config.getInt("tests.converter.integer.foo", -1));
+    }
+}
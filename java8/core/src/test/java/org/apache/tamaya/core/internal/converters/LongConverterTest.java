@@ -110,4 +110,19 @@ public class LongConverterTest {
         assertTrue(valueRead.isPresent());
         assertEquals(Long.MAX_VALUE, valueRead.get().longValue());
     }
-}
\ No newline at end of file
+
+    /**
+     * Test the primitive accessor. The value are provided by
+     * {@link org.apache.tamaya.core.internal.converters.ConverterTestsPropertySource}.
+     * @throws Exception
+     */
+    @Test
+    public void testGetLong() throws Exception {
+        Configuration config = ConfigurationProvider.getConfiguration();
+        assertEquals(101L, config.getLong("tests.converter.long.decimal", -1L));
+        assertEquals(2L, config.getLong("tests.converter.long.octal", -1L));
+        assertEquals(0X3FL, config.getLong("tests.converter.long.hex.upperX", -1L));
+        assertEquals(Long.MAX_VALUE, config.getLong("tests.converter.long.max", -1L));
+        assertEquals(-1L, config.getLong("tests.converter.long.foo", -1L));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.metrics;
+
+import org.apache.tamaya.ConfigException;
+import org.apache.tamaya.TypeLiteral;
+import org.apache.tamaya.core.internal.DefaultConfiguration;
+import org.apache.tamaya.core.internal.DefaultConfigurationContext;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DefaultConfigurationMetricsTest {
+
+    @Test
+    public void testHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0L, histogram.getPercentileNanos(0.5));
+        for (int i = 0; i < 99; i++) {
+            histogram.record(100L);
+        }
+        histogram.record(100_000L);
+        assertEquals(100L, histogram.getCount());
+        assertEquals(99 * 100L + 100_000L, histogram.getTotalNanos());
+        assertEquals(127L, histogram.getPercentileNanos(0.5));
+        assertEquals(127L, histogram.getPercentileNanos(0.99));
+        assertEquals(131_071L, histogram.getPercentileNanos(1.0));
+        histogram.reset();
+        assertEquals(0L, histogram.getCount());
+    }
+
+    @Test
+    public void testKeysAreBounded() {
+        DefaultConfigurationMetrics metrics = new DefaultConfigurationMetrics(2);
+        metrics.keyAccessed("a", 10L, true);
+        metrics.keyAccessed("a", 10L, true);
+        metrics.keyAccessed("b", 10L, false);
+        metrics.keyAccessed("c", 10L, true);
+        assertEquals(2L, metrics.getAccessCount("a"));
+        assertEquals(0L, metrics.getAccessCount("c"));
+        assertEquals(1L, metrics.getUntrackedAccessCount());
+        assertEquals(1L, metrics.getMissCount());
+        assertEquals(4L, metrics.getAccessLatency().getCount());
+        Map<String, Long> hotKeys = metrics.getHotKeys(1);
+        assertEquals(1, hotKeys.size());
+        assertEquals(Long.valueOf(2L), hotKeys.get("a"));
+        assertEquals(Long.valueOf(1L), metrics.getMissingKeys(10).get("b"));
+    }
+
+    @Test
+    public void testConfigurationAccessIsRecorded() {
+        DefaultConfigurationContext context = new DefaultConfigurationContext();
+        assertNull(context.getMetrics());
+        DefaultConfigurationMetrics metrics = new DefaultConfigurationMetrics();
+        context.setMetrics(metrics);
+        DefaultConfiguration configuration = new DefaultConfiguration(context);
+
+        System.setProperty("metrics.test.value", "42");
+        try {
+            assertEquals(Integer.valueOf(42), configuration.get("metrics.test.value", TypeLiteral.of(Integer.class)));
+            assertNull(configuration.get("metrics.test.missing"));
+            // snapshots record on the metrics of their context as well
+            assertEquals(Integer.valueOf(42),
+                    configuration.snapshot().get("metrics.test.value", TypeLiteral.of(Integer.class)));
+            try {
+                configuration.get("metrics.test.value", TypeLiteral.of(DefaultConfigurationMetricsTest.class));
+                fail("ConfigException expected.");
+            } catch (ConfigException e) {
+                // expected
+            }
+        } finally {
+            System.clearProperty("metrics.test.value");
+        }
+
+        assertEquals(3L, metrics.getAccessCount("metrics.test.value"));
+        assertEquals(1L, metrics.getMissCount());
+        assertEquals(3L, metrics.getConversionLatency().getCount());
+        assertEquals(1L, metrics.getConversionFailureCount());
+        assertTrue(metrics.getPropertySourceLatencies().size() > 0);
+
+        context.setMetrics(null);
+        configuration.get("metrics.test.value");
+        assertEquals(3L, metrics.getAccessCount("metrics.test.value"));
+    }
+}
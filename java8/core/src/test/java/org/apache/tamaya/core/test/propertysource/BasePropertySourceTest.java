@@ -63,6 +63,53 @@ public class BasePropertySourceTest {
         Assert.assertEquals("1000", new OverriddenOrdinalPropertySource().get(PropertySource.TAMAYA_ORDINAL));
     }
 
+    @Test
+    public void testKeyLookupWithLazyProperties() {
+        KeyLookupPropertySource propertySource = new KeyLookupPropertySource();
+
+        Assert.assertEquals("b", propertySource.get("a"));
+        Assert.assertEquals(0, propertySource.collected);
+
+        Map<String, String> properties = propertySource.getProperties();
+        Assert.assertEquals("b", properties.get("a"));
+        Assert.assertSame(properties, propertySource.getProperties());
+        Assert.assertEquals(1, propertySource.collected);
+
+        propertySource.change();
+        Assert.assertNotSame(properties, propertySource.getProperties());
+        Assert.assertEquals(2, propertySource.collected);
+    }
+
+    private static class KeyLookupPropertySource extends BasePropertySource {
+
+        private int collected;
+
+        @Override
+        public String getName() {
+            return "keyLookup";
+        }
+
+        @Override
+        protected String getValue(String key) {
+            return "a".equals(key) ? "b" : null;
+        }
+
+        @Override
+        public Map<String, String> getProperties() {
+            return getCachedProperties();
+        }
+
+        @Override
+        protected Map<String, String> collectProperties() {
+            collected++;
+            return Collections.singletonMap("a", "b");
+        }
+
+        void change() {
+            firePropertiesChanged();
+        }
+    }
+
     private static class OverriddenOrdinalPropertySource extends BasePropertySource {
 
         private OverriddenOrdinalPropertySource() {
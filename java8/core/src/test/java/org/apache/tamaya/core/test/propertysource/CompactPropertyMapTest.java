@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.test.propertysource;
+
+import org.apache.tamaya.core.propertysource.CompactPropertyMap;
+import org.apache.tamaya.core.propertysource.PropertiesFilePropertySource;
+import org.junit.Test;
+
+import java.net.URL;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CompactPropertyMapTest {
+
+    @Test
+    public void testLookupsMatchHashMap() {
+        Random random = new Random(42);
+        String[] segments = {"a", "app", "application", "db", "server", "\u00fcber", "\u65e5\u672c", "x.y"};
+        Map<String, String> expected = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder key = new StringBuilder();
+            int depth = 1 + random.nextInt(5);
+            for (int d = 0; d < depth; d++) {
+                if (d > 0) {
+                    key.append('.');
+                }
+                key.append(segments[random.nextInt(segments.length)]);
+                if (random.nextBoolean()) {
+                    key.append(random.nextInt(20));
+                }
+            }
+            expected.put(key.toString(), "value" + random.nextInt(50));
+        }
+        expected.put("", "empty");
+        CompactPropertyMap map = CompactPropertyMap.of(expected);
+
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<String, String> en : expected.entrySet()) {
+            assertEquals(en.getKey(), en.getValue(), map.get(en.getKey()));
+            assertNull(map.get(en.getKey() + ".missing"));
+            assertNull(map.get(en.getKey() + "\u00ff"));
+            if (!en.getKey().isEmpty()) {
+                String shorter = en.getKey().substring(0, en.getKey().length() - 1);
+                assertEquals(expected.get(shorter), map.get(shorter));
+            }
+        }
+        assertNull(map.get("zzz"));
+        assertNull(map.get(42));
+        assertEquals(expected, map);
+        assertEquals(expected, new HashMap<>(map));
+    }
+
+    @Test
+    public void testValuesAreDeduplicated() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("a", new String("shared"));
+        properties.put("b", new String("shared"));
+        CompactPropertyMap map = CompactPropertyMap.of(properties);
+        assertSame(map.get("a"), map.get("b"));
+    }
+
+    @Test
+    public void testEmpty() {
+        CompactPropertyMap map = CompactPropertyMap.of(new HashMap<>());
+        assertTrue(map.isEmpty());
+        assertNull(map.get("a"));
+        assertFalse(map.entrySet().iterator().hasNext());
+    }
+
+    @Test
+    public void testCompactPropertiesFile() {
+        URL file = Thread.currentThread().getContextClassLoader().getResource("testfile.properties");
+        PropertiesFilePropertySource compact = new PropertiesFilePropertySource(file, true);
+        PropertiesFilePropertySource plain = new PropertiesFilePropertySource(file, false);
+        assertTrue(compact.getProperties() instanceof CompactPropertyMap);
+        assertEquals(plain.getProperties(), compact.getProperties());
+        for (String key : Arrays.asList("key1", "key3", "nonpresentkey")) {
+            assertEquals(plain.get(key), compact.get(key));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.test.propertysource;
+
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.core.internal.DefaultConfiguration;
+import org.apache.tamaya.core.internal.DefaultConfigurationContext;
+import org.apache.tamaya.core.propertysource.EnvironmentPropertySource;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+public class EnvironmentPropertySourceTest {
+
+    @Test
+    public void testGet() throws Exception {
+        EnvironmentPropertySource propertySource = new EnvironmentPropertySource(false);
+        for (Map.Entry<String, String> en : System.getenv().entrySet()) {
+            Assert.assertEquals(en.getValue(), propertySource.get(en.getKey()));
+        }
+        Assert.assertFalse(propertySource.isRelaxedBinding());
+    }
+
+    @Test
+    public void testNormalizeKey() throws Exception {
+        Assert.assertEquals("DB_POOL_MAX_SIZE", EnvironmentPropertySource.normalizeKey("db.pool.max-size"));
+        Assert.assertEquals("DB_POOL_MAX_SIZE", EnvironmentPropertySource.normalizeKey("DB_POOL_MAX_SIZE"));
+        Assert.assertEquals("A_B_C", EnvironmentPropertySource.normalizeKey("a/b-C"));
+    }
+
+    @Test
+    public void testRelaxedBinding() throws Exception {
+        EnvironmentPropertySource propertySource = new EnvironmentPropertySource(true);
+        Assert.assertTrue(propertySource.isRelaxedBinding());
+        for (Map.Entry<String, String> en : System.getenv().entrySet()) {
+            String key = en.getKey();
+            if (key.equals(EnvironmentPropertySource.normalizeKey(key))) {
+                String relaxedKey = key.toLowerCase(Locale.ENGLISH).replace('_', '.');
+                Assert.assertEquals(en.getValue(), propertySource.get(relaxedKey));
+                Assert.assertEquals(en.getValue(), propertySource.get(relaxedKey.replace('.', '-')));
+            }
+        }
+        Assert.assertNull(new EnvironmentPropertySource(false).get("environment.property.source.test.foo"));
+    }
+
+    @Test
+    public void testRelaxedLookupsAreRepeatable() throws Exception {
+        EnvironmentPropertySource propertySource = new EnvironmentPropertySource(true);
+        for (int i = 0; i < 2; i++) {
+            Assert.assertNull(propertySource.get("environment.property.source.test.foo"));
+            for (Map.Entry<String, String> en : System.getenv().entrySet()) {
+                Assert.assertEquals(en.getValue(), propertySource.get(en.getKey()));
+            }
+        }
+    }
+
+    @Test
+    public void testRelaxedBindingWithEffectiveIndex() throws Exception {
+        Assert.assertFalse(new EnvironmentPropertySource(true).isScannable());
+        Assert.assertTrue(new EnvironmentPropertySource(false).isScannable());
+        DefaultConfigurationContext context = new DefaultConfigurationContext();
+        context.addPropertySources(new EnvironmentPropertySource(true) {
+            @Override
+            public int getOrdinal() {
+                return 5000;
+            }
+        });
+        Configuration config = new DefaultConfiguration(context);
+        Map<String, String> expected = new HashMap<>();
+        for (Map.Entry<String, String> en : System.getenv().entrySet()) {
+            String key = en.getKey();
+            if (key.equals(EnvironmentPropertySource.normalizeKey(key)) && !en.getValue().isEmpty()) {
+                String relaxedKey = key.toLowerCase(Locale.ENGLISH).replace('_', '.');
+                expected.put(relaxedKey, config.get(relaxedKey));
+                Assert.assertNotNull(expected.get(relaxedKey));
+            }
+        }
+        context.setEffectiveIndexEnabled(true);
+        for (Map.Entry<String, String> en : expected.entrySet()) {
+            Assert.assertEquals(en.getValue(), config.get(en.getKey()));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.test.propertysource;
+
+import org.apache.tamaya.ConfigException;
+import org.apache.tamaya.core.propertysource.DefaultOrdinal;
+import org.apache.tamaya.core.propertysource.MappedPropertySource;
+import org.apache.tamaya.spi.PropertySource;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MappedPropertySourceTest {
+
+    @Test
+    public void testLookups() throws IOException {
+        Map<String, String> expected = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            expected.put("flags.module" + (i % 17) + ".flag" + i, i % 3 == 0 ? "" : "value" + i);
+        }
+        // "Aa" and "BB" have the same hash code
+        expected.put("Aa", "first");
+        expected.put("BB", "second");
+        expected.put("\u00fcber.\u65e5\u672c", "\u00e4\u00f6\u00fc");
+        Path file = Files.createTempFile("mapped", ".bin");
+        try {
+            MappedPropertySource.write(expected, file);
+            MappedPropertySource propertySource = new MappedPropertySource(file);
+
+            for (Map.Entry<String, String> en : expected.entrySet()) {
+                assertEquals(en.getKey(), en.getValue(), propertySource.get(en.getKey()));
+                assertNull(propertySource.get(en.getKey() + ".missing"));
+            }
+            assertNull(propertySource.get("Ab"));
+            assertEquals(DefaultOrdinal.FILE_PROPERTIES, propertySource.getOrdinal());
+            assertEquals(file.toUri().toString(), propertySource.getName());
+            assertFalse(propertySource.isScannable());
+            Map<String, String> properties = propertySource.getProperties();
+            assertEquals(expected.size(), properties.size());
+            assertTrue(properties.containsKey("Aa"));
+            assertFalse(properties.containsKey("missing"));
+            assertEquals(expected, new HashMap<>(properties));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testOrdinalAndEmptyFile() throws IOException {
+        Path file = Files.createTempFile("mapped", ".bin");
+        try {
+            MappedPropertySource.write(Collections.emptyMap(), file);
+            MappedPropertySource propertySource = new MappedPropertySource(file);
+            assertNull(propertySource.get("a"));
+            assertTrue(propertySource.getProperties().isEmpty());
+
+            MappedPropertySource.write(Collections.singletonMap(PropertySource.TAMAYA_ORDINAL, "42"), file);
+            assertEquals(42, new MappedPropertySource(file).getOrdinal());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testInvalidFile() throws IOException {
+        Path file = Files.createTempFile("mapped", ".properties");
+        try {
+            Files.write(file, "key=value\nother=value\n".getBytes(StandardCharsets.ISO_8859_1));
+            new MappedPropertySource(file);
+            fail("ConfigException expected.");
+        } catch (ConfigException e) {
+            // expected
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testFullTableIsProbedOnce() throws IOException {
+        Path file = Files.createTempFile("mapped", ".bin");
+        try {
+            writeFullTable(file, 24);
+            MappedPropertySource propertySource = new MappedPropertySource(file);
+            assertEquals("b", propertySource.get("a"));
+            assertNull(propertySource.get("missing"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testCorruptOffsets() throws IOException {
+        Path file = Files.createTempFile("mapped", ".bin");
+        try {
+            writeFullTable(file, 4);
+            assertCorrupt(file);
+            writeFullTable(file, (int) Files.size(file));
+            assertCorrupt(file);
+            writeFullTable(file, 24);
+            patchInt(file, 33, Integer.MAX_VALUE);
+            assertCorrupt(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Writes the entry a=b at offset 24 and fills both slots of the table with the given offset.
+     */
+    private static void writeFullTable(Path file, int offset) throws IOException {
+        MappedPropertySource.write(Collections.singletonMap("a", "b"), file);
+        patchInt(file, 16, offset);
+        patchInt(file, 20, offset);
+    }
+
+    private static void assertCorrupt(Path file) {
+        try {
+            // the ordinal is looked up on creation already
+            new MappedPropertySource(file).get("a");
+            fail("ConfigException expected.");
+        } catch (ConfigException e) {
+            // expected
+        }
+    }
+
+    private static void patchInt(Path file, long position, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer bytes = ByteBuffer.allocate(4);
+            bytes.putInt(value).flip();
+            channel.write(bytes, position);
+        }
+    }
+}
@@ -18,14 +18,18 @@
  */
 package org.apache.tamaya.core.test.propertysource;
 
+import org.apache.tamaya.core.propertysource.ChangeDetectionStrategies;
 import org.apache.tamaya.core.propertysource.DefaultOrdinal;
 import org.apache.tamaya.core.propertysource.SystemPropertySource;
+import org.apache.tamaya.core.propertysource.VersionedProperties;
 import org.apache.tamaya.spi.PropertySource;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class SystemPropertySourceTest {
 
@@ -85,6 +89,141 @@ public class SystemPropertySourceTest {
         }
     }
 
+    @Test
+    public void testManualRefresh() throws Exception {
+        SystemPropertySource propertySource = new SystemPropertySource(ChangeDetectionStrategies.manual());
+        AtomicInteger changes = new AtomicInteger();
+        propertySource.addChangeListener(source -> changes.incrementAndGet());
+        try {
+            System.setProperty("test.manual", "myTestVal");
+            Assert.assertNull(propertySource.get("test.manual"));
+
+            propertySource.refresh();
+            Assert.assertEquals("myTestVal", propertySource.get("test.manual"));
+            Assert.assertEquals(1, changes.get());
+
+            propertySource.refresh();
+            Assert.assertEquals(1, changes.get());
+        } finally {
+            System.clearProperty("test.manual");
+        }
+    }
+
+    @Test
+    public void testDefaultIsImmediate() throws Exception {
+        System.clearProperty(ChangeDetectionStrategies.STRATEGY_PROPERTY);
+        Assert.assertEquals("hash", new SystemPropertySource().getChangeDetectionStrategy().toString());
+
+        Properties original = System.getProperties();
+        try {
+            VersionedProperties.install();
+            Assert.assertEquals("version", new SystemPropertySource().getChangeDetectionStrategy().toString());
+        } finally {
+            System.setProperties(original);
+        }
+    }
+
+    @Test
+    public void testThrottledHashing() throws Exception {
+        SystemPropertySource propertySource = new SystemPropertySource(
+                ChangeDetectionStrategies.throttledHashing(1, TimeUnit.HOURS));
+        try {
+            System.setProperty("test.throttled", "myTestVal");
+            Assert.assertNull(propertySource.get("test.throttled"));
+        } finally {
+            System.clearProperty("test.throttled");
+        }
+
+        propertySource = new SystemPropertySource(ChangeDetectionStrategies.throttledHashing(10, TimeUnit.MILLISECONDS));
+        try {
+            System.setProperty("test.throttled", "myTestVal");
+            long timeout = System.currentTimeMillis() + 5000;
+            while (propertySource.get("test.throttled") == null && System.currentTimeMillis() < timeout) {
+                Thread.sleep(10);
+            }
+            Assert.assertEquals("myTestVal", propertySource.get("test.throttled"));
+        } finally {
+            System.clearProperty("test.throttled");
+        }
+    }
+
+    @Test
+    public void testVersionCountingDoesNotInstallProperties() throws Exception {
+        Properties original = System.getProperties();
+        try {
+            SystemPropertySource propertySource = new SystemPropertySource(ChangeDetectionStrategies.versionCounting());
+            Assert.assertSame(original, System.getProperties());
+
+            // without installed versioned properties, hash codes are compared
+            System.setProperty("test.version", "myTestVal");
+            Assert.assertEquals("myTestVal", propertySource.get("test.version"));
+            Assert.assertSame(original, System.getProperties());
+        } finally {
+            System.clearProperty("test.version");
+            System.setProperties(original);
+        }
+    }
+
+    @Test
+    public void testVersionedPropertiesKeepDefaults() throws Exception {
+        Properties defaults = new Properties();
+        defaults.setProperty("a", "defaultA");
+        defaults.setProperty("b", "defaultB");
+        Properties properties = new Properties(defaults);
+        properties.setProperty("a", "A");
+
+        VersionedProperties versioned = new VersionedProperties(properties);
+        Assert.assertEquals("A", versioned.getProperty("a"));
+        Assert.assertEquals("defaultB", versioned.getProperty("b"));
+        Assert.assertFalse(versioned.containsKey("b"));
+        Assert.assertEquals(properties.stringPropertyNames(), versioned.stringPropertyNames());
+    }
+
+    @Test
+    public void testVersionCounting() throws Exception {
+        Properties original = System.getProperties();
+        try {
+            VersionedProperties installed = VersionedProperties.install();
+            Assert.assertSame(installed, System.getProperties());
+            Assert.assertSame(installed, VersionedProperties.install());
+            SystemPropertySource propertySource = new SystemPropertySource(ChangeDetectionStrategies.versionCounting());
+
+            System.setProperty("test.version", "myTestVal");
+            Assert.assertEquals("myTestVal", propertySource.get("test.version"));
+            checkWithSystemProperties(propertySource.getProperties());
+
+            System.clearProperty("test.version");
+            Assert.assertNull(propertySource.get("test.version"));
+
+            // replacing the system properties is detected as well, but they are not installed again
+            Properties replaced = new Properties();
+            replaced.putAll(original);
+            replaced.setProperty("test.version", "replaced");
+            System.setProperties(replaced);
+            Assert.assertEquals("replaced", propertySource.get("test.version"));
+            Assert.assertSame(replaced, System.getProperties());
+        } finally {
+            System.setProperties(original);
+        }
+    }
+
+    @Test
+    public void testPeriodicRescan() throws Exception {
+        SystemPropertySource propertySource = new SystemPropertySource(
+                ChangeDetectionStrategies.periodic(10, TimeUnit.MILLISECONDS));
+        try {
+            System.setProperty("test.periodic", "myTestVal");
+            long timeout = System.currentTimeMillis() + 5000;
+            while (propertySource.get("test.periodic") == null && System.currentTimeMillis() < timeout) {
+                Thread.sleep(10);
+            }
+            Assert.assertEquals("myTestVal", propertySource.get("test.periodic"));
+        } finally {
+            propertySource.stopChangeDetection();
+            System.clearProperty("test.periodic");
+        }
+    }
+
     private void checkWithSystemProperties(Map<String, String> toCheck) {
         Properties systemEntries = System.getProperties();
 
@@ -19,6 +19,8 @@
 package org.apache.tamaya.core.test.provider;
 
 import org.apache.tamaya.ConfigurationProvider;
+import org.apache.tamaya.core.propertysource.DefaultOrdinal;
+import org.apache.tamaya.core.propertysource.LazyPropertySource;
 import org.apache.tamaya.core.provider.JavaConfigurationProvider;
 import org.apache.tamaya.spi.PropertySource;
 import org.junit.Assert;
@@ -57,4 +59,21 @@ public class JavaConfigurationProviderTest {
 
     }
 
+    @Test
+    public void testLazyJavaConfigurationProvider() {
+
+        Collection<PropertySource> propertySources = new JavaConfigurationProvider(true).getPropertySources();
+
+        assertThat(propertySources, hasSize(1));
+
+        LazyPropertySource propertySource = (LazyPropertySource) propertySources.iterator().next();
+
+        Assert.assertEquals(DefaultOrdinal.FILE_PROPERTIES, propertySource.getOrdinal());
+        Assert.assertFalse(propertySource.isLoaded());
+
+        Assert.assertEquals("javaconf-value1", propertySource.get("confkey1"));
+        Assert.assertTrue(propertySource.isLoaded());
+        assertThat(propertySource.getProperties().keySet(), hasSize(5));
+    }
+
 }
@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks selected by the JMH command line arguments once for each thread count configured by
+ * {@value #THREADS_PROPERTY} (by default 1, 8 and 64 threads), with the GC profiler reporting allocation rates
+ * and GC activity. The results of each run are written to {@code jmh-result-<threads>threads.json}.
+ * <pre>
+ * mvn -Pbenchmarks package
+ * java -jar modules/benchmarks/target/benchmarks.jar LookupBenchmark
+ * </pre>
+ */
+public final class BenchmarkRunner {
+    /** System property to define the thread counts, separated by commas. */
+    public static final String THREADS_PROPERTY = "tamaya.benchmarks.threads";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String... args) throws Exception {
+        Options commandLine = new CommandLineOptions(args);
+        for (String threads : System.getProperty(THREADS_PROPERTY, "1,8,64").split(",")) {
+            int threadCount = Integer.parseInt(threads.trim());
+            Options options = new OptionsBuilder()
+                    .parent(commandLine)
+                    .threads(threadCount)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("jmh-result-" + threadCount + "threads.json")
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks;
+
+import org.apache.tamaya.core.propertysource.CompactPropertyMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups in a {@link CompactPropertyMap} compared with the {@link HashMap} used by default for properties files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompactPropertyMapBenchmark {
+
+    /** The number of keys. */
+    @Param({"1000", "50000"})
+    public int keys;
+
+    /** The map implementation. */
+    @Param({"hash", "compact"})
+    public String storage;
+
+    private Map<String, String> properties;
+    private String existingKey;
+
+    @Setup
+    public void setup() {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < keys; i++) {
+            values.put("com.example.application.module" + (i % 50) + ".component" + (i % 1000) + ".setting" + i,
+                    i % 10 == 0 ? "value" + i : "true");
+        }
+        properties = "compact".equals(storage) ? CompactPropertyMap.of(values) : Collections.unmodifiableMap(values);
+        int i = keys / 2;
+        existingKey = "com.example.application.module" + (i % 50) + ".component" + (i % 1000) + ".setting" + i;
+    }
+
+    @Benchmark
+    public String getExisting() {
+        return properties.get(existingKey);
+    }
+
+    @Benchmark
+    public String getMissing() {
+        return properties.get("com.example.application.module7.missing");
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks;
+
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.TypeLiteral;
+import org.apache.tamaya.core.internal.DefaultConfiguration;
+import org.apache.tamaya.core.internal.DefaultConfigurationContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typed lookups for each built-in converter, for an enum and for a type converted by its String constructor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversionBenchmark {
+
+    /** The target types and the values converted. */
+    private static final Map<String, Object[]> TYPES = new HashMap<>();
+
+    static {
+        TYPES.put("Boolean", new Object[]{Boolean.class, "true"});
+        TYPES.put("Byte", new Object[]{Byte.class, "42"});
+        TYPES.put("Character", new Object[]{Character.class, "c"});
+        TYPES.put("Short", new Object[]{Short.class, "4242"});
+        TYPES.put("Integer", new Object[]{Integer.class, "424242"});
+        TYPES.put("Long", new Object[]{Long.class, "4242424242"});
+        TYPES.put("Float", new Object[]{Float.class, "42.42"});
+        TYPES.put("Double", new Object[]{Double.class, "4242.4242"});
+        TYPES.put("BigDecimal", new Object[]{BigDecimal.class, "4242424242424242.4242"});
+        TYPES.put("BigInteger", new Object[]{BigInteger.class, "424242424242424242424242"});
+        TYPES.put("Number", new Object[]{Number.class, "4242.42"});
+        TYPES.put("Currency", new Object[]{Currency.class, "CHF"});
+        TYPES.put("LocalDate", new Object[]{LocalDate.class, "2015-04-02"});
+        TYPES.put("LocalTime", new Object[]{LocalTime.class, "12:42:42"});
+        TYPES.put("LocalDateTime", new Object[]{LocalDateTime.class, "2015-04-02T12:42:42"});
+        TYPES.put("ZoneId", new Object[]{ZoneId.class, "Europe/Zurich"});
+        TYPES.put("Enum", new Object[]{TimeUnit.class, "SECONDS"});
+        TYPES.put("StringConstructor", new Object[]{URI.class, "http://tamaya.incubator.apache.org"});
+    }
+
+    /** The target type. */
+    @Param({"Boolean", "Byte", "Character", "Short", "Integer", "Long", "Float", "Double", "BigDecimal",
+            "BigInteger", "Number", "Currency", "LocalDate", "LocalTime", "LocalDateTime", "ZoneId", "Enum",
+            "StringConstructor"})
+    public String type;
+
+    /** Flag, if the conversion cache is used. */
+    @Param({"false", "true"})
+    public boolean conversionCache;
+
+    private Configuration configuration;
+    private String key;
+    private TypeLiteral<?> typeLiteral;
+
+    @Setup
+    public void setup() {
+        Map<String, String> properties = new HashMap<>();
+        for (Map.Entry<String, Object[]> en : TYPES.entrySet()) {
+            properties.put("value." + en.getKey(), (String) en.getValue()[1]);
+        }
+        DefaultConfigurationContext context = new DefaultConfigurationContext();
+        context.addPropertySources(new MapPropertySource("values", 1000, properties));
+        context.setConversionCacheEnabled(conversionCache);
+        configuration = new DefaultConfiguration(context);
+        key = "value." + type;
+        typeLiteral = TypeLiteral.of((Class<?>) TYPES.get(type)[0]);
+    }
+
+    @Benchmark
+    public Object getTyped() {
+        return configuration.get(key, typeLiteral);
+    }
+}
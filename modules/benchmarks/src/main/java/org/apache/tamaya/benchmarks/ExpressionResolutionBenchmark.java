@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks;
+
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.builder.ConfigurationBuilder;
+import org.apache.tamaya.resolver.internal.DefaultExpressionEvaluator;
+import org.apache.tamaya.resolver.internal.ExpressionResolutionFilter;
+import org.apache.tamaya.resolver.spi.ExpressionEvaluator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expression resolution by {@link DefaultExpressionEvaluator}, directly and as
+ * {@link ExpressionResolutionFilter} during a lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpressionResolutionBenchmark {
+
+    /** The values resolved. */
+    private static final Map<String, String> EXPRESSIONS = new HashMap<>();
+
+    static {
+        EXPRESSIONS.put("plain", "a value without any expression");
+        EXPRESSIONS.put("single", "${sys:java.version}");
+        EXPRESSIONS.put("embedded", "java ${sys:java.version} on ${sys:os.name}");
+        EXPRESSIONS.put("escaped", "\\${sys:java.version} is not resolved");
+    }
+
+    /** The kind of value resolved. */
+    @Param({"plain", "single", "embedded", "escaped"})
+    public String expression;
+
+    private ExpressionEvaluator evaluator;
+    private Configuration configuration;
+    private String value;
+
+    @Setup
+    public void setup() {
+        evaluator = new DefaultExpressionEvaluator();
+        value = EXPRESSIONS.get(expression);
+        Map<String, String> properties = new HashMap<>();
+        properties.put("expression", value);
+        configuration = new ConfigurationBuilder()
+                .addPropertySources(new MapPropertySource("values", 1000, properties))
+                .addPropertyFilters(new ExpressionResolutionFilter())
+                .build();
+    }
+
+    @Benchmark
+    public String evaluateExpression() {
+        return evaluator.evaluateExpression("expression", value);
+    }
+
+    @Benchmark
+    public String getResolved() {
+        return configuration.get("expression");
+    }
+}
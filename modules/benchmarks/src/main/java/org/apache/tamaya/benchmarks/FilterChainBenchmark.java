@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks;
+
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.builder.ConfigurationBuilder;
+import org.apache.tamaya.spi.FilterScope;
+import org.apache.tamaya.spi.PropertyFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Lookups with a growing number of PropertyFilters. Each filter only changes the values of its own keys, so for
+ * most keys the chain is evaluated once and then confirmed unchanged, whereas for a filtered key the chain is
+ * evaluated a second time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterChainBenchmark {
+
+    /** The number of filters. */
+    @Param({"0", "1", "5", "20"})
+    public int depth;
+
+    /** Flag, if the filters declare the key they apply to by {@link PropertyFilter#getScope()}. */
+    @Param({"false", "true"})
+    public boolean scoped;
+
+    private Configuration configuration;
+
+    @Setup
+    public void setup() {
+        Map<String, String> properties = MapPropertySource.createProperties("app", 1000);
+        ConfigurationBuilder builder = new ConfigurationBuilder()
+                .addPropertySources(new MapPropertySource("values", 1000, properties));
+        for (int i = 0; i < depth; i++) {
+            builder.addPropertyFilters(new MaskingFilter("app.key" + i, scoped));
+        }
+        configuration = builder.build();
+    }
+
+    @Benchmark
+    public String getUnfilteredKey() {
+        return configuration.get("app.key999");
+    }
+
+    @Benchmark
+    public String getFilteredKey() {
+        return configuration.get("app.key0");
+    }
+
+    @Benchmark
+    public Map<String, String> getProperties() {
+        return configuration.getProperties();
+    }
+
+    /**
+     * Filter masking the value of a single key.
+     */
+    private static final class MaskingFilter implements PropertyFilter {
+        private final String key;
+        private final FilterScope scope;
+
+        private MaskingFilter(String key, boolean scoped) {
+            this.key = key;
+            this.scope = scoped ? FilterScope.ofKeyPatterns(Pattern.quote(key)) : FilterScope.ALL;
+        }
+
+        @Override
+        public String filterProperty(String key, String value) {
+            return this.key.equals(key) ? "*****" : value;
+        }
+
+        @Override
+        public FilterScope getScope() {
+            return scope;
+        }
+    }
+}
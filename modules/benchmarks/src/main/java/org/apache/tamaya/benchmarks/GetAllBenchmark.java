@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks;
+
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.builder.ConfigurationBuilder;
+import org.apache.tamaya.spi.BatchPropertyFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading a batch of keys with {@link Configuration#getAll(java.util.Collection)} compared to reading the same keys
+ * one by one into a map. Half of the keys are defined by the source with the lowest ordinal, so all sources are
+ * probed for them. The optional {@link BatchPropertyFilter} simulates a fixed cost per call, like a round trip to a
+ * remote service, which a batch read pays once per filter cycle instead of once per key.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GetAllBenchmark {
+
+    /** The number of keys read. */
+    @Param({"10", "100"})
+    public int keys;
+
+    /** Flag, if a {@link BatchPropertyFilter} is registered. */
+    @Param({"false", "true"})
+    public boolean filtered;
+
+    private Configuration configuration;
+
+    private List<String> keyList;
+
+    @Setup
+    public void setup() {
+        ConfigurationBuilder builder = new ConfigurationBuilder();
+        for (int i = 0; i < 10; i++) {
+            Map<String, String> properties = MapPropertySource.createProperties("source" + i, keys);
+            builder.addPropertySources(new MapPropertySource("source" + i, 1000 + i, properties));
+        }
+        if (filtered) {
+            builder.addPropertyFilters(new MaskingFilter());
+        }
+        configuration = builder.build();
+        keyList = new ArrayList<>();
+        for (int i = 0; i < keys; i++) {
+            keyList.add((i % 2 == 0 ? "source0" : "source9") + ".key" + i);
+        }
+    }
+
+    @Benchmark
+    public Map<String, String> getAll() {
+        return configuration.getAll(keyList);
+    }
+
+    @Benchmark
+    public Map<String, String> getEach() {
+        Map<String, String> result = new LinkedHashMap<>();
+        for (String key : keyList) {
+            String value = configuration.get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Batch filter masking the values of the keys ending with {@code 0}, with a fixed cost per call.
+     */
+    private static final class MaskingFilter implements BatchPropertyFilter {
+        /** The CPU tokens consumed per call. */
+        private static final long CALL_COST = 1000;
+
+        @Override
+        public Map<String, String> filterProperties(Map<String, String> properties) {
+            Blackhole.consumeCPU(CALL_COST);
+            Map<String, String> result = new HashMap<>();
+            for (Map.Entry<String, String> en : properties.entrySet()) {
+                String value = mask(en.getKey(), en.getValue());
+                if (!Objects.equals(value, en.getValue())) {
+                    result.put(en.getKey(), value);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public String filterProperty(String key, String value) {
+            Blackhole.consumeCPU(CALL_COST);
+            return mask(key, value);
+        }
+
+        private static String mask(String key, String value) {
+            return key.endsWith("0") ? "*****" : value;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks;
+
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.core.internal.DefaultConfiguration;
+import org.apache.tamaya.core.internal.DefaultConfigurationContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluation of the full configuration map. The keys are spread over three PropertySources, a third of them being
+ * overridden.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GetPropertiesBenchmark {
+
+    /** The total number of keys. */
+    @Param({"1000", "10000", "100000"})
+    public int keys;
+
+    /** Flag, if the effective index is used. */
+    @Param({"false", "true"})
+    public boolean effectiveIndex;
+
+    private Configuration configuration;
+
+    @Setup
+    public void setup() {
+        DefaultConfigurationContext context = new DefaultConfigurationContext();
+        int perSource = keys / 3;
+        Map<String, String> base = MapPropertySource.createProperties("app", perSource * 2);
+        Map<String, String> overrides = MapPropertySource.createProperties("app", perSource);
+        Map<String, String> other = MapPropertySource.createProperties("other", keys - perSource * 2);
+        context.addPropertySources(new MapPropertySource("base", 1000, base),
+                new MapPropertySource("overrides", 1001, overrides),
+                new MapPropertySource("other", 1002, other));
+        context.setEffectiveIndexEnabled(effectiveIndex);
+        configuration = new DefaultConfiguration(context);
+    }
+
+    @Benchmark
+    public Map<String, String> getProperties() {
+        return configuration.getProperties();
+    }
+}
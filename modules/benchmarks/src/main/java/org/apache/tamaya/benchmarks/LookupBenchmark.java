@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks;
+
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.core.internal.DefaultConfiguration;
+import org.apache.tamaya.core.internal.DefaultConfigurationContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single key lookups with a growing number of PropertySources, for the lookup modes supported by
+ * {@link DefaultConfigurationContext}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupBenchmark {
+
+    /** The number of PropertySources. */
+    @Param({"1", "10", "100"})
+    public int sources;
+
+    /** The lookup mode: plain evaluation, with value cache or with effective index. */
+    @Param({"none", "valueCache", "effectiveIndex"})
+    public String mode;
+
+    private Configuration configuration;
+
+    @Setup
+    public void setup() {
+        DefaultConfigurationContext context = new DefaultConfigurationContext();
+        for (int i = 0; i < sources; i++) {
+            Map<String, String> properties = MapPropertySource.createProperties("source" + i, 100);
+            properties.put("shared.key", "source" + i);
+            context.addPropertySources(new MapPropertySource("source" + i, 1000 + i, properties));
+        }
+        context.setValueCacheEnabled("valueCache".equals(mode));
+        context.setEffectiveIndexEnabled("effectiveIndex".equals(mode));
+        configuration = new DefaultConfiguration(context);
+    }
+
+    /** Key defined by all sources, found in the source with the highest ordinal. */
+    @Benchmark
+    public String getOverriddenKey() {
+        return configuration.get("shared.key");
+    }
+
+    /** Key only defined by the source with the lowest ordinal. */
+    @Benchmark
+    public String getLowestOrdinalKey() {
+        return configuration.get("source0.key42");
+    }
+
+    /** Key not defined at all, all sources are probed. */
+    @Benchmark
+    public String getMissingKey() {
+        return configuration.get("missing.key");
+    }
+}
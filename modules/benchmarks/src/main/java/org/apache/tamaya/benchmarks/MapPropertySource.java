@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks;
+
+import org.apache.tamaya.core.propertysource.BasePropertySource;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Simple map based PropertySource used to set up the benchmarks.
+ */
+public class MapPropertySource extends BasePropertySource {
+
+    private final String name;
+    private final Map<String, String> properties;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param name       the name, not null.
+     * @param ordinal    the ordinal.
+     * @param properties the properties, not null.
+     */
+    public MapPropertySource(String name, int ordinal, Map<String, String> properties) {
+        this.name = Objects.requireNonNull(name);
+        this.properties = Collections.unmodifiableMap(new HashMap<>(properties));
+        initializeOrdinal(ordinal);
+    }
+
+    /**
+     * Creates the properties {@code prefix.key0 ... prefix.key[count-1]}.
+     *
+     * @param prefix the key prefix, not null.
+     * @param count  the number of keys.
+     * @return the properties, never null.
+     */
+    public static Map<String, String> createProperties(String prefix, int count) {
+        Map<String, String> properties = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            properties.put(prefix + ".key" + i, "value" + i);
+        }
+        return properties;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    protected String getValue(String key) {
+        return properties.get(key);
+    }
+
+    @Override
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks;
+
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.TypeLiteral;
+import org.apache.tamaya.core.internal.DefaultConfiguration;
+import org.apache.tamaya.core.internal.DefaultConfigurationContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The primitive accessors of {@link Configuration} compared with the typed lookup of the same values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveAccessorBenchmark {
+
+    private static final TypeLiteral<Integer> INTEGER_TYPE = TypeLiteral.of(Integer.class);
+    private static final TypeLiteral<Long> LONG_TYPE = TypeLiteral.of(Long.class);
+
+    private Configuration configuration;
+
+    @Setup
+    public void setup() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("primitive.boolean", "true");
+        properties.put("primitive.int", "424242");
+        properties.put("primitive.long", "4242424242");
+        properties.put("primitive.double", "4242.4242");
+        DefaultConfigurationContext context = new DefaultConfigurationContext();
+        context.addPropertySources(new MapPropertySource("values", 1000, properties));
+        configuration = new DefaultConfiguration(context);
+    }
+
+    @Benchmark
+    public boolean getBoolean() {
+        return configuration.getBoolean("primitive.boolean", false);
+    }
+
+    @Benchmark
+    public int getInt() {
+        return configuration.getInt("primitive.int", 0);
+    }
+
+    @Benchmark
+    public Integer getIntTyped() {
+        return configuration.get("primitive.int", INTEGER_TYPE);
+    }
+
+    @Benchmark
+    public long getLong() {
+        return configuration.getLong("primitive.long", 0L);
+    }
+
+    @Benchmark
+    public Long getLongTyped() {
+        return configuration.get("primitive.long", LONG_TYPE);
+    }
+
+    @Benchmark
+    public double getDouble() {
+        return configuration.getDouble("primitive.double", 0.0);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks;
+
+import org.apache.tamaya.core.propertysource.EnvironmentPropertySource;
+import org.apache.tamaya.core.propertysource.SystemPropertySource;
+import org.apache.tamaya.spi.PropertySource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single key lookups of the built-in PropertySources, compared with looking the key up in their full property
+ * maps.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertySourceBenchmark {
+
+    private PropertySource environment;
+    private PropertySource relaxedEnvironment;
+    private PropertySource systemProperties;
+
+    @Setup
+    public void setup() {
+        environment = new EnvironmentPropertySource();
+        relaxedEnvironment = new EnvironmentPropertySource(true);
+        systemProperties = new SystemPropertySource();
+    }
+
+    @Benchmark
+    public String getEnvironment() {
+        return environment.get("PATH");
+    }
+
+    @Benchmark
+    public String getEnvironmentFromMap() {
+        return environment.getProperties().get("PATH");
+    }
+
+    @Benchmark
+    public String getEnvironmentRelaxed() {
+        return relaxedEnvironment.get("path");
+    }
+
+    @Benchmark
+    public String getSystemProperty() {
+        return systemProperties.get("java.version");
+    }
+
+    @Benchmark
+    public String getSystemPropertyFromMap() {
+        return systemProperties.getProperties().get("java.version");
+    }
+}
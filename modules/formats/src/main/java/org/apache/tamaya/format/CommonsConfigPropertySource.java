@@ -21,19 +21,22 @@ package org.apache.tamaya.format;
 import org.apache.commons.configuration.Configuration;
 import org.apache.tamaya.spi.PropertySource;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
 
 /**
- * PropertySource that wraps {@link org.apache.commons.configuration.Configuration}.
+ * PropertySource that wraps {@link org.apache.commons.configuration.Configuration}. Single keys are looked up
+ * directly, the full property map is only created on first call of {@link #getProperties()} and cached afterwards.
  */
 public class CommonsConfigPropertySource implements PropertySource {
 
     private Configuration commonsConfig;
     private int ordinal;
     private String name;
+    private volatile Map<String, String> properties;
 
     public CommonsConfigPropertySource(int ordinal, String name, Configuration commonsConfig) {
         this.commonsConfig = Objects.requireNonNull(commonsConfig);
@@ -42,7 +45,7 @@ public class CommonsConfigPropertySource implements PropertySource {
     }
 
     public CommonsConfigPropertySource(String name, Configuration commonsConfig) {
-        commonsConfig = Objects.requireNonNull(commonsConfig);
+        this.commonsConfig = Objects.requireNonNull(commonsConfig);
         this.name = Objects.requireNonNull(name);
         try {
             this.ordinal = commonsConfig.getInt(PropertySource.TAMAYA_ORDINAL);
@@ -68,12 +71,17 @@ public class CommonsConfigPropertySource implements PropertySource {
 
     @Override
     public Map<String, String> getProperties() {
-        Map<String, String> config = new HashMap<>();
-        Iterator<String> keyIter = commonsConfig.getKeys();
-        while (keyIter.hasNext()) {
-            String key = keyIter.next();
-            config.put(key, commonsConfig.getString(key));
+        Map<String, String> properties = this.properties;
+        if (properties == null) {
+            Map<String, String> config = new HashMap<>();
+            Iterator<String> keyIter = commonsConfig.getKeys();
+            while (keyIter.hasNext()) {
+                String key = keyIter.next();
+                config.put(key, commonsConfig.getString(key));
+            }
+            properties = Collections.unmodifiableMap(config);
+            this.properties = properties;
         }
-        return config;
+        return properties;
     }
 }
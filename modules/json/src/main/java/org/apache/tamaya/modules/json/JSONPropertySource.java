@@ -22,29 +22,29 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.apache.tamaya.ConfigException;
+import org.apache.tamaya.core.propertysource.BasePropertySource;
 import org.apache.tamaya.core.propertysource.DefaultOrdinal;
-import org.apache.tamaya.spi.PropertySource;
 
 import java.io.File;
 import java.io.InputStream;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.StampedLock;
 
 import static java.lang.String.format;
 
 /**
- * Property source based on a JSON file.
+ * Property source based on a JSON file. The file is read on first access, afterwards keys are looked up without
+ * any locking.
  */
 public class JSONPropertySource
-    implements PropertySource {
+    extends BasePropertySource {
 
     private int priority = DefaultOrdinal.FILE_PROPERTIES;
     private InputResource source;
-    private HashMap<String, String> values;
+    private volatile Map<String, String> values;
 
     /**
      * Lock for internal synchronization.
@@ -63,17 +63,7 @@ public class JSONPropertySource
 
     @Override
     public int getOrdinal() {
-        Lock writeLock = propertySourceLock.asWriteLock();
-
-        try {
-            writeLock.lock();
-
-            if (values == null) {
-                readSource();
-            }
-        } finally {
-            writeLock.unlock();
-        }
+        getValues();
 
         return priority;
     }
@@ -84,27 +74,37 @@ public class JSONPropertySource
     }
 
     @Override
-    public String get(String key) {
-        Objects.requireNonNull(key, "Key must not be null");
-
-        return getProperties().get(key);
+    protected String getValue(String key) {
+        return getValues().get(key);
     }
 
     @Override
     public Map<String, String> getProperties() {
-        Lock writeLock = propertySourceLock.asWriteLock();
-
-        try {
-            writeLock.lock();
+        return getValues();
+    }
 
-            if (values == null) {
-                readSource();
+    /**
+     * Access the values read, reading the source on first access.
+     *
+     * @return the values, never null.
+     */
+    private Map<String, String> getValues() {
+        Map<String, String> values = this.values;
+        if (values == null) {
+            Lock writeLock = propertySourceLock.asWriteLock();
+
+            try {
+                writeLock.lock();
+
+                if (this.values == null) {
+                    readSource();
+                }
+                values = this.values;
+            } finally {
+                writeLock.unlock();
             }
-
-            return Collections.unmodifiableMap(values);
-        } finally {
-            writeLock.unlock();
         }
+        return values;
     }
 
     protected void readSource() {
@@ -121,13 +121,13 @@ public class JSONPropertySource
             JSONVisitor visitor = new JSONVisitor((ObjectNode) root, values);
             visitor.run();
 
-            this.values = values;
-
-            if (this.values.containsKey(TAMAYA_ORDINAL)) {
-                int newPriority = Integer.parseInt(this.values.get(TAMAYA_ORDINAL));
+            if (values.containsKey(TAMAYA_ORDINAL)) {
+                int newPriority = Integer.parseInt(values.get(TAMAYA_ORDINAL));
                 priority = newPriority;
-                this.values.remove(TAMAYA_ORDINAL);
+                values.remove(TAMAYA_ORDINAL);
             }
+
+            this.values = Collections.unmodifiableMap(values);
         }
         catch (Throwable t) {
             throw new ConfigException(format("Failed to read properties from %s", source.getDescription()), t);
@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.management;
+
+import org.apache.tamaya.ConfigException;
+import org.apache.tamaya.ConfigurationProvider;
+import org.apache.tamaya.core.internal.DefaultConfigurationContext;
+import org.apache.tamaya.core.metrics.DefaultConfigurationMetrics;
+import org.apache.tamaya.core.metrics.LatencyHistogram;
+import org.apache.tamaya.spi.ConfigurationContext;
+import org.apache.tamaya.spi.ConfigurationMetrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+
+/**
+ * Exports the metrics of a {@link DefaultConfigurationContext} as {@link ConfigurationMetricsMXBean}. The
+ * detailed metrics are only available, if the context uses {@link DefaultConfigurationMetrics}, custom
+ * {@link ConfigurationMetrics} implementations are expected to export their own values.
+ */
+public class ConfigurationMetricsExporter implements ConfigurationMetricsMXBean {
+    /** The object name used by {@link #register()}. */
+    public static final String OBJECT_NAME = "org.apache.tamaya:type=ConfigurationMetrics";
+    /** The number of keys returned by {@link #getHotKeys()}. */
+    private static final int HOT_KEYS = 20;
+
+    /** The context exported. */
+    private final DefaultConfigurationContext context;
+
+    /**
+     * Creates a new exporter.
+     *
+     * @param context the context, not null.
+     */
+    public ConfigurationMetricsExporter(DefaultConfigurationContext context) {
+        this.context = Objects.requireNonNull(context);
+    }
+
+    /**
+     * Registers the metrics of the current configuration context with the platform MBean server, using
+     * {@link #OBJECT_NAME}.
+     *
+     * @return the name registered.
+     * @throws ConfigException if the current context is not a {@link DefaultConfigurationContext}, or the
+     *                         registration failed.
+     */
+    public static ObjectName register() {
+        ConfigurationContext context = ConfigurationProvider.getConfigurationContext();
+        if (!(context instanceof DefaultConfigurationContext)) {
+            throw new ConfigException("Metrics are only supported for DefaultConfigurationContext, but was: " +
+                    context.getClass().getName());
+        }
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            register(ManagementFactory.getPlatformMBeanServer(), name, (DefaultConfigurationContext) context);
+            return name;
+        } catch (JMException e) {
+            throw new ConfigException("Failed to register configuration metrics.", e);
+        }
+    }
+
+    /**
+     * Registers the metrics of a context.
+     *
+     * @param server  the server, not null.
+     * @param name    the name to be used, not null.
+     * @param context the context, not null.
+     * @throws JMException if the registration failed.
+     */
+    public static void register(MBeanServer server, ObjectName name, DefaultConfigurationContext context)
+            throws JMException {
+        server.registerMBean(new ConfigurationMetricsExporter(context), name);
+    }
+
+    private DefaultConfigurationMetrics defaultMetrics() {
+        ConfigurationMetrics metrics = context.getMetrics();
+        return metrics instanceof DefaultConfigurationMetrics ? (DefaultConfigurationMetrics) metrics : null;
+    }
+
+    private long value(ToLongFunction<DefaultConfigurationMetrics> accessor) {
+        DefaultConfigurationMetrics metrics = defaultMetrics();
+        return metrics != null ? accessor.applyAsLong(metrics) : 0L;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return context.getMetrics() != null;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        if (enabled != isEnabled()) {
+            context.setMetrics(enabled ? new DefaultConfigurationMetrics() : null);
+        }
+    }
+
+    @Override
+    public long getAccessCount() {
+        return value(m -> m.getAccessLatency().getCount());
+    }
+
+    @Override
+    public long getMissCount() {
+        return value(DefaultConfigurationMetrics::getMissCount);
+    }
+
+    @Override
+    public long getMeanAccessNanos() {
+        return value(m -> m.getAccessLatency().getMeanNanos());
+    }
+
+    @Override
+    public long getP99AccessNanos() {
+        return value(m -> m.getAccessLatency().getPercentileNanos(0.99));
+    }
+
+    @Override
+    public long getMeanFilterNanos() {
+        return value(m -> m.getFilterLatency().getMeanNanos());
+    }
+
+    @Override
+    public long getMeanConversionNanos() {
+        return value(m -> m.getConversionLatency().getMeanNanos());
+    }
+
+    @Override
+    public long getConversionFailureCount() {
+        return value(DefaultConfigurationMetrics::getConversionFailureCount);
+    }
+
+    @Override
+    public Map<String, Long> getHotKeys() {
+        DefaultConfigurationMetrics metrics = defaultMetrics();
+        return metrics != null ? metrics.getHotKeys(HOT_KEYS) : Collections.emptyMap();
+    }
+
+    @Override
+    public Map<String, Long> getPropertySourceMeanNanos() {
+        DefaultConfigurationMetrics metrics = defaultMetrics();
+        if (metrics == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Map.Entry<String, LatencyHistogram> en : metrics.getPropertySourceLatencies().entrySet()) {
+            result.put(en.getKey(), en.getValue().getMeanNanos());
+        }
+        return result;
+    }
+
+    @Override
+    public long getValueCacheHitCount() {
+        return context.getValueCache().getHitCount();
+    }
+
+    @Override
+    public long getValueCacheMissCount() {
+        return context.getValueCache().getMissCount();
+    }
+
+    @Override
+    public long getConversionCacheHitCount() {
+        return context.getConversionCache().getHitCount();
+    }
+
+    @Override
+    public long getConversionCacheMissCount() {
+        return context.getConversionCache().getMissCount();
+    }
+
+    @Override
+    public void reset() {
+        DefaultConfigurationMetrics metrics = defaultMetrics();
+        if (metrics != null) {
+            metrics.reset();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.management;
+
+import java.util.Map;
+
+/**
+ * JMX view of the runtime metrics collected for the configuration access of a
+ * {@link org.apache.tamaya.core.internal.DefaultConfigurationContext}. Latencies are given in nanoseconds,
+ * percentiles are approximated by the upper bound of their histogram bucket.
+ */
+public interface ConfigurationMetricsMXBean {
+
+    /**
+     * Allows to check if metrics are collected.
+     *
+     * @return true, if metrics are collected.
+     */
+    boolean isEnabled();
+
+    /**
+     * Starts or stops collecting metrics.
+     *
+     * @param enabled the new state.
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * Access the number of keys accessed.
+     *
+     * @return the number of accesses.
+     */
+    long getAccessCount();
+
+    /**
+     * Access the number of keys accessed without finding a value.
+     *
+     * @return the number of accesses.
+     */
+    long getMissCount();
+
+    /**
+     * Access the mean latency of accessing a key.
+     *
+     * @return the mean latency.
+     */
+    long getMeanAccessNanos();
+
+    /**
+     * Access the 99th percentile of the latency of accessing a key.
+     *
+     * @return the latency.
+     */
+    long getP99AccessNanos();
+
+    /**
+     * Access the mean latency of applying the filters to a value.
+     *
+     * @return the mean latency.
+     */
+    long getMeanFilterNanos();
+
+    /**
+     * Access the mean latency of converting a value.
+     *
+     * @return the mean latency.
+     */
+    long getMeanConversionNanos();
+
+    /**
+     * Access the number of failed conversions.
+     *
+     * @return the number of conversions.
+     */
+    long getConversionFailureCount();
+
+    /**
+     * Access the keys accessed most often.
+     *
+     * @return the access counts by key.
+     */
+    Map<String, Long> getHotKeys();
+
+    /**
+     * Access the mean latency of each PropertySource.
+     *
+     * @return the mean latencies by PropertySource name.
+     */
+    Map<String, Long> getPropertySourceMeanNanos();
+
+    /**
+     * Access the number of hits of the value cache.
+     *
+     * @return the number of hits.
+     */
+    long getValueCacheHitCount();
+
+    /**
+     * Access the number of misses of the value cache.
+     *
+     * @return the number of misses.
+     */
+    long getValueCacheMissCount();
+
+    /**
+     * Access the number of hits of the conversion cache.
+     *
+     * @return the number of hits.
+     */
+    long getConversionCacheHitCount();
+
+    /**
+     * Access the number of misses of the conversion cache.
+     *
+     * @return the number of misses.
+     */
+    long getConversionCacheMissCount();
+
+    /**
+     * Resets all metrics collected.
+     */
+    void reset();
+}
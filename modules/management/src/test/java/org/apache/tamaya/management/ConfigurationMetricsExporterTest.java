@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.management;
+
+import org.apache.tamaya.core.internal.DefaultConfiguration;
+import org.apache.tamaya.core.internal.DefaultConfigurationContext;
+import org.apache.tamaya.core.propertysource.SystemPropertySource;
+import org.junit.Test;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ConfigurationMetricsExporterTest {
+
+    @Test
+    public void testMetricsAreExported() throws Exception {
+        DefaultConfigurationContext context = new DefaultConfigurationContext();
+        context.addPropertySources(new SystemPropertySource());
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        ObjectName name = new ObjectName(ConfigurationMetricsExporter.OBJECT_NAME);
+        ConfigurationMetricsExporter.register(server, name, context);
+
+        assertEquals(Boolean.FALSE, server.getAttribute(name, "Enabled"));
+        server.setAttribute(name, new Attribute("Enabled", Boolean.TRUE));
+        new DefaultConfiguration(context).get("java.version");
+
+        assertEquals(1L, server.getAttribute(name, "AccessCount"));
+        TabularData hotKeys = (TabularData) server.getAttribute(name, "HotKeys");
+        assertEquals(1, hotKeys.size());
+        assertTrue(((TabularData) server.getAttribute(name, "PropertySourceMeanNanos")).size() > 0);
+
+        server.invoke(name, "reset", new Object[0], new String[0]);
+        assertEquals(0L, server.getAttribute(name, "AccessCount"));
+    }
+}
@@ -19,6 +19,7 @@
 package org.apache.tamaya.resolver.internal;
 
 import org.apache.tamaya.resolver.spi.ExpressionEvaluator;
+import org.apache.tamaya.spi.FilterScope;
 import org.apache.tamaya.spi.PropertyFilter;
 import org.apache.tamaya.spi.ServiceContext;
 
@@ -35,6 +36,9 @@ public class ExpressionResolutionFilter implements PropertyFilter {
 
     private static final Logger LOG = Logger.getLogger(ExpressionResolutionFilter.class.getName());
 
+    /** The scope of values containing an expression. */
+    private static final FilterScope SCOPE = FilterScope.ofValuesContaining("${");
+
     private ExpressionEvaluator evaluator = ServiceContext.getInstance().getService(ExpressionEvaluator.class).get();
 
     /**
@@ -81,5 +85,16 @@ public class ExpressionResolutionFilter implements PropertyFilter {
         return evaluator.evaluateExpression(key, valueToBeFiltered);
     }
 
+    /**
+     * Values without an expression are returned unchanged, so only values containing <code>${</code> must be
+     * filtered.
+     *
+     * @return the scope of values containing an expression.
+     */
+    @Override
+    public FilterScope getScope() {
+        return SCOPE;
+    }
+
 
 }